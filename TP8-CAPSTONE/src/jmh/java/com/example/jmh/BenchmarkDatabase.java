@@ -0,0 +1,208 @@
+package com.example.jmh;
+
+import com.example.dto.AvailabilityProbe;
+import com.example.model.StatutReservation;
+import com.example.repository.ReservationRepository;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepository;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.DataInitializer;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Base H2 en mémoire partagée par les benchmarks d'un fork : jeu de données de DataInitializer
+ * complété par {@code reservations} réservations insérées en JDBC, cache L2 et cache de requêtes
+ * activés ou non ({@code cache}).
+ *
+ * Les réservations ajoutées occupent chaque salle heure par heure (50 minutes, sans chevauchement)
+ * à partir de {@link #origin}, utilisateurs en rotation, 5 % annulées et 5 % en attente. Les
+ * arguments des benchmarks sont tirés au hasard dans cette plage.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    static final long FIRST_ID = 1_000_000_000L;
+    private static final String MOTIF = "JMH";
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int reservations;
+
+    @Param({"on", "off"})
+    public String cache;
+
+    EntityManagerFactory emf;
+    UnitOfWork unitOfWork;
+    SalleRepository salleRepository;
+    ReservationRepository reservationRepository;
+    List<Long> salleIds;
+    List<Long> utilisateurIds;
+    List<Long> equipementIds;
+    LocalDateTime origin;
+    // Nombre d'heures couvertes par les réservations ajoutées
+    int hours;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean cached = "on".equals(cache);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        properties.put("hibernate.cache.use_second_level_cache", String.valueOf(cached));
+        properties.put("hibernate.cache.use_query_cache", String.valueOf(cached));
+        emf = Persistence.createEntityManagerFactory("gestion-reservations-h2", properties);
+        new DataInitializer(emf).initializeData();
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            salleIds = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class).getResultList();
+            utilisateurIds = em.createQuery("SELECT u.id FROM Utilisateur u ORDER BY u.id", Long.class).getResultList();
+            equipementIds = em.createQuery("SELECT e.id FROM Equipement e ORDER BY e.id", Long.class).getResultList();
+        } finally {
+            em.close();
+        }
+        origin = LocalDateTime.now().plusYears(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        hours = (reservations + salleIds.size() - 1) / salleIds.size();
+        seed();
+
+        unitOfWork = new UnitOfWork(emf);
+        EntityManager contextual = unitOfWork.getEntityManager();
+        salleRepository = new SalleRepositoryImpl(contextual);
+        reservationRepository = new ReservationRepositoryImpl(contextual);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        emf.close();
+    }
+
+    /** Un appel dans sa propre unité de travail, comme une requête utilisateur */
+    <T> T call(Supplier<T> work) {
+        return unitOfWork.call(work);
+    }
+
+    /**
+     * Traitement dans une transaction annulée ensuite : mesure les écritures (flush compris)
+     * sans faire grossir ni modifier le jeu de données d'une itération à l'autre
+     */
+    <T> T rolledBack(Supplier<T> work) {
+        return unitOfWork.call(() -> {
+            EntityManager em = unitOfWork.getEntityManager();
+            em.getTransaction().begin();
+            try {
+                T result = work.get();
+                em.flush();
+                return result;
+            } finally {
+                em.getTransaction().rollback();
+            }
+        });
+    }
+
+    private void seed() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO reservations (id, date_debut, date_fin, motif, statut, salle_id, utilisateur_id, version)"
+                                + " VALUES (?, ?, ?, ?, ?, ?, ?, 0)")) {
+                    for (int i = 0; i < reservations; i++) {
+                        LocalDateTime start = origin.plusHours(i / salleIds.size());
+                        statement.setLong(1, FIRST_ID + i);
+                        statement.setTimestamp(2, Timestamp.valueOf(start));
+                        statement.setTimestamp(3, Timestamp.valueOf(start.plusMinutes(50)));
+                        statement.setString(4, MOTIF);
+                        statement.setString(5, statutOf(i).name());
+                        statement.setLong(6, salleIds.get(i % salleIds.size()));
+                        statement.setLong(7, utilisateurIds.get(i % utilisateurIds.size()));
+                        statement.addBatch();
+                        if ((i + 1) % INSERT_BATCH == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            });
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private static StatutReservation statutOf(int i) {
+        switch (i % 20) {
+            case 0:
+                return StatutReservation.ANNULEE;
+            case 1:
+                return StatutReservation.EN_ATTENTE;
+            default:
+                return StatutReservation.CONFIRMEE;
+        }
+    }
+
+    // Arguments tirés au hasard dans le jeu de données
+
+    int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(reservations);
+    }
+
+    Long randomReservationId() {
+        return FIRST_ID + randomIndex();
+    }
+
+    /** Date de début de la réservation ajoutée n° index */
+    LocalDateTime startOf(int index) {
+        return origin.plusHours(index / salleIds.size());
+    }
+
+    LocalDateTime randomHour() {
+        return origin.plusHours(ThreadLocalRandom.current().nextInt(hours));
+    }
+
+    Long randomSalleId() {
+        return salleIds.get(ThreadLocalRandom.current().nextInt(salleIds.size()));
+    }
+
+    Long randomUtilisateurId() {
+        return utilisateurIds.get(ThreadLocalRandom.current().nextInt(utilisateurIds.size()));
+    }
+
+    Long randomEquipementId() {
+        return equipementIds.get(ThreadLocalRandom.current().nextInt(equipementIds.size()));
+    }
+
+    /** Sondes de disponibilité : count créneaux d'une heure, salles et heures au hasard */
+    List<AvailabilityProbe> randomProbes(int count) {
+        List<AvailabilityProbe> probes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = randomHour();
+            probes.add(new AvailabilityProbe(randomSalleId(), start, start.plusHours(1)));
+        }
+        return probes;
+    }
+}
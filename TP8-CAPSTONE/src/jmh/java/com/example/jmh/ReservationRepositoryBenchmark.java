@@ -0,0 +1,201 @@
+package com.example.jmh;
+
+import com.example.dto.AvailabilityProbe;
+import com.example.dto.ReservationSummary;
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.StatutReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationFetch;
+import com.example.util.IntervalTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Une méthode de ReservationRepository par benchmark, chacune dans sa propre unité de travail.
+ * Les listes par utilisateur, par salle, par statut et les parcours complets croissent avec
+ * {@code reservations} : c'est leur coût à cette taille qui est mesuré. Les écritures sont
+ * annulées après flush (voir BenchmarkDatabase.rolledBack).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx3g"})
+public class ReservationRepositoryBenchmark {
+
+    @Benchmark
+    public Reservation findById(BenchmarkDatabase db) {
+        Long id = db.randomReservationId();
+        return db.call(() -> db.reservationRepository.findById(id));
+    }
+
+    @Benchmark
+    public Reservation findByIdWithSalleUtilisateur(BenchmarkDatabase db) {
+        Long id = db.randomReservationId();
+        return db.call(() -> db.reservationRepository.findById(id, ReservationFetch.SALLE_UTILISATEUR));
+    }
+
+    @Benchmark
+    public List<Reservation> findAll(BenchmarkDatabase db) {
+        return db.call(() -> db.reservationRepository.findAll());
+    }
+
+    @Benchmark
+    public List<Reservation> findByUtilisateur(BenchmarkDatabase db) {
+        Long utilisateurId = db.randomUtilisateurId();
+        return db.call(() -> db.reservationRepository.findByUtilisateur(utilisateurId));
+    }
+
+    @Benchmark
+    public List<Reservation> findBySalle(BenchmarkDatabase db) {
+        Long salleId = db.randomSalleId();
+        return db.call(() -> db.reservationRepository.findBySalle(salleId));
+    }
+
+    @Benchmark
+    public List<Reservation> findByDateRange(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        return db.call(() -> db.reservationRepository.findByDateRange(start, start.plusDays(1)));
+    }
+
+    @Benchmark
+    public List<Reservation> findByStatut(BenchmarkDatabase db) {
+        return db.call(() -> db.reservationRepository.findByStatut(StatutReservation.EN_ATTENTE));
+    }
+
+    @Benchmark
+    public List<ReservationSummary> findSummariesByUtilisateur(BenchmarkDatabase db) {
+        Long utilisateurId = db.randomUtilisateurId();
+        return db.call(() -> db.reservationRepository.findSummariesByUtilisateur(utilisateurId));
+    }
+
+    @Benchmark
+    public List<ReservationSummary> findSummariesBySalle(BenchmarkDatabase db) {
+        Long salleId = db.randomSalleId();
+        return db.call(() -> db.reservationRepository.findSummariesBySalle(salleId));
+    }
+
+    @Benchmark
+    public List<ReservationSummary> findSummariesByDateRange(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        return db.call(() -> db.reservationRepository.findSummariesByDateRange(start, start.plusDays(1)));
+    }
+
+    @Benchmark
+    public List<ReservationSummary> findSummariesByStatut(BenchmarkDatabase db) {
+        return db.call(() -> db.reservationRepository.findSummariesByStatut(StatutReservation.EN_ATTENTE));
+    }
+
+    @Benchmark
+    public List<Reservation> findOverlapping(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        Long salleId = db.randomSalleId();
+        return db.call(() -> db.reservationRepository.findOverlapping(start, start.plusDays(1), salleId,
+                StatutReservation.CONFIRMEE));
+    }
+
+    @Benchmark
+    public long streamAll(BenchmarkDatabase db) {
+        return db.call(() -> {
+            try (Stream<Reservation> stream = db.reservationRepository.streamAll()) {
+                return stream.count();
+            }
+        });
+    }
+
+    @Benchmark
+    public long countReservations(BenchmarkDatabase db) {
+        return db.call(() -> db.reservationRepository.countReservations());
+    }
+
+    @Benchmark
+    public List<Reservation> findAfter(BenchmarkDatabase db) {
+        int index = db.randomIndex();
+        LocalDateTime afterDateDebut = db.startOf(index);
+        Long afterId = BenchmarkDatabase.FIRST_ID + index;
+        return db.call(() -> db.reservationRepository.findAfter(afterDateDebut, afterId, 50));
+    }
+
+    @Benchmark
+    public long streamByStatut(BenchmarkDatabase db) {
+        return db.call(() -> {
+            try (Stream<Reservation> stream = db.reservationRepository.streamByStatut(StatutReservation.EN_ATTENTE)) {
+                return stream.count();
+            }
+        });
+    }
+
+    @Benchmark
+    public Reservation save(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour().plusYears(200);
+        Long salleId = db.randomSalleId();
+        Long utilisateurId = db.randomUtilisateurId();
+        return db.rolledBack(() -> {
+            EntityManager em = db.unitOfWork.getEntityManager();
+            Reservation reservation = new Reservation(start, start.plusHours(1), "JMH save");
+            reservation.setSalle(em.getReference(Salle.class, salleId));
+            reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+            db.reservationRepository.save(reservation);
+            return reservation;
+        });
+    }
+
+    @Benchmark
+    public Reservation update(BenchmarkDatabase db) {
+        Long id = db.randomReservationId();
+        return db.rolledBack(() -> {
+            Reservation reservation = db.reservationRepository.findById(id);
+            reservation.setMotif("JMH update");
+            db.reservationRepository.update(reservation);
+            return reservation;
+        });
+    }
+
+    @Benchmark
+    public Long delete(BenchmarkDatabase db) {
+        Long id = db.randomReservationId();
+        return db.rolledBack(() -> {
+            db.reservationRepository.delete(id);
+            return id;
+        });
+    }
+
+    @Benchmark
+    public boolean isSalleAvailable(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        Long salleId = db.randomSalleId();
+        return db.call(() -> db.reservationRepository.isSalleAvailable(salleId, start, start.plusHours(1)));
+    }
+
+    @Benchmark
+    public boolean isSalleAvailableForUpdate(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        Long salleId = db.randomSalleId();
+        return db.call(() -> db.reservationRepository.isSalleAvailableForUpdate(salleId, start, start.plusHours(1)));
+    }
+
+    @Benchmark
+    public Map<AvailabilityProbe, Boolean> checkAvailability(BenchmarkDatabase db) {
+        List<AvailabilityProbe> probes = db.randomProbes(20);
+        return db.call(() -> db.reservationRepository.checkAvailability(probes));
+    }
+
+    @Benchmark
+    public Map<Long, IntervalTree> findConfirmedIntervals(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        return db.call(() -> db.reservationRepository.findConfirmedIntervals(db.salleIds, start, start.plusDays(7)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.jmh;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.Utilisateur;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.booking.BookingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ReservationService.createReservation de bout en bout (vérification de disponibilité et insertion
+ * validée) selon la stratégie de réservation. Chaque appel prend un créneau libre, après la plage du
+ * jeu de données ; les réservations créées sont supprimées à la fin de chaque itération.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx3g"})
+public class ReservationServiceBenchmark {
+
+    private static final String MOTIF = "JMH createReservation";
+
+    @State(Scope.Benchmark)
+    public static class Service {
+
+        @Param({BookingStrategies.NONE, BookingStrategies.PESSIMISTIC, BookingStrategies.OPTIMISTIC})
+        public String strategy;
+
+        ReservationService reservationService;
+        LocalDateTime firstFreeHour;
+        final AtomicLong nextSlot = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase db) {
+            reservationService = new ReservationServiceImpl(db.unitOfWork.getEntityManager(), db.reservationRepository,
+                    BookingStrategies.create(strategy));
+            firstFreeHour = db.origin.plusHours(db.hours + 24L);
+        }
+
+        @TearDown(Level.Iteration)
+        public void cleanUp(BenchmarkDatabase db) {
+            EntityManager em = db.emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                        .setParameter("motif", MOTIF)
+                        .executeUpdate();
+                em.getTransaction().commit();
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                em.close();
+            }
+            db.emf.getCache().evict(Reservation.class);
+        }
+    }
+
+    @Benchmark
+    public boolean createReservation(BenchmarkDatabase db, Service service) {
+        // Créneaux distincts : salles en rotation, une heure de plus à chaque tour
+        long slot = service.nextSlot.getAndIncrement();
+        Long salleId = db.salleIds.get((int) (slot % db.salleIds.size()));
+        LocalDateTime start = service.firstFreeHour.plusHours(slot / db.salleIds.size());
+        Long utilisateurId = db.randomUtilisateurId();
+        return db.call(() -> {
+            EntityManager em = db.unitOfWork.getEntityManager();
+            Reservation reservation = new Reservation(start, start.plusMinutes(50), MOTIF);
+            reservation.setSalle(em.getReference(Salle.class, salleId));
+            reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+            return service.reservationService.createReservation(reservation);
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.jmh;
+
+import com.example.dto.SalleSummary;
+import com.example.model.Salle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Une méthode de SalleRepository par benchmark, chacune dans sa propre unité de travail.
+ * Les écritures sont annulées après flush (voir BenchmarkDatabase.rolledBack).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx3g"})
+public class SalleRepositoryBenchmark {
+
+    @Benchmark
+    public Salle findById(BenchmarkDatabase db) {
+        Long id = db.randomSalleId();
+        return db.call(() -> db.salleRepository.findById(id));
+    }
+
+    @Benchmark
+    public List<Salle> findAll(BenchmarkDatabase db) {
+        return db.call(() -> db.salleRepository.findAll());
+    }
+
+    @Benchmark
+    public List<Salle> findAvailableRooms(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        return db.call(() -> db.salleRepository.findAvailableRooms(start, start.plusHours(1)));
+    }
+
+    @Benchmark
+    public List<SalleSummary> findAvailableRoomSummaries(BenchmarkDatabase db) {
+        LocalDateTime start = db.randomHour();
+        return db.call(() -> db.salleRepository.findAvailableRoomSummaries(start, start.plusHours(1)));
+    }
+
+    @Benchmark
+    public List<Salle> searchRooms(BenchmarkDatabase db) {
+        Map<String, Object> criteria = new HashMap<>();
+        criteria.put("capaciteMin", 20);
+        criteria.put("equipement", db.randomEquipementId());
+        return db.call(() -> db.salleRepository.searchRooms(criteria));
+    }
+
+    @Benchmark
+    public long countRooms(BenchmarkDatabase db) {
+        return db.call(() -> db.salleRepository.countRooms());
+    }
+
+    @Benchmark
+    public List<Salle> getPaginatedRooms(BenchmarkDatabase db) {
+        int page = 1 + ThreadLocalRandom.current().nextInt(3);
+        return db.call(() -> db.salleRepository.getPaginatedRooms(page, 5));
+    }
+
+    @Benchmark
+    public List<SalleSummary> getPaginatedRoomSummaries(BenchmarkDatabase db) {
+        int page = 1 + ThreadLocalRandom.current().nextInt(3);
+        return db.call(() -> db.salleRepository.getPaginatedRoomSummaries(page, 5));
+    }
+
+    @Benchmark
+    public List<Salle> findRoomsAfter(BenchmarkDatabase db) {
+        Long afterId = db.randomSalleId();
+        return db.call(() -> db.salleRepository.findRoomsAfter(afterId, 5));
+    }
+
+    @Benchmark
+    public Salle save(BenchmarkDatabase db) {
+        return db.rolledBack(() -> {
+            Salle salle = new Salle("Salle JMH", 20);
+            db.salleRepository.save(salle);
+            return salle;
+        });
+    }
+
+    @Benchmark
+    public Salle update(BenchmarkDatabase db) {
+        Long id = db.randomSalleId();
+        return db.rolledBack(() -> {
+            Salle salle = db.salleRepository.findById(id);
+            salle.setCapacite(salle.getCapacite() + 1);
+            db.salleRepository.update(salle);
+            return salle;
+        });
+    }
+
+    /** Suppression d'une salle sans réservation, insérée dans la même transaction */
+    @Benchmark
+    public Salle delete(BenchmarkDatabase db) {
+        return db.rolledBack(() -> {
+            Salle salle = new Salle("Salle JMH", 20);
+            db.salleRepository.save(salle);
+            db.unitOfWork.getEntityManager().flush();
+            db.salleRepository.delete(salle.getId());
+            return salle;
+        });
+    }
+}
@@ -1,17 +1,27 @@
 package com.example;
 
 import com.example.model.*;
+import com.example.repository.ReservationAvailabilityIndex;
 import com.example.repository.ReservationRepository;
 import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.RepositoryMetrics;
+import com.example.repository.SalleCatalog;
 import com.example.repository.SalleRepository;
 import com.example.repository.SalleRepositoryImpl;
+import com.example.repository.SlotBitmapIndex;
 import com.example.service.ReservationService;
 import com.example.service.ReservationServiceImpl;
 import com.example.service.SalleService;
 import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.service.booking.BookingStrategies;
+import com.example.test.QueryCacheReport;
 import com.example.test.TestScenarios;
+import com.example.util.AppConfig;
+import com.example.util.ConnectionPools;
 import com.example.util.DataInitializer;
 import com.example.util.DatabaseMigrationTool;
+import com.example.util.L2CacheProvider;
 import com.example.util.PerformanceReport;
 
 import javax.persistence.EntityManager;
@@ -23,17 +33,71 @@ public class App {
     public static void main(String[] args) {
         System.out.println("=== APPLICATION DE RÉSERVATION DE SALLES ===");
 
-        // Création de l'EntityManagerFactory
-        EntityManagerFactory emf = Persistence.createEntityManagerFactory("gestion-reservations");
-        EntityManager em = emf.createEntityManager();
+        // Création de l'EntityManagerFactory, cache L2 selon cache.l2.provider (ehcache2 ou jcache)
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("gestion-reservations", L2CacheProvider.overrides());
+
+        // Réplique en lecture optionnelle (db.replica.persistence-unit)
+        String replicaUnit = AppConfig.get("db.replica.persistence-unit", "");
+        EntityManagerFactory replicaEmf = replicaUnit.isEmpty() ? null : Persistence.createEntityManagerFactory(replicaUnit);
+
+        // Unité de travail : un EntityManager par thread et par appel de service (ou par action du menu).
+        // em est l'EntityManager contextuel, qui délègue à celui de l'unité en cours
+        UnitOfWork unitOfWork = new UnitOfWork(emf, replicaEmf);
+        EntityManager em = unitOfWork.getEntityManager();
 
         try {
+            // Index de disponibilité en mémoire (optionnel, voir application.properties)
+            ReservationAvailabilityIndex availabilityIndex = new ReservationAvailabilityIndex(
+                    ReservationAvailabilityIndex.Mode.parse(AppConfig.get("reservation.availability.index", "verify")));
+
+            // Bitmap de créneaux pour la recherche de salles disponibles (optionnel)
+            SlotBitmapIndex slotBitmapIndex = AppConfig.getBoolean("reservation.slot-bitmap.enabled", false)
+                    ? new SlotBitmapIndex(AppConfig.getInt("reservation.slot-bitmap.slot-minutes", 15),
+                            AppConfig.getInt("reservation.slot-bitmap.max-window-days", 31))
+                    : null;
+
+            // Catalogue des salles en mémoire pour la recherche multi-critères (optionnel)
+            SalleCatalog salleCatalog = AppConfig.getBoolean("salle.catalog.enabled", false)
+                    ? new SalleCatalog(emf)
+                    : null;
+
+            Runnable loadIndexes = () -> {
+                if (availabilityIndex.getMode() != ReservationAvailabilityIndex.Mode.OFF) {
+                    availabilityIndex.load(em);
+                }
+                if (slotBitmapIndex != null) {
+                    slotBitmapIndex.load(em);
+                }
+                if (salleCatalog != null) {
+                    salleCatalog.load();
+                }
+            };
+            unitOfWork.run(loadIndexes);
+
+            // Mesures par méthode de repository (durées, lignes, SQL, cache L2), exportées par le rapport de performance
+            RepositoryMetrics repositoryMetrics = new RepositoryMetrics();
+            boolean metricsEnabled = AppConfig.getBoolean("metrics.repository.enabled", true);
+
             // Initialisation des repositories et services
-            SalleRepository salleRepository = new SalleRepositoryImpl(em);
-            SalleService salleService = new SalleServiceImpl(em, salleRepository);
+            // Lectures @ReadOnly des repositories routées vers la réplique, si elle est configurée
+            SalleRepository salleRepository = new SalleRepositoryImpl(em, slotBitmapIndex, salleCatalog);
+            if (metricsEnabled) {
+                salleRepository = repositoryMetrics.instrument(SalleRepository.class, salleRepository);
+            }
+            salleRepository = unitOfWork.routed(SalleRepository.class, salleRepository);
+            SalleService salleService = unitOfWork.scoped(SalleService.class,
+                    new SalleServiceImpl(em, salleRepository));
 
-            ReservationRepository reservationRepository = new ReservationRepositoryImpl(em);
-            ReservationService reservationService = new ReservationServiceImpl(em, reservationRepository);
+            ReservationRepositoryImpl reservationRepository = new ReservationRepositoryImpl(em, availabilityIndex);
+            if (slotBitmapIndex != null) {
+                reservationRepository.addChangeListener(slotBitmapIndex);
+            }
+            ReservationRepository instrumentedReservationRepository = metricsEnabled
+                    ? repositoryMetrics.instrument(ReservationRepository.class, reservationRepository)
+                    : reservationRepository;
+            ReservationService reservationService = unitOfWork.scoped(ReservationService.class,
+                    new ReservationServiceImpl(em, unitOfWork.routed(ReservationRepository.class, instrumentedReservationRepository),
+                            BookingStrategies.fromConfig()));
 
             // Menu principal
             Scanner scanner = new Scanner(System.in);
@@ -53,15 +117,22 @@ public class App {
 
                 switch (choice) {
                     case 1:
-                        // Initialiser les données de test
+                        // Initialiser les données de test (jeu volumineux si data.scale.enabled)
                         DataInitializer dataInitializer = new DataInitializer(emf);
-                        dataInitializer.initializeData();
+                        if (AppConfig.getBoolean("data.scale.enabled", false)) {
+                            dataInitializer.initializeScaleData();
+                        } else {
+                            dataInitializer.initializeData();
+                        }
+                        // Les données insérées hors repository doivent être rechargées dans les index
+                        unitOfWork.run(loadIndexes);
                         break;
 
                     case 2:
                         // Exécuter les scénarios de test
                         TestScenarios testScenarios = new TestScenarios(emf, salleService, reservationService);
-                        testScenarios.runAllTests();
+                        // Une seule unité de travail pour tout le scénario (chargements paresseux compris)
+                        unitOfWork.run(testScenarios::runAllTests);
                         break;
 
                     case 3:
@@ -81,6 +152,13 @@ public class App {
                         // Générer un rapport de performance
                         PerformanceReport performanceReport = new PerformanceReport(emf);
                         performanceReport.runPerformanceTests();
+                        ConnectionPools.allMetrics().forEach(System.out::println);
+                        System.out.println(unitOfWork.getRoutingCounters());
+                        QueryCacheReport.printRegions(emf);
+                        if (metricsEnabled) {
+                            System.out.println(repositoryMetrics.export(
+                                    RepositoryMetrics.Format.parse(AppConfig.get("metrics.repository.format", "prometheus"))));
+                        }
                         break;
 
                     case 5:
@@ -95,7 +173,9 @@ public class App {
             }
 
         } finally {
-            em.close();
+            if (replicaEmf != null) {
+                replicaEmf.close();
+            }
             emf.close();
         }
     }
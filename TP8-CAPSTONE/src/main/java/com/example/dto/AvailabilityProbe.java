@@ -0,0 +1,48 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Demande de disponibilité d'une salle sur un créneau, utilisée par les vérifications groupées.
+ */
+public final class AvailabilityProbe {
+
+    private final Long salleId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public AvailabilityProbe(Long salleId, LocalDateTime start, LocalDateTime end) {
+        this.salleId = Objects.requireNonNull(salleId, "salleId");
+        this.start = Objects.requireNonNull(start, "start");
+        this.end = Objects.requireNonNull(end, "end");
+    }
+
+    public Long getSalleId() { return salleId; }
+
+    public LocalDateTime getStart() { return start; }
+
+    public LocalDateTime getEnd() { return end; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AvailabilityProbe)) return false;
+        AvailabilityProbe that = (AvailabilityProbe) o;
+        return salleId.equals(that.salleId) && start.equals(that.start) && end.equals(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(salleId, start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "AvailabilityProbe{" +
+                "salleId=" + salleId +
+                ", start=" + start +
+                ", end=" + end +
+                '}';
+    }
+}
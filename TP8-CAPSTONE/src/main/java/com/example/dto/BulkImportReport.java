@@ -0,0 +1,73 @@
+package com.example.dto;
+
+import com.example.model.Reservation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Résultat d'un import groupé de réservations : une ligne par réservation soumise,
+ * dans l'ordre de soumission.
+ */
+public class BulkImportReport {
+
+    public static final class Item {
+        private final Reservation reservation;
+        private final boolean accepted;
+        private final String reason;
+
+        private Item(Reservation reservation, boolean accepted, String reason) {
+            this.reservation = reservation;
+            this.accepted = accepted;
+            this.reason = reason;
+        }
+
+        public static Item accepted(Reservation reservation) {
+            return new Item(reservation, true, null);
+        }
+
+        public static Item rejected(Reservation reservation, String reason) {
+            return new Item(reservation, false, reason);
+        }
+
+        public Reservation getReservation() { return reservation; }
+
+        public boolean isAccepted() { return accepted; }
+
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return (accepted ? "ACCEPTÉE " : "REFUSÉE (" + reason + ") ") + reservation;
+        }
+    }
+
+    private final List<Item> items;
+
+    public BulkImportReport(List<Item> items) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public int getAcceptedCount() {
+        int count = 0;
+        for (Item item : items) {
+            if (item.isAccepted()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getRejectedCount() {
+        return items.size() - getAcceptedCount();
+    }
+
+    public boolean isFullyAccepted() {
+        return getRejectedCount() == 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.dto;
+
+import com.example.model.StatutReservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue en lecture seule d'une réservation pour les listes et les recherches : colonnes affichées
+ * uniquement, construite directement par la requête (SELECT new), sans entité gérée ni proxy.
+ */
+public final class ReservationSummary {
+
+    private final Long id;
+    private final LocalDateTime dateDebut;
+    private final LocalDateTime dateFin;
+    private final String motif;
+    private final StatutReservation statut;
+    private final Long salleId;
+    private final String salleNom;
+    private final Long utilisateurId;
+    private final String utilisateurPrenom;
+    private final String utilisateurNom;
+
+    public ReservationSummary(Long id, LocalDateTime dateDebut, LocalDateTime dateFin, String motif,
+                              StatutReservation statut, Long salleId, String salleNom,
+                              Long utilisateurId, String utilisateurPrenom, String utilisateurNom) {
+        this.id = id;
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.motif = motif;
+        this.statut = statut;
+        this.salleId = salleId;
+        this.salleNom = salleNom;
+        this.utilisateurId = utilisateurId;
+        this.utilisateurPrenom = utilisateurPrenom;
+        this.utilisateurNom = utilisateurNom;
+    }
+
+    public Long getId() { return id; }
+
+    public LocalDateTime getDateDebut() { return dateDebut; }
+
+    public LocalDateTime getDateFin() { return dateFin; }
+
+    public String getMotif() { return motif; }
+
+    public StatutReservation getStatut() { return statut; }
+
+    public Long getSalleId() { return salleId; }
+
+    public String getSalleNom() { return salleNom; }
+
+    public Long getUtilisateurId() { return utilisateurId; }
+
+    public String getUtilisateurPrenom() { return utilisateurPrenom; }
+
+    public String getUtilisateurNom() { return utilisateurNom; }
+
+    @Override
+    public String toString() {
+        return "ReservationSummary{" +
+                "id=" + id +
+                ", dateDebut=" + dateDebut +
+                ", dateFin=" + dateFin +
+                ", statut=" + statut +
+                ", salle='" + salleNom + '\'' +
+                ", utilisateur='" + utilisateurPrenom + " " + utilisateurNom + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.dto;
+
+/**
+ * Vue en lecture seule d'une salle pour les listes (disponibilités, pagination) : construite
+ * directement par la requête (SELECT new), sans entité gérée ni collection d'équipements.
+ */
+public final class SalleSummary {
+
+    private final Long id;
+    private final String nom;
+    private final Integer capacite;
+    private final String batiment;
+    private final Integer etage;
+
+    public SalleSummary(Long id, String nom, Integer capacite, String batiment, Integer etage) {
+        this.id = id;
+        this.nom = nom;
+        this.capacite = capacite;
+        this.batiment = batiment;
+        this.etage = etage;
+    }
+
+    public Long getId() { return id; }
+
+    public String getNom() { return nom; }
+
+    public Integer getCapacite() { return capacite; }
+
+    public String getBatiment() { return batiment; }
+
+    public Integer getEtage() { return etage; }
+
+    @Override
+    public String toString() {
+        return "SalleSummary{" +
+                "id=" + id +
+                ", nom='" + nom + '\'' +
+                ", capacite=" + capacite +
+                ", batiment='" + batiment + '\'' +
+                ", etage=" + etage +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.model;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
@@ -9,6 +11,7 @@ import java.util.Set;
 @Entity
 @Table(name = "equipements")
 @Cacheable
+@BatchSize(size = 25)
 public class Equipement {
 
     @Id
@@ -27,6 +30,7 @@ public class Equipement {
     private String reference;
 
     @ManyToMany(mappedBy = "equipements")
+    @BatchSize(size = 25)
     private Set<Salle> salles = new HashSet<>();
 
     @Version
@@ -0,0 +1,5 @@
+package com.example.model;
+
+public enum FrequenceRecurrence {
+    QUOTIDIENNE, HEBDOMADAIRE, MENSUELLE
+}
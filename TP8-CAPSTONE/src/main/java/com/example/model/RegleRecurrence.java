@@ -0,0 +1,120 @@
+package com.example.model;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Embeddable
+public class RegleRecurrence {
+
+    // Garde-fou contre les séries sans fin réaliste
+    public static final int MAX_OCCURRENCES = 500;
+
+    @NotNull(message = "La fréquence est obligatoire")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "frequence", nullable = false)
+    private FrequenceRecurrence frequence;
+
+    @Min(value = 1, message = "L'intervalle minimum est de 1")
+    @Column(name = "intervalle", nullable = false)
+    private int intervalle = 1;
+
+    // Fin de la récurrence (incluse) ou nombre d'occurrences : au moins l'un des deux
+    @Column(name = "date_fin_recurrence")
+    private LocalDate dateFinRecurrence;
+
+    @Column(name = "nombre_occurrences")
+    private Integer nombreOccurrences;
+
+    // Constructeurs
+    public RegleRecurrence() {}
+
+    public RegleRecurrence(FrequenceRecurrence frequence, int intervalle) {
+        this.frequence = frequence;
+        this.intervalle = intervalle;
+    }
+
+    public static RegleRecurrence jusquAu(FrequenceRecurrence frequence, int intervalle, LocalDate dateFin) {
+        RegleRecurrence regle = new RegleRecurrence(frequence, intervalle);
+        regle.setDateFinRecurrence(dateFin);
+        return regle;
+    }
+
+    public static RegleRecurrence occurrences(FrequenceRecurrence frequence, int intervalle, int nombre) {
+        RegleRecurrence regle = new RegleRecurrence(frequence, intervalle);
+        regle.setNombreOccurrences(nombre);
+        return regle;
+    }
+
+    /**
+     * Dates de début de chaque occurrence, la première étant premierDebut.
+     * Les occurrences mensuelles sont calculées depuis la première (pas de dérive en fin de mois).
+     * @throws IllegalArgumentException si la règle produit plus de MAX_OCCURRENCES occurrences
+     */
+    public List<LocalDateTime> calculerDebuts(LocalDateTime premierDebut) {
+        if (frequence == null || intervalle < 1) {
+            throw new IllegalStateException("Règle de récurrence invalide: " + this);
+        }
+        if (dateFinRecurrence == null && nombreOccurrences == null) {
+            throw new IllegalStateException("Une date de fin ou un nombre d'occurrences est obligatoire");
+        }
+
+        // Une occurrence de plus que le maximum suffit à détecter une règle trop longue
+        int limite = nombreOccurrences != null ? Math.min(nombreOccurrences, MAX_OCCURRENCES + 1) : MAX_OCCURRENCES + 1;
+        List<LocalDateTime> debuts = new ArrayList<>();
+        for (int k = 0; k < limite; k++) {
+            LocalDateTime debut = decaler(premierDebut, (long) k * intervalle);
+            if (dateFinRecurrence != null && debut.toLocalDate().isAfter(dateFinRecurrence)) {
+                break;
+            }
+            debuts.add(debut);
+        }
+        if (debuts.size() > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("La règle produit plus de " + MAX_OCCURRENCES + " occurrences: " + this);
+        }
+        return debuts;
+    }
+
+    private LocalDateTime decaler(LocalDateTime debut, long pas) {
+        switch (frequence) {
+            case QUOTIDIENNE:
+                return debut.plusDays(pas);
+            case HEBDOMADAIRE:
+                return debut.plusWeeks(pas);
+            case MENSUELLE:
+                return debut.plusMonths(pas);
+            default:
+                throw new IllegalStateException("Fréquence inconnue: " + frequence);
+        }
+    }
+
+    // Getters et Setters
+    public FrequenceRecurrence getFrequence() { return frequence; }
+    public void setFrequence(FrequenceRecurrence frequence) { this.frequence = frequence; }
+
+    public int getIntervalle() { return intervalle; }
+    public void setIntervalle(int intervalle) { this.intervalle = intervalle; }
+
+    public LocalDate getDateFinRecurrence() { return dateFinRecurrence; }
+    public void setDateFinRecurrence(LocalDate dateFinRecurrence) { this.dateFinRecurrence = dateFinRecurrence; }
+
+    public Integer getNombreOccurrences() { return nombreOccurrences; }
+    public void setNombreOccurrences(Integer nombreOccurrences) { this.nombreOccurrences = nombreOccurrences; }
+
+    @Override
+    public String toString() {
+        return "RegleRecurrence{" +
+                "frequence=" + frequence +
+                ", intervalle=" + intervalle +
+                ", dateFinRecurrence=" + dateFinRecurrence +
+                ", nombreOccurrences=" + nombreOccurrences +
+                '}';
+    }
+}
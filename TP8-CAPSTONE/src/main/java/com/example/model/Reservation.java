@@ -1,17 +1,40 @@
 package com.example.model;
 
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.FetchProfile;
+
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // Sert les recherches de chevauchement par salle et statut (voir migration_v5.sql)
+        @Index(name = "idx_reservation_salle_statut_dates", columnList = "salle_id, statut, date_debut, date_fin")
+})
 @Cacheable
+// Graphes d'entités (requêtes) et profils de chargement (find) : associations chargées par jointure,
+// au choix de l'appelant (voir ReservationFetch)
+@NamedEntityGraph(name = "Reservation.salle", attributeNodes = @NamedAttributeNode("salle"))
+@NamedEntityGraph(name = "Reservation.utilisateur", attributeNodes = @NamedAttributeNode("utilisateur"))
+@NamedEntityGraph(name = "Reservation.salleUtilisateur",
+        attributeNodes = {@NamedAttributeNode("salle"), @NamedAttributeNode("utilisateur")})
+@FetchProfile(name = "reservation-salle", fetchOverrides =
+        @FetchProfile.FetchOverride(entity = Reservation.class, association = "salle", mode = FetchMode.JOIN))
+@FetchProfile(name = "reservation-utilisateur", fetchOverrides =
+        @FetchProfile.FetchOverride(entity = Reservation.class, association = "utilisateur", mode = FetchMode.JOIN))
+@FetchProfile(name = "reservation-salle-utilisateur", fetchOverrides = {
+        @FetchProfile.FetchOverride(entity = Reservation.class, association = "salle", mode = FetchMode.JOIN),
+        @FetchProfile.FetchOverride(entity = Reservation.class, association = "utilisateur", mode = FetchMode.JOIN)
+})
 public class Reservation {
 
+    // Séquence (table reservation_seq sous MySQL) allouée par blocs : compatible avec le batch JDBC,
+    // contrairement à IDENTITY qui impose un INSERT immédiat par ligne
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "La date de début est obligatoire")
@@ -38,6 +61,11 @@ public class Reservation {
     @JoinColumn(name = "salle_id", nullable = false)
     private Salle salle;
 
+    // Série d'appartenance pour une réservation récurrente
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "serie_id")
+    private SerieReservation serie;
+
     @Version
     private Long version;
 
@@ -72,6 +100,9 @@ public class Reservation {
     public Salle getSalle() { return salle; }
     public void setSalle(Salle salle) { this.salle = salle; }
 
+    public SerieReservation getSerie() { return serie; }
+    public void setSerie(SerieReservation serie) { this.serie = serie; }
+
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 
@@ -1,5 +1,7 @@
 package com.example.model;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
@@ -13,10 +15,14 @@ import java.util.Set;
 @Entity
 @Table(name = "salles")
 @Cacheable
+// Proxys et collections non initialisés chargés par lots (un SELECT ... IN pour 25 salles)
+@BatchSize(size = 25)
 public class Salle {
 
+    // Séquence (table salle_seq sous MySQL) allouée par blocs, comme pour Reservation : batch JDBC possible
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salle_seq")
+    @SequenceGenerator(name = "salle_seq", sequenceName = "salle_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom est obligatoire")
@@ -42,9 +48,11 @@ public class Salle {
     private String numero;
 
     @OneToMany(mappedBy = "salle", cascade = CascadeType.ALL)
+    @BatchSize(size = 25)
     private List<Reservation> reservations = new ArrayList<>();
 
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 25)
     @JoinTable(
             name = "salle_equipement",
             joinColumns = @JoinColumn(name = "salle_id"),
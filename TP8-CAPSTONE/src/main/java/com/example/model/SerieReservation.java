@@ -0,0 +1,122 @@
+package com.example.model;
+
+import org.hibernate.annotations.BatchSize;
+
+import javax.persistence.*;
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(name = "series_reservations")
+@BatchSize(size = 25)
+public class SerieReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Créneau de la première occurrence
+    @NotNull(message = "La date de début est obligatoire")
+    @Column(name = "date_debut", nullable = false)
+    private LocalDateTime dateDebut;
+
+    @NotNull(message = "La date de fin est obligatoire")
+    @Column(name = "date_fin", nullable = false)
+    private LocalDateTime dateFin;
+
+    @Size(max = 500, message = "Le motif ne peut pas dépasser 500 caractères")
+    @Column(length = 500)
+    private String motif;
+
+    @Valid
+    @NotNull(message = "La règle de récurrence est obligatoire")
+    @Embedded
+    private RegleRecurrence regle;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "utilisateur_id", nullable = false)
+    private Utilisateur utilisateur;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "salle_id", nullable = false)
+    private Salle salle;
+
+    @OneToMany(mappedBy = "serie")
+    @BatchSize(size = 25)
+    private List<Reservation> reservations = new ArrayList<>();
+
+    @Version
+    private Long version;
+
+    // Constructeurs
+    public SerieReservation() {}
+
+    public SerieReservation(LocalDateTime dateDebut, LocalDateTime dateFin, String motif, RegleRecurrence regle) {
+        this.dateDebut = dateDebut;
+        this.dateFin = dateFin;
+        this.motif = motif;
+        this.regle = regle;
+    }
+
+    // Méthodes utilitaires
+
+    /**
+     * Crée (sans les persister) les réservations de chaque occurrence de la série.
+     */
+    public List<Reservation> genererOccurrences() {
+        Duration duree = Duration.between(dateDebut, dateFin);
+        List<Reservation> occurrences = new ArrayList<>();
+        for (LocalDateTime debut : regle.calculerDebuts(dateDebut)) {
+            Reservation reservation = new Reservation(debut, debut.plus(duree), motif);
+            reservation.setSalle(salle);
+            reservation.setUtilisateur(utilisateur);
+            reservation.setSerie(this);
+            occurrences.add(reservation);
+        }
+        return occurrences;
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getDateDebut() { return dateDebut; }
+    public void setDateDebut(LocalDateTime dateDebut) { this.dateDebut = dateDebut; }
+
+    public LocalDateTime getDateFin() { return dateFin; }
+    public void setDateFin(LocalDateTime dateFin) { this.dateFin = dateFin; }
+
+    public String getMotif() { return motif; }
+    public void setMotif(String motif) { this.motif = motif; }
+
+    public RegleRecurrence getRegle() { return regle; }
+    public void setRegle(RegleRecurrence regle) { this.regle = regle; }
+
+    public Utilisateur getUtilisateur() { return utilisateur; }
+    public void setUtilisateur(Utilisateur utilisateur) { this.utilisateur = utilisateur; }
+
+    public Salle getSalle() { return salle; }
+    public void setSalle(Salle salle) { this.salle = salle; }
+
+    public List<Reservation> getReservations() { return reservations; }
+    public void setReservations(List<Reservation> reservations) { this.reservations = reservations; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    @Override
+    public String toString() {
+        return "SerieReservation{" +
+                "id=" + id +
+                ", dateDebut=" + dateDebut +
+                ", dateFin=" + dateFin +
+                ", motif='" + motif + '\'' +
+                ", regle=" + regle +
+                '}';
+    }
+}
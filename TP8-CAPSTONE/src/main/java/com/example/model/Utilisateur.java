@@ -1,5 +1,7 @@
 package com.example.model;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -9,10 +11,14 @@ import java.util.List;
 @Entity
 @Table(name = "utilisateurs")
 @Cacheable
+// Proxys et collections non initialisés chargés par lots (un SELECT ... IN pour 25 utilisateurs)
+@BatchSize(size = 25)
 public class Utilisateur {
 
+    // Séquence (table utilisateur_seq sous MySQL) allouée par blocs, comme pour Reservation : batch JDBC possible
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "utilisateur_seq")
+    @SequenceGenerator(name = "utilisateur_seq", sequenceName = "utilisateur_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Le nom est obligatoire")
@@ -35,6 +41,7 @@ public class Utilisateur {
     private String departement;
 
     @OneToMany(mappedBy = "utilisateur", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 25)
     private List<Reservation> reservations = new ArrayList<>();
 
     @Version
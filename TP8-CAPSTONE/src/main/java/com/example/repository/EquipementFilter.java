@@ -0,0 +1,48 @@
+package com.example.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Critère multi-équipements de searchRooms :
+ * - "equipements"     : collection d'identifiants d'équipement ;
+ * - "equipementsMode" : ALL (défaut, la salle doit avoir tous les équipements) ou ANY (au moins un).
+ * Le critère historique "equipement" (un seul identifiant) équivaut à ALL sur un élément et se
+ * cumule avec "equipements".
+ */
+final class EquipementFilter {
+
+    enum Mode { ALL, ANY }
+
+    private EquipementFilter() {}
+
+    /** Identifiants demandés (éléments Number), null si le critère est absent */
+    static Collection<?> requestedIds(Map<String, Object> criteria) {
+        if (!criteria.containsKey("equipements")) {
+            return null;
+        }
+        Object value = criteria.get("equipements");
+        if (!(value instanceof Collection)) {
+            throw new IllegalArgumentException("Le critère equipements doit être une collection d'identifiants");
+        }
+        return (Collection<?>) value;
+    }
+
+    static Mode mode(Map<String, Object> criteria) {
+        Object mode = criteria.get("equipementsMode");
+        if (mode == null || Mode.ALL.name().equalsIgnoreCase(mode.toString())) {
+            return Mode.ALL;
+        }
+        if (Mode.ANY.name().equalsIgnoreCase(mode.toString())) {
+            return Mode.ANY;
+        }
+        throw new IllegalArgumentException("equipementsMode inconnu : " + mode + " (ALL ou ANY)");
+    }
+
+    /** Identifiants distincts, pour les paramètres de la requête JPQL */
+    static List<Long> distinctIds(Collection<?> ids) {
+        return ids.stream().map(id -> ((Number) id).longValue()).distinct().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Méthode de repository en lecture seule, sans exigence de fraîcheur : UnitOfWork.routed peut
+ * l'envoyer vers la base réplique. Les vérifications de disponibilité qui précèdent une écriture
+ * ne doivent pas la porter.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+}
@@ -0,0 +1,273 @@
+package com.example.repository;
+
+import com.example.util.LatencyHistogram;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Instrumentation permanente des repositories : instrument() enveloppe un repository dans un proxy
+ * qui mesure, pour chaque méthode de son interface, la durée des appels (histogramme), les erreurs,
+ * les lignes renvoyées, les instructions SQL exécutées et les lectures du cache L2 (succès / échecs,
+ * relevés par SessionCounters). L'enregistrement est sans verrou (histogramme atomique, LongAdder).
+ *
+ * Lignes renvoyées : taille d'une collection ou d'une map, éléments consommés d'un Stream, 1 pour
+ * toute autre valeur non nulle. Pour un Stream, la durée et les instructions s'arrêtent au retour
+ * de la méthode (exécution de la requête), pas à la consommation du flux.
+ *
+ * Export au format texte Prometheus ou JSON (metrics.repository.format).
+ */
+public class RepositoryMetrics {
+
+    public enum Format {
+        PROMETHEUS,
+        JSON;
+
+        public static Format parse(String value) {
+            return value == null ? PROMETHEUS : Format.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    /** Mesures cumulées d'une méthode de repository */
+    public static final class MethodMetrics {
+        private final String repository;
+        private final String method;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder l2Hits = new LongAdder();
+        private final LongAdder l2Misses = new LongAdder();
+
+        MethodMetrics(String repository, String method) {
+            this.repository = repository;
+            this.method = method;
+        }
+
+        public String getRepository() { return repository; }
+        public String getMethod() { return method; }
+        public LatencyHistogram getLatency() { return latency; }
+        public long getCalls() { return latency.getCount(); }
+        public long getErrors() { return errors.sum(); }
+        public long getRows() { return rows.sum(); }
+        public long getStatements() { return statements.sum(); }
+        public long getL2Hits() { return l2Hits.sum(); }
+        public long getL2Misses() { return l2Misses.sum(); }
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+            rows.reset();
+            statements.reset();
+            l2Hits.reset();
+            l2Misses.reset();
+        }
+    }
+
+    // Clé "Repository.méthode" : export trié, stable d'un relevé à l'autre
+    private final Map<String, MethodMetrics> metrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * Enveloppe un repository : chaque méthode de l'interface est mesurée. À placer au plus près de
+     * l'implémentation (sous UnitOfWork.routed) pour ne mesurer que le travail du repository.
+     */
+    public <R> R instrument(Class<R> repositoryInterface, R repository) {
+        // Table figée à la création du proxy : aucun calcul de nom ni allocation par appel
+        Map<Method, MethodMetrics> byMethod = new HashMap<>();
+        Map<String, Long> overloads = Stream.of(repositoryInterface.getMethods())
+                .collect(Collectors.groupingBy(Method::getName, Collectors.counting()));
+        for (Method method : repositoryInterface.getMethods()) {
+            String label = overloads.get(method.getName()) > 1 ? signature(method) : method.getName();
+            byMethod.put(method, metrics.computeIfAbsent(repositoryInterface.getSimpleName() + "." + label,
+                    key -> new MethodMetrics(repositoryInterface.getSimpleName(), label)));
+        }
+
+        return repositoryInterface.cast(Proxy.newProxyInstance(repositoryInterface.getClassLoader(),
+                new Class<?>[]{repositoryInterface}, (proxy, method, args) -> {
+                    MethodMetrics measured = byMethod.get(method);
+                    if (measured == null) {
+                        return invoke(method, repository, args);
+                    }
+                    long[] counters = SessionCounters.current();
+                    long statementsBefore = counters[SessionCounters.STATEMENTS];
+                    long hitsBefore = counters[SessionCounters.L2_HITS];
+                    long missesBefore = counters[SessionCounters.L2_MISSES];
+                    long start = System.nanoTime();
+                    try {
+                        return countRows(invoke(method, repository, args), measured);
+                    } catch (Throwable e) {
+                        measured.errors.increment();
+                        throw e;
+                    } finally {
+                        measured.latency.record(System.nanoTime() - start);
+                        // Écarts souvent nuls (contexte de persistance, catalogue en mémoire) : rien à écrire
+                        addIfNotZero(measured.statements, counters[SessionCounters.STATEMENTS] - statementsBefore);
+                        addIfNotZero(measured.l2Hits, counters[SessionCounters.L2_HITS] - hitsBefore);
+                        addIfNotZero(measured.l2Misses, counters[SessionCounters.L2_MISSES] - missesBefore);
+                    }
+                }));
+    }
+
+    /** Méthodes appelées au moins une fois, triées par repository puis par méthode */
+    public List<MethodMetrics> getMethods() {
+        List<MethodMetrics> called = new ArrayList<>();
+        for (MethodMetrics method : metrics.values()) {
+            if (method.getCalls() > 0) {
+                called.add(method);
+            }
+        }
+        return called;
+    }
+
+    public MethodMetrics get(String repository, String method) {
+        return metrics.get(repository + "." + method);
+    }
+
+    public void reset() {
+        metrics.values().forEach(MethodMetrics::reset);
+    }
+
+    public String export(Format format) {
+        return format == Format.JSON ? toJson() : toPrometheus();
+    }
+
+    /** Format d'exposition texte Prometheus (version 0.0.4) : un summary de durées et des compteurs */
+    public String toPrometheus() {
+        List<MethodMetrics> called = getMethods();
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP repository_call_duration_seconds Durée des appels de méthodes de repository\n");
+        out.append("# TYPE repository_call_duration_seconds summary\n");
+        for (MethodMetrics method : called) {
+            for (double quantile : new double[]{0.5, 0.99}) {
+                out.append("repository_call_duration_seconds{").append(labels(method))
+                        .append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(seconds(method.latency.percentile(quantile * 100))).append('\n');
+            }
+            out.append("repository_call_duration_seconds_sum{").append(labels(method)).append("} ")
+                    .append(seconds(method.latency.getTotalNanos())).append('\n');
+            out.append("repository_call_duration_seconds_count{").append(labels(method)).append("} ")
+                    .append(method.getCalls()).append('\n');
+        }
+        family(out, called, "repository_call_duration_seconds_max", "gauge",
+                "Durée maximale d'un appel depuis le démarrage ou la remise à zéro",
+                method -> seconds(method.latency.getMaxNanos()));
+        family(out, called, "repository_call_errors_total", "counter",
+                "Appels terminés par une exception", method -> Long.toString(method.getErrors()));
+        family(out, called, "repository_rows_total", "counter",
+                "Lignes renvoyées par les appels", method -> Long.toString(method.getRows()));
+        family(out, called, "repository_statements_total", "counter",
+                "Instructions SQL exécutées pendant les appels", method -> Long.toString(method.getStatements()));
+        family(out, called, "repository_l2_cache_hits_total", "counter",
+                "Lectures du cache L2 réussies pendant les appels", method -> Long.toString(method.getL2Hits()));
+        family(out, called, "repository_l2_cache_misses_total", "counter",
+                "Lectures du cache L2 manquées pendant les appels", method -> Long.toString(method.getL2Misses()));
+        return out.toString();
+    }
+
+    /** Un objet par méthode appelée, durées en millisecondes */
+    public String toJson() {
+        StringBuilder out = new StringBuilder("{\"methods\":[");
+        List<MethodMetrics> called = getMethods();
+        for (int i = 0; i < called.size(); i++) {
+            MethodMetrics method = called.get(i);
+            LatencyHistogram latency = method.latency;
+            out.append(i == 0 ? "\n  " : ",\n  ")
+                    .append("{\"repository\":\"").append(escape(method.repository))
+                    .append("\",\"method\":\"").append(escape(method.method))
+                    .append("\",\"calls\":").append(method.getCalls())
+                    .append(",\"errors\":").append(method.getErrors())
+                    .append(",\"meanMs\":").append(millis(latency.getMeanNanos()))
+                    .append(",\"p50Ms\":").append(millis(latency.percentile(50)))
+                    .append(",\"p99Ms\":").append(millis(latency.percentile(99)))
+                    .append(",\"maxMs\":").append(millis(latency.getMaxNanos()))
+                    .append(",\"rows\":").append(method.getRows())
+                    .append(",\"statements\":").append(method.getStatements())
+                    .append(",\"l2Hits\":").append(method.getL2Hits())
+                    .append(",\"l2Misses\":").append(method.getL2Misses())
+                    .append('}');
+        }
+        return out.append(called.isEmpty() ? "]}" : "\n]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("Repositories :");
+        for (MethodMetrics method : getMethods()) {
+            out.append(String.format("%n  %-55s %s lignes=%d SQL=%d L2=%d/%d erreurs=%d",
+                    method.repository + "." + method.method, method.latency.summary(), method.getRows(),
+                    method.getStatements(), method.getL2Hits(), method.getL2Hits() + method.getL2Misses(),
+                    method.getErrors()));
+        }
+        return out.toString();
+    }
+
+    private static void family(StringBuilder out, List<MethodMetrics> called, String name, String type, String help,
+                               Function<MethodMetrics, String> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (MethodMetrics method : called) {
+            out.append(name).append('{').append(labels(method)).append("} ").append(value.apply(method)).append('\n');
+        }
+    }
+
+    private static String labels(MethodMetrics method) {
+        return "repository=\"" + escape(method.repository) + "\",method=\"" + escape(method.method) + "\"";
+    }
+
+    private static String seconds(double nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static String millis(double nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /** Nom distinctif d'une surcharge : findByStatut(StatutReservation,ReservationFetch) */
+    private static String signature(Method method) {
+        return Stream.of(method.getParameterTypes()).map(Class::getSimpleName)
+                .collect(Collectors.joining(",", method.getName() + "(", ")"));
+    }
+
+    private static void addIfNotZero(LongAdder adder, long delta) {
+        if (delta != 0) {
+            adder.add(delta);
+        }
+    }
+
+    private static Object countRows(Object result, MethodMetrics measured) {
+        if (result instanceof Collection) {
+            addIfNotZero(measured.rows, ((Collection<?>) result).size());
+        } else if (result instanceof Map) {
+            addIfNotZero(measured.rows, ((Map<?, ?>) result).size());
+        } else if (result instanceof Stream) {
+            return ((Stream<?>) result).peek(element -> measured.rows.increment());
+        } else if (result != null) {
+            measured.rows.increment();
+        }
+        return result;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.repository;
+
+import com.example.model.StatutReservation;
+import com.example.util.IntervalTree;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de disponibilité en mémoire : un arbre d'intervalles par salle contenant
+ * les réservations CONFIRMEE. Chargé au démarrage puis tenu à jour par les écritures
+ * de ReservationRepositoryImpl (après validation de la transaction).
+ *
+ * L'index ne voit que les écritures passant par save / update / delete du repository de ce
+ * processus : une entité gérée modifiée par dirty checking, une mise à jour JPQL en masse ou
+ * un autre processus le laissent périmé. Le mode ON suppose donc que toutes les écritures de
+ * réservations passent par le repository ; VERIFY (par défaut) compte les écarts avec la base.
+ */
+public class ReservationAvailabilityIndex implements ReservationChangeListener {
+
+    public enum Mode {
+        /** Index désactivé : requête JPQL à chaque vérification */
+        OFF,
+        /** Vérifications servies par l'index, sans SQL */
+        ON,
+        /** Index et JPQL comparés à chaque appel, la réponse JPQL fait foi */
+        VERIFY;
+
+        public static Mode parse(String value) {
+            return value == null ? VERIFY : Mode.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    private static final class Entry {
+        final long salleId;
+        final long start;
+
+        Entry(long salleId, long start) {
+            this.salleId = salleId;
+            this.start = start;
+        }
+    }
+
+    private final Mode mode;
+    private final Map<Long, IntervalTree> treesBySalle = new HashMap<>();
+    private final Map<Long, Entry> entriesByReservation = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong mismatchCount = new AtomicLong();
+
+    public ReservationAvailabilityIndex(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * (Re)charge l'index à partir des réservations confirmées en base.
+     */
+    public void load(EntityManager em) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT r.id, r.salle.id, r.dateDebut, r.dateFin FROM Reservation r WHERE r.statut = :statut",
+                        Object[].class)
+                .setParameter("statut", StatutReservation.CONFIRMEE)
+                .getResultList();
+
+        lock.writeLock().lock();
+        try {
+            treesBySalle.clear();
+            entriesByReservation.clear();
+            for (Object[] row : rows) {
+                add((Long) row[0], (Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Même sémantique que la requête JPQL : bornes incluses.
+     */
+    public boolean isSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = treesBySalle.get(salleId);
+            return tree == null || !tree.overlaps(IntervalTree.toKey(start), IntervalTree.toKey(end));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesByReservation.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Écart entre l'index et la requête JPQL constaté en mode VERIFY */
+    public void recordMismatch() {
+        mismatchCount.incrementAndGet();
+    }
+
+    public long getMismatchCount() {
+        return mismatchCount.get();
+    }
+
+    @Override
+    public void reservationStored(Long reservationId, Long salleId, StatutReservation statut,
+                                  LocalDateTime dateDebut, LocalDateTime dateFin) {
+        lock.writeLock().lock();
+        try {
+            remove(reservationId);
+            if (statut == StatutReservation.CONFIRMEE && salleId != null) {
+                add(reservationId, salleId, dateDebut, dateFin);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reservationRemoved(Long reservationId) {
+        lock.writeLock().lock();
+        try {
+            remove(reservationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long reservationId, Long salleId, LocalDateTime dateDebut, LocalDateTime dateFin) {
+        long start = IntervalTree.toKey(dateDebut);
+        treesBySalle.computeIfAbsent(salleId, id -> new IntervalTree())
+                .insert(reservationId, start, IntervalTree.toKey(dateFin));
+        entriesByReservation.put(reservationId, new Entry(salleId, start));
+    }
+
+    private void remove(Long reservationId) {
+        Entry entry = entriesByReservation.remove(reservationId);
+        if (entry != null) {
+            IntervalTree tree = treesBySalle.get(entry.salleId);
+            tree.remove(reservationId, entry.start);
+            if (tree.isEmpty()) {
+                treesBySalle.remove(entry.salleId);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.repository;
+
+import com.example.model.StatutReservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notifié par ReservationRepositoryImpl une fois la transaction d'écriture validée
+ * (ou immédiatement si l'écriture a lieu hors transaction).
+ */
+public interface ReservationChangeListener {
+
+    /**
+     * Une réservation a été créée ou modifiée ; l'état transmis est celui qui a été écrit.
+     */
+    void reservationStored(Long reservationId, Long salleId, StatutReservation statut,
+                           LocalDateTime dateDebut, LocalDateTime dateFin);
+
+    /**
+     * Une réservation a été supprimée.
+     */
+    void reservationRemoved(Long reservationId);
+}
@@ -0,0 +1,32 @@
+package com.example.repository;
+
+/**
+ * Associations d'une réservation chargées avec elle, au choix de l'appelant : graphe d'entités
+ * nommé pour les requêtes de liste, profil de chargement Hibernate pour findById (voir Reservation).
+ * Sans association demandée, salle et utilisateur restent des proxys chargés par lots à l'accès.
+ */
+public enum ReservationFetch {
+
+    NONE(null, null),
+    SALLE("Reservation.salle", "reservation-salle"),
+    UTILISATEUR("Reservation.utilisateur", "reservation-utilisateur"),
+    SALLE_UTILISATEUR("Reservation.salleUtilisateur", "reservation-salle-utilisateur");
+
+    private final String entityGraph;
+    private final String fetchProfile;
+
+    ReservationFetch(String entityGraph, String fetchProfile) {
+        this.entityGraph = entityGraph;
+        this.fetchProfile = fetchProfile;
+    }
+
+    /** Nom du @NamedEntityGraph, null pour NONE */
+    public String getEntityGraph() {
+        return entityGraph;
+    }
+
+    /** Nom du @FetchProfile, null pour NONE */
+    public String getFetchProfile() {
+        return fetchProfile;
+    }
+}
@@ -1,20 +1,64 @@
 package com.example.repository;
 
+import com.example.dto.AvailabilityProbe;
+import com.example.dto.ReservationSummary;
 import com.example.model.Reservation;
 import com.example.model.StatutReservation;
+import com.example.util.IntervalTree;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ReservationRepository {
     Reservation findById(Long id);
+    Reservation findById(Long id, ReservationFetch fetch);
+    @ReadOnly
     List<Reservation> findAll();
+    @ReadOnly
+    List<Reservation> findAll(ReservationFetch fetch);
+    @ReadOnly
     List<Reservation> findByUtilisateur(Long utilisateurId);
+    @ReadOnly
+    List<Reservation> findByUtilisateur(Long utilisateurId, ReservationFetch fetch);
+    @ReadOnly
     List<Reservation> findBySalle(Long salleId);
+    @ReadOnly
+    List<Reservation> findBySalle(Long salleId, ReservationFetch fetch);
+    @ReadOnly
     List<Reservation> findByDateRange(LocalDateTime start, LocalDateTime end);
+    @ReadOnly
+    List<Reservation> findByDateRange(LocalDateTime start, LocalDateTime end, ReservationFetch fetch);
+    @ReadOnly
     List<Reservation> findByStatut(StatutReservation statut);
+    @ReadOnly
+    List<Reservation> findByStatut(StatutReservation statut, ReservationFetch fetch);
+    @ReadOnly
+    List<ReservationSummary> findSummariesByUtilisateur(Long utilisateurId);
+    @ReadOnly
+    List<ReservationSummary> findSummariesBySalle(Long salleId);
+    @ReadOnly
+    List<ReservationSummary> findSummariesByDateRange(LocalDateTime start, LocalDateTime end);
+    @ReadOnly
+    List<ReservationSummary> findSummariesByStatut(StatutReservation statut);
+    @ReadOnly
+    List<Reservation> findOverlapping(LocalDateTime start, LocalDateTime end, Long salleId, StatutReservation statut);
+    // Les flux vident périodiquement le contexte de persistance de l'EntityManager jusqu'à leur fermeture
+    @ReadOnly
+    Stream<Reservation> streamAll();
+    @ReadOnly
+    long countReservations();
+    @ReadOnly
+    List<Reservation> findAfter(LocalDateTime afterDateDebut, Long afterId, int limit);
+    @ReadOnly
+    Stream<Reservation> streamByStatut(StatutReservation statut);
     void save(Reservation reservation);
     void update(Reservation reservation);
     void delete(Long id);
     boolean isSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end);
+    boolean isSalleAvailableForUpdate(Long salleId, LocalDateTime start, LocalDateTime end);
+    Map<AvailabilityProbe, Boolean> checkAvailability(Collection<AvailabilityProbe> probes);
+    Map<Long, IntervalTree> findConfirmedIntervals(Collection<Long> salleIds, LocalDateTime start, LocalDateTime end);
 }
\ No newline at end of file
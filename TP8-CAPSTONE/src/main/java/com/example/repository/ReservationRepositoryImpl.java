@@ -1,18 +1,77 @@
 package com.example.repository;
 
+import com.example.dto.AvailabilityProbe;
+import com.example.dto.ReservationSummary;
 import com.example.model.Reservation;
 import com.example.model.StatutReservation;
+import com.example.util.AppConfig;
+import com.example.util.IntervalTree;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.query.Query;
 
 import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.FlushModeType;
+import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ReservationRepositoryImpl implements ReservationRepository {
 
+    // Région du cache de requêtes pour countReservations (ehcache.xml)
+    public static final String COUNT_QUERY_REGION = "query.reservation.count";
+
+    // Projection des listes : colonnes affichées, salle et utilisateur joints dans la même requête
+    private static final String SUMMARY_SELECT = "SELECT new com.example.dto.ReservationSummary(" +
+            "r.id, r.dateDebut, r.dateFin, r.motif, r.statut, s.id, s.nom, u.id, u.prenom, u.nom) " +
+            "FROM Reservation r JOIN r.salle s JOIN r.utilisateur u ";
+
+    // Listes sans choix explicite : salle et utilisateur paresseux, chargés par lots à l'accès (@BatchSize)
+    private static final ReservationFetch DEFAULT_LIST_FETCH = ReservationFetch.NONE;
+
+    // Nombre maximal de salles par clause IN pour les vérifications groupées
+    private static final int IN_CLAUSE_CHUNK = 1000;
+
+    // Lecture en flux : lignes ramenées par aller-retour JDBC, et fréquence de vidage du contexte de persistance
+    private static final int STREAM_FETCH_SIZE = AppConfig.getInt("reservation.stream.fetch-size", 500);
+    private static final int STREAM_CLEAR_INTERVAL = AppConfig.getInt("reservation.stream.clear-interval", 1000);
+
     private final EntityManager em;
+    private final ReservationAvailabilityIndex availabilityIndex;
+    private final List<ReservationChangeListener> changeListeners = new CopyOnWriteArrayList<>();
 
     public ReservationRepositoryImpl(EntityManager em) {
+        this(em, null);
+    }
+
+    public ReservationRepositoryImpl(EntityManager em, ReservationAvailabilityIndex availabilityIndex) {
         this.em = em;
+        this.availabilityIndex = availabilityIndex != null
+                && availabilityIndex.getMode() != ReservationAvailabilityIndex.Mode.OFF ? availabilityIndex : null;
+        if (this.availabilityIndex != null) {
+            changeListeners.add(this.availabilityIndex);
+        }
+    }
+
+    public void addChangeListener(ReservationChangeListener listener) {
+        changeListeners.add(listener);
     }
 
     @Override
@@ -20,30 +79,64 @@ public class ReservationRepositoryImpl implements ReservationRepository {
         return em.find(Reservation.class, id);
     }
 
+    @Override
+    public Reservation findById(Long id, ReservationFetch fetch) {
+        if (fetch.getFetchProfile() == null) {
+            return findById(id);
+        }
+        // Profil actif le temps du chargement : salle / utilisateur joints au SELECT de la réservation
+        Session session = em.unwrap(Session.class);
+        session.enableFetchProfile(fetch.getFetchProfile());
+        try {
+            return em.find(Reservation.class, id);
+        } finally {
+            session.disableFetchProfile(fetch.getFetchProfile());
+        }
+    }
+
     @Override
     public List<Reservation> findAll() {
-        return em.createQuery("SELECT r FROM Reservation r", Reservation.class).getResultList();
+        return findAll(DEFAULT_LIST_FETCH);
+    }
+
+    @Override
+    public List<Reservation> findAll(ReservationFetch fetch) {
+        return fetched("SELECT r FROM Reservation r", fetch).getResultList();
     }
 
     @Override
     public List<Reservation> findByUtilisateur(Long utilisateurId) {
-        return em.createQuery("SELECT r FROM Reservation r WHERE r.utilisateur.id = :utilisateurId", Reservation.class)
+        return findByUtilisateur(utilisateurId, DEFAULT_LIST_FETCH);
+    }
+
+    @Override
+    public List<Reservation> findByUtilisateur(Long utilisateurId, ReservationFetch fetch) {
+        return fetched("SELECT r FROM Reservation r WHERE r.utilisateur.id = :utilisateurId", fetch)
                 .setParameter("utilisateurId", utilisateurId)
                 .getResultList();
     }
 
     @Override
     public List<Reservation> findBySalle(Long salleId) {
-        return em.createQuery("SELECT r FROM Reservation r WHERE r.salle.id = :salleId", Reservation.class)
+        return findBySalle(salleId, DEFAULT_LIST_FETCH);
+    }
+
+    @Override
+    public List<Reservation> findBySalle(Long salleId, ReservationFetch fetch) {
+        return fetched("SELECT r FROM Reservation r WHERE r.salle.id = :salleId", fetch)
                 .setParameter("salleId", salleId)
                 .getResultList();
     }
 
     @Override
     public List<Reservation> findByDateRange(LocalDateTime start, LocalDateTime end) {
-        return em.createQuery(
-                        "SELECT r FROM Reservation r WHERE r.dateDebut BETWEEN :start AND :end OR r.dateFin BETWEEN :start AND :end",
-                        Reservation.class)
+        return findByDateRange(start, end, DEFAULT_LIST_FETCH);
+    }
+
+    @Override
+    public List<Reservation> findByDateRange(LocalDateTime start, LocalDateTime end, ReservationFetch fetch) {
+        return fetched("SELECT r FROM Reservation r WHERE r.dateDebut BETWEEN :start AND :end OR r.dateFin BETWEEN :start AND :end",
+                        fetch)
                 .setParameter("start", start)
                 .setParameter("end", end)
                 .getResultList();
@@ -51,19 +144,207 @@ public class ReservationRepositoryImpl implements ReservationRepository {
 
     @Override
     public List<Reservation> findByStatut(StatutReservation statut) {
-        return em.createQuery("SELECT r FROM Reservation r WHERE r.statut = :statut", Reservation.class)
+        return findByStatut(statut, DEFAULT_LIST_FETCH);
+    }
+
+    @Override
+    public List<Reservation> findByStatut(StatutReservation statut, ReservationFetch fetch) {
+        return fetched("SELECT r FROM Reservation r WHERE r.statut = :statut", fetch)
                 .setParameter("statut", statut)
                 .getResultList();
     }
 
+    /**
+     * Requête de liste avec le graphe d'entités demandé (fetchgraph) : les associations du graphe
+     * sont jointes dans le même SELECT, le nombre de requêtes ne dépend plus du nombre de lignes.
+     * Sans graphe (NONE), salle et utilisateur restent paresseux et se chargent par lots (@BatchSize).
+     */
+    private TypedQuery<Reservation> fetched(String jpql, ReservationFetch fetch) {
+        TypedQuery<Reservation> query = em.createQuery(jpql, Reservation.class);
+        if (fetch.getEntityGraph() != null) {
+            query.setHint(QueryHints.HINT_FETCHGRAPH, em.getEntityGraph(fetch.getEntityGraph()));
+        }
+        return query;
+    }
+
+    @Override
+    public List<ReservationSummary> findSummariesByUtilisateur(Long utilisateurId) {
+        return summaries("WHERE u.id = :utilisateurId")
+                .setParameter("utilisateurId", utilisateurId)
+                .getResultList();
+    }
+
+    @Override
+    public List<ReservationSummary> findSummariesBySalle(Long salleId) {
+        return summaries("WHERE s.id = :salleId")
+                .setParameter("salleId", salleId)
+                .getResultList();
+    }
+
+    @Override
+    public List<ReservationSummary> findSummariesByDateRange(LocalDateTime start, LocalDateTime end) {
+        return summaries("WHERE r.dateDebut BETWEEN :start AND :end OR r.dateFin BETWEEN :start AND :end")
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    @Override
+    public List<ReservationSummary> findSummariesByStatut(StatutReservation statut) {
+        return summaries("WHERE r.statut = :statut")
+                .setParameter("statut", statut)
+                .getResultList();
+    }
+
+    /**
+     * Requête de projection : aucun objet géré (ni instantané pour la détection des modifications,
+     * ni proxy), et pas de flush automatique avant exécution. Les modifications non encore
+     * flushées de la transaction en cours n'y sont donc pas visibles.
+     */
+    private TypedQuery<ReservationSummary> summaries(String where) {
+        return em.createQuery(SUMMARY_SELECT + where, ReservationSummary.class)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setFlushMode(FlushModeType.COMMIT);
+    }
+
+    @Override
+    public List<Reservation> findOverlapping(LocalDateTime start, LocalDateTime end, Long salleId, StatutReservation statut) {
+        // Chevauchement strict [start, end[ : deux prédicats de plage servis par
+        // l'index (salle_id, statut, date_debut, date_fin) ; salle et statut sont optionnels
+        StringBuilder jpql = new StringBuilder("SELECT r FROM Reservation r WHERE r.dateDebut < :end AND r.dateFin > :start");
+        if (salleId != null) {
+            jpql.append(" AND r.salle.id = :salleId");
+        }
+        if (statut != null) {
+            jpql.append(" AND r.statut = :statut");
+        }
+        jpql.append(" ORDER BY r.dateDebut");
+
+        TypedQuery<Reservation> query = em.createQuery(jpql.toString(), Reservation.class)
+                .setParameter("start", start)
+                .setParameter("end", end);
+        if (salleId != null) {
+            query.setParameter("salleId", salleId);
+        }
+        if (statut != null) {
+            query.setParameter("statut", statut);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public long countReservations() {
+        // Cache de requêtes : invalidé à chaque écriture sur la table des réservations
+        return em.createQuery("SELECT COUNT(r) FROM Reservation r", Long.class)
+                .setHint(QueryHints.HINT_CACHEABLE, true)
+                .setHint(QueryHints.HINT_CACHE_REGION, COUNT_QUERY_REGION)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<Reservation> findAfter(LocalDateTime afterDateDebut, Long afterId, int limit) {
+        // Pagination par clé (dateDebut, id) : reprise juste après le dernier élément lu, sans OFFSET
+        if (afterDateDebut == null) {
+            return em.createQuery("SELECT r FROM Reservation r ORDER BY r.dateDebut, r.id", Reservation.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery(
+                        "SELECT r FROM Reservation r " +
+                                "WHERE r.dateDebut > :afterDateDebut " +
+                                "OR (r.dateDebut = :afterDateDebut AND r.id > :afterId) " +
+                                "ORDER BY r.dateDebut, r.id",
+                        Reservation.class)
+                .setParameter("afterDateDebut", afterDateDebut)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Reservation> streamAll() {
+        return stream(em.unwrap(Session.class)
+                .createQuery("SELECT r FROM Reservation r ORDER BY r.id", Reservation.class));
+    }
+
+    @Override
+    public Stream<Reservation> streamByStatut(StatutReservation statut) {
+        return stream(em.unwrap(Session.class)
+                .createQuery("SELECT r FROM Reservation r WHERE r.statut = :statut ORDER BY r.id", Reservation.class)
+                .setParameter("statut", statut));
+    }
+
+    /**
+     * Parcours en mémoire bornée : curseur JDBC en avant seulement, entités en lecture seule
+     * hors cache L2, contexte de persistance vidé (session.clear) toutes les STREAM_CLEAR_INTERVAL
+     * entités, ce qui libère aussi les salles et utilisateurs chargés par leurs associations.
+     * Une entité n'est donc exploitable (associations paresseuses comprises) que pendant
+     * son traitement. Le flux doit être fermé (try-with-resources) pour libérer le curseur.
+     * Le flux s'approprie la session jusqu'à sa fermeture : toute autre entité gérée par cet
+     * EntityManager est détachée au premier vidage, et les modifications non flushées sont perdues.
+     * Hors transaction, le flux ouvre la sienne (annulée à la fermeture) : en auto-commit, le
+     * chargement d'une association paresseuse fermerait le curseur.
+     */
+    private Stream<Reservation> stream(Query<Reservation> query) {
+        // Session réelle : le flux peut être fermé hors de l'unité de travail qui l'a ouvert
+        Session session = em.unwrap(Session.class);
+        EntityTransaction ownTransaction = session.getTransaction().isActive() ? null : session.getTransaction();
+        if (ownTransaction != null) {
+            ownTransaction.begin();
+        }
+        ScrollableResults results;
+        try {
+            results = query
+                    .setFetchSize(STREAM_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+        } catch (RuntimeException e) {
+            if (ownTransaction != null && ownTransaction.isActive()) {
+                ownTransaction.rollback();
+            }
+            throw e;
+        }
+
+        Spliterator<Reservation> spliterator = new Spliterators.AbstractSpliterator<Reservation>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int consumed;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Reservation> action) {
+                if (consumed >= STREAM_CLEAR_INTERVAL) {
+                    session.clear();
+                    consumed = 0;
+                }
+                if (!results.next()) {
+                    return false;
+                }
+                consumed++;
+                action.accept((Reservation) results.get(0));
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                results.close();
+            } finally {
+                if (ownTransaction != null && ownTransaction.isActive()) {
+                    ownTransaction.rollback();
+                }
+            }
+        });
+    }
+
     @Override
     public void save(Reservation reservation) {
         em.persist(reservation);
+        notifyStored(reservation);
     }
 
     @Override
     public void update(Reservation reservation) {
-        em.merge(reservation);
+        notifyStored(em.merge(reservation));
     }
 
     @Override
@@ -71,11 +352,103 @@ public class ReservationRepositoryImpl implements ReservationRepository {
         Reservation reservation = findById(id);
         if (reservation != null) {
             em.remove(reservation);
+            afterCommit(() -> {
+                for (ReservationChangeListener listener : changeListeners) {
+                    listener.reservationRemoved(id);
+                }
+            });
         }
     }
 
     @Override
     public boolean isSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end) {
+        if (availabilityIndex == null) {
+            return queryIsSalleAvailable(salleId, start, end);
+        }
+
+        boolean indexAnswer = availabilityIndex.isSalleAvailable(salleId, start, end);
+        if (availabilityIndex.getMode() != ReservationAvailabilityIndex.Mode.VERIFY) {
+            return indexAnswer;
+        }
+
+        // Mode vérification : la requête JPQL fait foi, tout écart est compté (getMismatchCount)
+        boolean queryAnswer = queryIsSalleAvailable(salleId, start, end);
+        if (queryAnswer != indexAnswer) {
+            availabilityIndex.recordMismatch();
+        }
+        return queryAnswer;
+    }
+
+    @Override
+    public boolean isSalleAvailableForUpdate(Long salleId, LocalDateTime start, LocalDateTime end) {
+        // Toujours en base : l'index en mémoire n'est mis à jour qu'après commit
+        return queryIsSalleAvailable(salleId, start, end);
+    }
+
+    @Override
+    public Map<AvailabilityProbe, Boolean> checkAvailability(Collection<AvailabilityProbe> probes) {
+        Map<AvailabilityProbe, Boolean> results = new LinkedHashMap<>();
+        if (probes.isEmpty()) {
+            return results;
+        }
+
+        // Index en mémoire : aucune requête SQL
+        if (availabilityIndex != null && availabilityIndex.getMode() == ReservationAvailabilityIndex.Mode.ON) {
+            for (AvailabilityProbe probe : probes) {
+                results.put(probe, availabilityIndex.isSalleAvailable(probe.getSalleId(), probe.getStart(), probe.getEnd()));
+            }
+            return results;
+        }
+
+        // Une seule requête ensembliste couvrant toutes les sondes, puis un arbre d'intervalles par salle
+        Set<Long> salleIds = new LinkedHashSet<>();
+        LocalDateTime minStart = null;
+        LocalDateTime maxEnd = null;
+        for (AvailabilityProbe probe : probes) {
+            salleIds.add(probe.getSalleId());
+            if (minStart == null || probe.getStart().isBefore(minStart)) {
+                minStart = probe.getStart();
+            }
+            if (maxEnd == null || probe.getEnd().isAfter(maxEnd)) {
+                maxEnd = probe.getEnd();
+            }
+        }
+
+        Map<Long, IntervalTree> treesBySalle = findConfirmedIntervals(salleIds, minStart, maxEnd);
+        for (AvailabilityProbe probe : probes) {
+            IntervalTree tree = treesBySalle.get(probe.getSalleId());
+            results.put(probe, tree == null
+                    || !tree.overlaps(IntervalTree.toKey(probe.getStart()), IntervalTree.toKey(probe.getEnd())));
+        }
+        return results;
+    }
+
+    @Override
+    public Map<Long, IntervalTree> findConfirmedIntervals(Collection<Long> salleIds, LocalDateTime start, LocalDateTime end) {
+        Map<Long, IntervalTree> treesBySalle = new HashMap<>();
+        List<Long> ids = new ArrayList<>(salleIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Object[]> rows = em.createQuery(
+                            "SELECT r.id, r.salle.id, r.dateDebut, r.dateFin FROM Reservation r " +
+                                    "WHERE r.salle.id IN :salleIds " +
+                                    "AND r.statut = :statut " +
+                                    "AND (r.dateDebut <= :end AND r.dateFin >= :start)",
+                            Object[].class)
+                    .setParameter("salleIds", ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size())))
+                    .setParameter("statut", StatutReservation.CONFIRMEE)
+                    .setParameter("start", start)
+                    .setParameter("end", end)
+                    .getResultList();
+
+            for (Object[] row : rows) {
+                treesBySalle.computeIfAbsent((Long) row[1], id -> new IntervalTree())
+                        .insert((Long) row[0], IntervalTree.toKey((LocalDateTime) row[2]), IntervalTree.toKey((LocalDateTime) row[3]));
+            }
+        }
+        return treesBySalle;
+    }
+
+    private boolean queryIsSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end) {
         String jpql = "SELECT COUNT(r) FROM Reservation r " +
                 "WHERE r.salle.id = :salleId " +
                 "AND r.statut = :statut " +
@@ -90,4 +463,28 @@ public class ReservationRepositoryImpl implements ReservationRepository {
 
         return count == 0;
     }
+
+    private void notifyStored(Reservation reservation) {
+        if (changeListeners.isEmpty()) {
+            return;
+        }
+        // Capture de l'état écrit, appliqué seulement si la transaction est validée
+        Long id = reservation.getId();
+        Long salleId = reservation.getSalle() != null ? reservation.getSalle().getId() : null;
+        StatutReservation statut = reservation.getStatut();
+        LocalDateTime dateDebut = reservation.getDateDebut();
+        LocalDateTime dateFin = reservation.getDateFin();
+
+        afterCommit(() -> {
+            for (ReservationChangeListener listener : changeListeners) {
+                listener.reservationStored(id, salleId, statut, dateDebut, dateFin);
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!changeListeners.isEmpty()) {
+            TransactionHooks.afterCommit(em, action);
+        }
+    }
 }
\ No newline at end of file
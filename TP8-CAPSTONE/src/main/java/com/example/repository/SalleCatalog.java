@@ -0,0 +1,227 @@
+package com.example.repository;
+
+import com.example.model.Equipement;
+import com.example.model.Salle;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Catalogue des salles en mémoire pour la recherche multi-critères : instantané immuable
+ * (tableaux parallèles capacité / bâtiment / étage / masque d'équipements), remplacé en bloc
+ * (copie sur écriture) après chaque création, modification ou suppression de salle validée.
+ *
+ * Les recherches lisent l'instantané courant sans verrou et n'allouent que la liste résultat,
+ * ses copies de salles (et le masque demandé pour un critère d'équipements).
+ * Chaque salle renvoyée est une copie détachée propre à l'appelant, équipements copiés :
+ * la modifier ne touche ni le catalogue ni les autres appelants. Ses réservations ne sont pas
+ * chargées (liste vide) : recharger via findById pour les parcourir ou pour modifier la salle.
+ */
+public class SalleCatalog {
+
+    private static final int NO_ETAGE = Integer.MIN_VALUE;
+
+    private static final class Snapshot {
+        final Salle[] salles;
+        final int[] capacites;
+        final String[] batiments;
+        final int[] etages;
+        // Équipements connus (triés) : l'équipement equipementIds[b] occupe le bit b des masques
+        final long[] equipementIds;
+        final int words;
+        // Masque d'équipements de la salle i : equipementBits[i * words .. i * words + words - 1]
+        final long[] equipementBits;
+
+        Snapshot(List<Salle> source) {
+            int size = source.size();
+            this.salles = source.toArray(new Salle[0]);
+            this.capacites = new int[size];
+            this.batiments = new String[size];
+            this.etages = new int[size];
+            this.equipementIds = source.stream()
+                    .flatMap(salle -> salle.getEquipements().stream())
+                    .mapToLong(Equipement::getId)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+            this.words = Math.max(1, (equipementIds.length + 63) / 64);
+            this.equipementBits = new long[size * words];
+            for (int i = 0; i < size; i++) {
+                Salle salle = salles[i];
+                capacites[i] = salle.getCapacite();
+                batiments[i] = salle.getBatiment();
+                etages[i] = salle.getEtage() != null ? salle.getEtage() : NO_ETAGE;
+                for (Equipement equipement : salle.getEquipements()) {
+                    int bit = Arrays.binarySearch(equipementIds, equipement.getId());
+                    equipementBits[i * words + (bit >>> 6)] |= 1L << bit;
+                }
+            }
+        }
+
+        /**
+         * Ajoute l'équipement au masque ; false s'il n'équipe aucune salle du catalogue.
+         */
+        boolean setBit(long[] mask, long equipementId) {
+            int bit = Arrays.binarySearch(equipementIds, equipementId);
+            if (bit < 0) {
+                return false;
+            }
+            mask[bit >>> 6] |= 1L << bit;
+            return true;
+        }
+
+        boolean containsAll(int salle, long[] mask) {
+            int base = salle * words;
+            for (int w = 0; w < words; w++) {
+                if ((equipementBits[base + w] & mask[w]) != mask[w]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean containsAny(int salle, long[] mask) {
+            int base = salle * words;
+            for (int w = 0; w < words; w++) {
+                if ((equipementBits[base + w] & mask[w]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final EntityManagerFactory emf;
+    private volatile Snapshot snapshot;
+
+    public SalleCatalog(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * (Re)construit l'instantané depuis la base, dans un EntityManager dédié : les salles
+     * publiées ne sont attachées à aucun contexte de persistance.
+     */
+    public synchronized void load() {
+        List<Salle> salles;
+        EntityManager em = emf.createEntityManager();
+        try {
+            salles = em.createQuery(
+                            "SELECT DISTINCT s FROM Salle s LEFT JOIN FETCH s.equipements ORDER BY s.id", Salle.class)
+                    .getResultList();
+        } finally {
+            em.close();
+        }
+        snapshot = new Snapshot(salles);
+    }
+
+    /**
+     * Mêmes critères et même sémantique que la requête JPQL de SalleRepositoryImpl.searchRooms
+     * (capaciteMin, capaciteMax, batiment, etage, equipement, equipements / equipementsMode),
+     * résultats triés par identifiant. Les critères d'équipements se résolvent par intersection
+     * du masque de chaque salle avec le masque demandé.
+     */
+    public List<Salle> search(Map<String, Object> criteria) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Catalogue des salles non chargé");
+        }
+        boolean byCapaciteMin = criteria.containsKey("capaciteMin");
+        boolean byCapaciteMax = criteria.containsKey("capaciteMax");
+        boolean byBatiment = criteria.containsKey("batiment");
+        boolean byEtage = criteria.containsKey("etage");
+        boolean byEquipement = criteria.containsKey("equipement");
+        // Un paramètre null ne correspond à aucune ligne en SQL : aucune salle
+        if ((byCapaciteMin && criteria.get("capaciteMin") == null)
+                || (byCapaciteMax && criteria.get("capaciteMax") == null)
+                || (byBatiment && criteria.get("batiment") == null)
+                || (byEtage && criteria.get("etage") == null)
+                || (byEquipement && criteria.get("equipement") == null)) {
+            return new ArrayList<>();
+        }
+        int capaciteMin = byCapaciteMin ? ((Number) criteria.get("capaciteMin")).intValue() : 0;
+        int capaciteMax = byCapaciteMax ? ((Number) criteria.get("capaciteMax")).intValue() : 0;
+        Object batiment = criteria.get("batiment");
+        int etage = byEtage ? ((Number) criteria.get("etage")).intValue() : 0;
+
+        // Masques d'équipements : un équipement exigé mais inconnu exclut toutes les salles
+        Collection<?> equipements = EquipementFilter.requestedIds(criteria);
+        boolean matchAny = equipements != null && EquipementFilter.mode(criteria) == EquipementFilter.Mode.ANY;
+        long[] allMask = null;
+        long[] anyMask = null;
+        if (byEquipement || (equipements != null && !matchAny)) {
+            allMask = new long[current.words];
+            if (byEquipement && !current.setBit(allMask, ((Number) criteria.get("equipement")).longValue())) {
+                return new ArrayList<>();
+            }
+            if (equipements != null && !matchAny) {
+                for (Object id : equipements) {
+                    if (!current.setBit(allMask, ((Number) id).longValue())) {
+                        return new ArrayList<>();
+                    }
+                }
+            }
+        }
+        if (matchAny) {
+            anyMask = new long[current.words];
+            boolean known = false;
+            for (Object id : equipements) {
+                known |= current.setBit(anyMask, ((Number) id).longValue());
+            }
+            if (!known) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<Salle> result = new ArrayList<>();
+        for (int i = 0; i < current.salles.length; i++) {
+            if (byCapaciteMin && current.capacites[i] < capaciteMin) {
+                continue;
+            }
+            if (byCapaciteMax && current.capacites[i] > capaciteMax) {
+                continue;
+            }
+            if (byBatiment && !batiment.equals(current.batiments[i])) {
+                continue;
+            }
+            if (byEtage && (current.etages[i] == NO_ETAGE || current.etages[i] != etage)) {
+                continue;
+            }
+            if (allMask != null && !current.containsAll(i, allMask)) {
+                continue;
+            }
+            if (anyMask != null && !current.containsAny(i, anyMask)) {
+                continue;
+            }
+            result.add(copy(current.salles[i]));
+        }
+        return result;
+    }
+
+    private static Salle copy(Salle source) {
+        Salle salle = new Salle(source.getNom(), source.getCapacite());
+        salle.setId(source.getId());
+        salle.setDescription(source.getDescription());
+        salle.setBatiment(source.getBatiment());
+        salle.setEtage(source.getEtage());
+        salle.setNumero(source.getNumero());
+        salle.setVersion(source.getVersion());
+        for (Equipement equipement : source.getEquipements()) {
+            Equipement copie = new Equipement(equipement.getNom(), equipement.getDescription());
+            copie.setId(equipement.getId());
+            copie.setReference(equipement.getReference());
+            copie.setVersion(equipement.getVersion());
+            salle.getEquipements().add(copie);
+        }
+        return salle;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.repository;
 
+import com.example.dto.SalleSummary;
 import com.example.model.Salle;
 
 import java.time.LocalDateTime;
@@ -8,11 +9,27 @@ import java.util.Map;
 
 public interface SalleRepository {
     Salle findById(Long id);
+    @ReadOnly
     List<Salle> findAll();
+    @ReadOnly
     List<Salle> findAvailableRooms(LocalDateTime start, LocalDateTime end);
+    @ReadOnly
+    List<SalleSummary> findAvailableRoomSummaries(LocalDateTime start, LocalDateTime end);
+    /**
+     * Recherche multi-critères. Catalogue en mémoire actif (salle.catalog.enabled) : chaque salle
+     * renvoyée est une copie détachée, allouée à chaque appel, dont la liste des réservations est
+     * vide ; recharger via findById pour parcourir ses réservations ou la modifier.
+     */
+    @ReadOnly
     List<Salle> searchRooms(Map<String, Object> criteria);
+    @ReadOnly
     long countRooms();
+    @ReadOnly
     List<Salle> getPaginatedRooms(int page, int pageSize);
+    @ReadOnly
+    List<SalleSummary> getPaginatedRoomSummaries(int page, int pageSize);
+    @ReadOnly
+    List<Salle> findRoomsAfter(Long afterId, int limit);
     void save(Salle salle);
     void update(Salle salle);
     void delete(Long id);
@@ -1,20 +1,47 @@
 package com.example.repository;
 
+import com.example.dto.SalleSummary;
 import com.example.model.Salle;
 import com.example.model.StatutReservation;
+import org.hibernate.jpa.QueryHints;
 
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 public class SalleRepositoryImpl implements SalleRepository {
 
+    // Régions du cache de requêtes (ehcache.xml). Une écriture sur une table n'invalide que les
+    // résultats des requêtes qui la lisent : une réservation n'invalide que AVAILABLE_QUERY_REGION
+    public static final String SEARCH_QUERY_REGION = "query.salle.search";
+    public static final String AVAILABLE_QUERY_REGION = "query.salle.available";
+    public static final String COUNT_QUERY_REGION = "query.salle.count";
+
+    // Projection des listes de salles : colonnes affichées, sans collection d'équipements
+    private static final String SUMMARY_SELECT =
+            "SELECT new com.example.dto.SalleSummary(s.id, s.nom, s.capacite, s.batiment, s.etage) FROM Salle s ";
+
     private final EntityManager em;
+    private final SlotBitmapIndex slotBitmapIndex;
+    private final SalleCatalog salleCatalog;
 
     public SalleRepositoryImpl(EntityManager em) {
+        this(em, null, null);
+    }
+
+    public SalleRepositoryImpl(EntityManager em, SlotBitmapIndex slotBitmapIndex) {
+        this(em, slotBitmapIndex, null);
+    }
+
+    public SalleRepositoryImpl(EntityManager em, SlotBitmapIndex slotBitmapIndex, SalleCatalog salleCatalog) {
         this.em = em;
+        this.slotBitmapIndex = slotBitmapIndex;
+        this.salleCatalog = salleCatalog;
     }
 
     @Override
@@ -29,12 +56,48 @@ public class SalleRepositoryImpl implements SalleRepository {
 
     @Override
     public List<Salle> findAvailableRooms(LocalDateTime start, LocalDateTime end) {
+        // Bitmap de créneaux si disponible, requête JPQL sinon
+        if (slotBitmapIndex != null && slotBitmapIndex.supports(start, end)) {
+            List<Long> salleIds = slotBitmapIndex.findAvailableSalleIds(start, end);
+            if (salleIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return cacheable(em.createQuery("SELECT s FROM Salle s WHERE s.id IN :ids ORDER BY s.id", Salle.class),
+                    AVAILABLE_QUERY_REGION)
+                    .setParameter("ids", salleIds)
+                    .getResultList();
+        }
+
         String jpql = "SELECT DISTINCT s FROM Salle s WHERE s.id NOT IN " +
                 "(SELECT r.salle.id FROM Reservation r " +
                 "WHERE r.statut = :statut " +
                 "AND (r.dateDebut <= :end AND r.dateFin >= :start))";
 
-        return em.createQuery(jpql, Salle.class)
+        return cacheable(em.createQuery(jpql, Salle.class), AVAILABLE_QUERY_REGION)
+                .setParameter("statut", StatutReservation.CONFIRMEE)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList();
+    }
+
+    @Override
+    public List<SalleSummary> findAvailableRoomSummaries(LocalDateTime start, LocalDateTime end) {
+        // Même sélection que findAvailableRooms, projetée
+        if (slotBitmapIndex != null && slotBitmapIndex.supports(start, end)) {
+            List<Long> salleIds = slotBitmapIndex.findAvailableSalleIds(start, end);
+            if (salleIds.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return cacheable(summaries("WHERE s.id IN :ids ORDER BY s.id"), AVAILABLE_QUERY_REGION)
+                    .setParameter("ids", salleIds)
+                    .getResultList();
+        }
+
+        return cacheable(summaries("WHERE s.id NOT IN " +
+                        "(SELECT r.salle.id FROM Reservation r " +
+                        "WHERE r.statut = :statut " +
+                        "AND (r.dateDebut <= :end AND r.dateFin >= :start)) ORDER BY s.id"),
+                AVAILABLE_QUERY_REGION)
                 .setParameter("statut", StatutReservation.CONFIRMEE)
                 .setParameter("start", start)
                 .setParameter("end", end)
@@ -43,6 +106,11 @@ public class SalleRepositoryImpl implements SalleRepository {
 
     @Override
     public List<Salle> searchRooms(Map<String, Object> criteria) {
+        // Catalogue en mémoire si chargé, requête JPQL sinon
+        if (salleCatalog != null && salleCatalog.isLoaded()) {
+            return salleCatalog.search(criteria);
+        }
+
         StringBuilder jpql = new StringBuilder("SELECT DISTINCT s FROM Salle s WHERE 1=1");
 
         if (criteria.containsKey("capaciteMin")) {
@@ -60,8 +128,23 @@ public class SalleRepositoryImpl implements SalleRepository {
         if (criteria.containsKey("equipement")) {
             jpql.append(" AND EXISTS (SELECT e FROM s.equipements e WHERE e.id = :equipement)");
         }
+        // Plusieurs équipements : une seule sous-requête quel que soit leur nombre
+        Collection<?> requestedEquipements = EquipementFilter.requestedIds(criteria);
+        List<Long> equipements = requestedEquipements != null ? EquipementFilter.distinctIds(requestedEquipements) : null;
+        boolean allEquipements = equipements != null && EquipementFilter.mode(criteria) == EquipementFilter.Mode.ALL;
+        if (equipements != null && !equipements.isEmpty()) {
+            if (allEquipements) {
+                jpql.append(" AND s.id IN (SELECT se.id FROM Salle se JOIN se.equipements e")
+                        .append(" WHERE e.id IN :equipements GROUP BY se.id HAVING COUNT(e.id) = :equipementCount)");
+            } else {
+                jpql.append(" AND EXISTS (SELECT e FROM s.equipements e WHERE e.id IN :equipements)");
+            }
+        } else if (equipements != null && !allEquipements) {
+            // Au moins un équipement parmi aucun : aucune salle
+            return Collections.emptyList();
+        }
 
-        TypedQuery<Salle> query = em.createQuery(jpql.toString(), Salle.class);
+        TypedQuery<Salle> query = cacheable(em.createQuery(jpql.toString(), Salle.class), SEARCH_QUERY_REGION);
 
         if (criteria.containsKey("capaciteMin")) {
             query.setParameter("capaciteMin", criteria.get("capaciteMin"));
@@ -78,13 +161,20 @@ public class SalleRepositoryImpl implements SalleRepository {
         if (criteria.containsKey("equipement")) {
             query.setParameter("equipement", criteria.get("equipement"));
         }
+        if (equipements != null && !equipements.isEmpty()) {
+            query.setParameter("equipements", equipements);
+            if (allEquipements) {
+                query.setParameter("equipementCount", (long) equipements.size());
+            }
+        }
 
         return query.getResultList();
     }
 
     @Override
     public long countRooms() {
-        return em.createQuery("SELECT COUNT(s) FROM Salle s", Long.class).getSingleResult();
+        return cacheable(em.createQuery("SELECT COUNT(s) FROM Salle s", Long.class), COUNT_QUERY_REGION)
+                .getSingleResult();
     }
 
     @Override
@@ -95,14 +185,57 @@ public class SalleRepositoryImpl implements SalleRepository {
                 .getResultList();
     }
 
+    @Override
+    public List<SalleSummary> getPaginatedRoomSummaries(int page, int pageSize) {
+        return summaries("ORDER BY s.id")
+                .setFirstResult((page - 1) * pageSize)
+                .setMaxResults(pageSize)
+                .getResultList();
+    }
+
+    @Override
+    public List<Salle> findRoomsAfter(Long afterId, int limit) {
+        // Pagination par clé : parcours de l'index primaire à partir de afterId, sans OFFSET
+        if (afterId == null) {
+            return em.createQuery("SELECT s FROM Salle s ORDER BY s.id", Salle.class)
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+        return em.createQuery("SELECT s FROM Salle s WHERE s.id > :afterId ORDER BY s.id", Salle.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Requête de projection : aucun objet géré, et pas de flush automatique avant exécution
+     * (les modifications non encore flushées de la transaction en cours n'y sont pas visibles).
+     */
+    private TypedQuery<SalleSummary> summaries(String clauses) {
+        return em.createQuery(SUMMARY_SELECT + clauses, SalleSummary.class)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setFlushMode(FlushModeType.COMMIT);
+    }
+
+    private static <T> TypedQuery<T> cacheable(TypedQuery<T> query, String region) {
+        return query.setHint(QueryHints.HINT_CACHEABLE, true)
+                .setHint(QueryHints.HINT_CACHE_REGION, region);
+    }
+
     @Override
     public void save(Salle salle) {
         em.persist(salle);
+        if (slotBitmapIndex != null) {
+            Long salleId = salle.getId();
+            TransactionHooks.afterCommit(em, () -> slotBitmapIndex.salleAdded(salleId));
+        }
+        reloadCatalogAfterCommit();
     }
 
     @Override
     public void update(Salle salle) {
         em.merge(salle);
+        reloadCatalogAfterCommit();
     }
 
     @Override
@@ -110,6 +243,16 @@ public class SalleRepositoryImpl implements SalleRepository {
         Salle salle = findById(id);
         if (salle != null) {
             em.remove(salle);
+            if (slotBitmapIndex != null) {
+                TransactionHooks.afterCommit(em, () -> slotBitmapIndex.salleRemoved(id));
+            }
+            reloadCatalogAfterCommit();
+        }
+    }
+
+    private void reloadCatalogAfterCommit() {
+        if (salleCatalog != null) {
+            TransactionHooks.afterCommit(em, salleCatalog::load);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.example.repository;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Écouteur de session Hibernate (hibernate.session.events.auto, voir persistence.xml) : instructions
+ * SQL exécutées et lectures du cache L2 (entités, collections, requêtes) cumulées par thread.
+ * Une session ne servant qu'au thread de son unité de travail, RepositoryMetrics attribue à un appel
+ * de repository l'écart des compteurs du thread entre le début et la fin de l'appel.
+ */
+public class SessionCounters extends BaseSessionEventListener {
+
+    static final int STATEMENTS = 0;
+    static final int L2_HITS = 1;
+    static final int L2_MISSES = 2;
+
+    private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[3]);
+
+    /** Compteurs cumulés du thread courant : tableau vivant, seul ce thread l'écrit */
+    static long[] current() {
+        return COUNTERS.get();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        COUNTERS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        // Un batch JDBC compte pour une instruction
+        COUNTERS.get()[STATEMENTS]++;
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        COUNTERS.get()[hit ? L2_HITS : L2_MISSES]++;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.repository;
+
+import com.example.model.StatutReservation;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Moteur de disponibilité par bitmap de créneaux : chaque couple salle/jour est un
+ * ensemble de bits de granularité fixe (15 minutes par défaut), un bit étant positionné
+ * dès qu'une réservation CONFIRMEE touche le créneau.
+ *
+ * Pour une fenêtre donnée, une salle est :
+ * - occupée si un bit est commun avec les créneaux entièrement couverts par la fenêtre ;
+ * - libre si aucun bit n'est commun avec les créneaux touchés par la fenêtre ;
+ * - sinon (chevauchement limité aux créneaux partiels des extrémités), les réservations
+ *   du jour concerné sont comparées exactement.
+ * Le résultat est donc identique à celui de la requête JPQL (bornes incluses).
+ *
+ * Le coût d'une recherche dépend du nombre de salles et de jours de la fenêtre,
+ * pas de la taille de la table des réservations.
+ */
+public class SlotBitmapIndex implements ReservationChangeListener {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final class Booking {
+        final long salleId;
+        final LocalDateTime dateDebut;
+        final LocalDateTime dateFin;
+
+        Booking(long salleId, LocalDateTime dateDebut, LocalDateTime dateFin) {
+            this.salleId = salleId;
+            this.dateDebut = dateDebut;
+            this.dateFin = dateFin;
+        }
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return !dateDebut.isAfter(end) && !dateFin.isBefore(start);
+        }
+    }
+
+    private static final class DayPlan {
+        final long[] bits;
+        final List<Booking> bookings = new ArrayList<>(2);
+
+        DayPlan(int words) {
+            this.bits = new long[words];
+        }
+    }
+
+    /** Masques d'une fenêtre de recherche pour un jour donné */
+    private static final class DayMask {
+        final long epochDay;
+        final long[] full;
+        final long[] edge;
+
+        DayMask(long epochDay, long[] full, long[] edge) {
+            this.epochDay = epochDay;
+            this.full = full;
+            this.edge = edge;
+        }
+    }
+
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final int wordsPerDay;
+    private final int maxWindowDays;
+
+    // Salles connues, triées par identifiant (y compris celles sans réservation)
+    private final TreeMap<Long, Map<Long, DayPlan>> plansBySalle = new TreeMap<>();
+    private final Map<Long, Booking> bookingsById = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    public SlotBitmapIndex(int slotMinutes, int maxWindowDays) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("La granularité doit diviser 1440 minutes: " + slotMinutes);
+        }
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        this.wordsPerDay = (slotsPerDay + 63) / 64;
+        this.maxWindowDays = maxWindowDays;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * (Re)charge les salles et les réservations confirmées depuis la base.
+     */
+    public void load(EntityManager em) {
+        List<Long> salleIds = em.createQuery("SELECT s.id FROM Salle s", Long.class).getResultList();
+        List<Object[]> rows = em.createQuery(
+                        "SELECT r.id, r.salle.id, r.dateDebut, r.dateFin FROM Reservation r WHERE r.statut = :statut",
+                        Object[].class)
+                .setParameter("statut", StatutReservation.CONFIRMEE)
+                .getResultList();
+
+        lock.writeLock().lock();
+        try {
+            plansBySalle.clear();
+            bookingsById.clear();
+            for (Long salleId : salleIds) {
+                plansBySalle.put(salleId, new HashMap<>());
+            }
+            for (Object[] row : rows) {
+                add((Long) row[0], new Booking((Long) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]));
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indique si la fenêtre peut être servie par le bitmap (sinon, utiliser la requête JPQL).
+     */
+    public boolean supports(LocalDateTime start, LocalDateTime end) {
+        return loaded && !start.isAfter(end)
+                && end.toLocalDate().toEpochDay() - start.toLocalDate().toEpochDay() < maxWindowDays;
+    }
+
+    /**
+     * Identifiants (triés) des salles sans réservation confirmée chevauchant [start, end].
+     */
+    public List<Long> findAvailableSalleIds(LocalDateTime start, LocalDateTime end) {
+        List<DayMask> masks = buildMasks(start, end);
+        List<Long> available = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Map<Long, DayPlan>> entry : plansBySalle.entrySet()) {
+                if (isFree(entry.getValue(), masks, start, end)) {
+                    available.add(entry.getKey());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return available;
+    }
+
+    public void salleAdded(Long salleId) {
+        lock.writeLock().lock();
+        try {
+            plansBySalle.putIfAbsent(salleId, new HashMap<>());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void salleRemoved(Long salleId) {
+        lock.writeLock().lock();
+        try {
+            plansBySalle.remove(salleId);
+            bookingsById.values().removeIf(booking -> booking.salleId == salleId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reservationStored(Long reservationId, Long salleId, StatutReservation statut,
+                                  LocalDateTime dateDebut, LocalDateTime dateFin) {
+        lock.writeLock().lock();
+        try {
+            remove(reservationId);
+            if (statut == StatutReservation.CONFIRMEE && salleId != null) {
+                add(reservationId, new Booking(salleId, dateDebut, dateFin));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void reservationRemoved(Long reservationId) {
+        lock.writeLock().lock();
+        try {
+            remove(reservationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFree(Map<Long, DayPlan> plans, List<DayMask> masks, LocalDateTime start, LocalDateTime end) {
+        if (plans.isEmpty()) {
+            return true;
+        }
+        for (DayMask mask : masks) {
+            DayPlan plan = plans.get(mask.epochDay);
+            if (plan == null) {
+                continue;
+            }
+            boolean ambiguous = false;
+            for (int w = 0; w < wordsPerDay; w++) {
+                if ((plan.bits[w] & mask.full[w]) != 0) {
+                    return false;
+                }
+                ambiguous |= (plan.bits[w] & mask.edge[w]) != 0;
+            }
+            if (ambiguous) {
+                for (Booking booking : plan.bookings) {
+                    if (booking.overlaps(start, end)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private List<DayMask> buildMasks(LocalDateTime start, LocalDateTime end) {
+        long firstDay = start.toLocalDate().toEpochDay();
+        long lastDay = end.toLocalDate().toEpochDay();
+        List<DayMask> masks = new ArrayList<>((int) (lastDay - firstDay + 1));
+
+        for (long day = firstDay; day <= lastDay; day++) {
+            long[] full = new long[wordsPerDay];
+            long[] edge = new long[wordsPerDay];
+            int firstSlot = day == firstDay ? slotOf(start) : 0;
+            int lastSlot = day == lastDay ? slotOf(end) : slotsPerDay - 1;
+            LocalDateTime dayStart = LocalDate.ofEpochDay(day).atStartOfDay();
+
+            for (int slot = firstSlot; slot <= lastSlot; slot++) {
+                LocalDateTime slotStart = dayStart.plusMinutes((long) slot * slotMinutes);
+                LocalDateTime slotEnd = slotStart.plusMinutes(slotMinutes);
+                // Créneau entièrement contenu dans la fenêtre, ou seulement touché
+                boolean covered = !slotStart.isBefore(start) && !slotEnd.isAfter(end);
+                long[] target = covered ? full : edge;
+                target[slot >>> 6] |= 1L << slot;
+            }
+            masks.add(new DayMask(day, full, edge));
+        }
+        return masks;
+    }
+
+    private void add(Long reservationId, Booking booking) {
+        Map<Long, DayPlan> plans = plansBySalle.computeIfAbsent(booking.salleId, id -> new HashMap<>());
+        long firstDay = booking.dateDebut.toLocalDate().toEpochDay();
+        long lastDay = booking.dateFin.toLocalDate().toEpochDay();
+
+        for (long day = firstDay; day <= lastDay; day++) {
+            DayPlan plan = plans.computeIfAbsent(day, d -> new DayPlan(wordsPerDay));
+            plan.bookings.add(booking);
+            int firstSlot = day == firstDay ? slotOf(booking.dateDebut) : 0;
+            int lastSlot = day == lastDay ? slotOf(booking.dateFin) : slotsPerDay - 1;
+            setBits(plan.bits, firstSlot, lastSlot);
+        }
+        bookingsById.put(reservationId, booking);
+    }
+
+    private void remove(Long reservationId) {
+        Booking booking = bookingsById.remove(reservationId);
+        if (booking == null) {
+            return;
+        }
+        Map<Long, DayPlan> plans = plansBySalle.get(booking.salleId);
+        if (plans == null) {
+            return;
+        }
+        long firstDay = booking.dateDebut.toLocalDate().toEpochDay();
+        long lastDay = booking.dateFin.toLocalDate().toEpochDay();
+
+        for (long day = firstDay; day <= lastDay; day++) {
+            DayPlan plan = plans.get(day);
+            if (plan == null) {
+                continue;
+            }
+            plan.bookings.remove(booking);
+            if (plan.bookings.isEmpty()) {
+                plans.remove(day);
+                continue;
+            }
+            // Les créneaux peuvent être partagés : on recalcule les bits du jour
+            Arrays.fill(plan.bits, 0L);
+            for (Booking other : plan.bookings) {
+                int firstSlot = other.dateDebut.toLocalDate().toEpochDay() == day ? slotOf(other.dateDebut) : 0;
+                int lastSlot = other.dateFin.toLocalDate().toEpochDay() == day ? slotOf(other.dateFin) : slotsPerDay - 1;
+                setBits(plan.bits, firstSlot, lastSlot);
+            }
+        }
+    }
+
+    private int slotOf(LocalDateTime dateTime) {
+        return (dateTime.getHour() * 60 + dateTime.getMinute()) / slotMinutes;
+    }
+
+    private static void setBits(long[] bits, int firstSlot, int lastSlot) {
+        for (int slot = firstSlot; slot <= lastSlot; slot++) {
+            bits[slot >>> 6] |= 1L << slot;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.repository;
+
+import org.hibernate.engine.spi.SessionImplementor;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Exécution différée d'actions après validation de la transaction en cours.
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    /**
+     * Exécute l'action après un commit réussi ; immédiatement si aucune transaction n'est active.
+     * L'action est abandonnée en cas de rollback.
+     */
+    static void afterCommit(EntityManager em, Runnable action) {
+        if (!em.getTransaction().isActive()) {
+            action.run();
+            return;
+        }
+        em.unwrap(SessionImplementor.class).getActionQueue().registerProcess((success, session) -> {
+            if (success) {
+                action.run();
+            }
+        });
+    }
+}
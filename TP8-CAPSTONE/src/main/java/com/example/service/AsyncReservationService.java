@@ -0,0 +1,125 @@
+package com.example.service;
+
+import com.example.dto.AvailabilityProbe;
+import com.example.model.Reservation;
+import com.example.util.AppConfig;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Façade asynchrone de ReservationService : chaque appel s'exécute sur un thread de la façade et
+ * renvoie un CompletableFuture, l'appelant ne bloque plus pendant l'attente JDBC.
+ *
+ * Le nombre d'appels exécutés simultanément est borné (par défaut à la taille du pool de
+ * connexions) : des milliers d'appelants sont mis en file au lieu d'épuiser le pool. Le projet
+ * cible Java 17 : les appels s'exécutent sur un pool fixe de la taille de cette borne, et sur
+ * un thread virtuel par appel seulement si l'application tourne sur un JDK 21 ou plus récent.
+ * Le service délégué doit être utilisable par plusieurs threads, par exemple enveloppé par
+ * UnitOfWork.scoped.
+ */
+public class AsyncReservationService implements AutoCloseable {
+
+    private final ReservationService delegate;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public AsyncReservationService(ReservationService delegate) {
+        this(delegate, AppConfig.getInt("reservation.async.max-concurrency",
+                AppConfig.getInt("db.pool.max-size", 20)));
+    }
+
+    public AsyncReservationService(ReservationService delegate, int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("La concurrence maximale doit être positive: " + maxConcurrency);
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = newVirtualThreadExecutor(maxConcurrency);
+    }
+
+    public CompletableFuture<Boolean> createReservation(Reservation reservation) {
+        return submit(() -> delegate.createReservation(reservation));
+    }
+
+    public CompletableFuture<Void> cancelReservation(Long id) {
+        return submit(() -> {
+            delegate.cancelReservation(id);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Boolean> isSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end) {
+        return submit(() -> delegate.isSalleAvailable(salleId, start, end));
+    }
+
+    public CompletableFuture<Map<AvailabilityProbe, Boolean>> checkAvailability(Collection<AvailabilityProbe> probes) {
+        return submit(() -> delegate.checkAvailability(probes));
+    }
+
+    public CompletableFuture<Reservation> getReservationById(Long id) {
+        return submit(() -> delegate.getReservationById(id));
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /** Appels en attente d'un permis d'exécution */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Un thread virtuel par tâche si le JDK d'exécution le permet (Java 21+, recherché par réflexion
+     * puisque le code est compilé pour Java 17). Sinon, cas du JDK 17 cible, pool fixe de la taille
+     * de la borne de concurrence : le débit reste le même, seuls les appelants en attente sont mis
+     * en file au lieu d'être parqués sur leur thread virtuel.
+     */
+    private static ExecutorService newVirtualThreadExecutor(int fallbackThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(fallbackThreads);
+        }
+    }
+}
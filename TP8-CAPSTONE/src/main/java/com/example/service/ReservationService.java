@@ -1,21 +1,46 @@
 package com.example.service;
 
+import com.example.dto.AvailabilityProbe;
+import com.example.dto.BulkImportReport;
+import com.example.dto.ReservationSummary;
 import com.example.model.Reservation;
+import com.example.model.SerieReservation;
 import com.example.model.StatutReservation;
+import com.example.repository.ReservationFetch;
+import com.example.util.PaginationResult;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ReservationService {
     Reservation getReservationById(Long id);
+    Reservation getReservationById(Long id, ReservationFetch fetch);
     List<Reservation> getAllReservations();
     List<Reservation> getReservationsByUtilisateur(Long utilisateurId);
+    List<Reservation> getReservationsByUtilisateur(Long utilisateurId, ReservationFetch fetch);
     List<Reservation> getReservationsBySalle(Long salleId);
+    List<Reservation> getReservationsBySalle(Long salleId, ReservationFetch fetch);
     List<Reservation> getReservationsByDateRange(LocalDateTime start, LocalDateTime end);
+    List<Reservation> getReservationsByDateRange(LocalDateTime start, LocalDateTime end, ReservationFetch fetch);
     List<Reservation> getReservationsByStatut(StatutReservation statut);
+    List<Reservation> getReservationsByStatut(StatutReservation statut, ReservationFetch fetch);
+    List<ReservationSummary> getReservationSummariesByUtilisateur(Long utilisateurId);
+    List<ReservationSummary> getReservationSummariesBySalle(Long salleId);
+    List<ReservationSummary> getReservationSummariesByDateRange(LocalDateTime start, LocalDateTime end);
+    List<ReservationSummary> getReservationSummariesByStatut(StatutReservation statut);
+    List<Reservation> getOverlappingReservations(LocalDateTime start, LocalDateTime end, Long salleId, StatutReservation statut);
+    Stream<Reservation> streamAllReservations();
+    PaginationResult<Reservation> getReservationsPage(String cursor, int pageSize);
+    Stream<Reservation> streamReservationsByStatut(StatutReservation statut);
     boolean createReservation(Reservation reservation);
+    BulkImportReport createReservations(Collection<Reservation> reservations);
+    BulkImportReport createSerie(SerieReservation serie);
     void updateReservation(Reservation reservation);
     void cancelReservation(Long id);
     void deleteReservation(Long id);
     boolean isSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end);
+    Map<AvailabilityProbe, Boolean> checkAvailability(Collection<AvailabilityProbe> probes);
 }
\ No newline at end of file
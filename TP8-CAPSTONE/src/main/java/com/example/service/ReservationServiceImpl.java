@@ -1,21 +1,55 @@
 package com.example.service;
 
+import com.example.dto.AvailabilityProbe;
+import com.example.dto.BulkImportReport;
+import com.example.dto.ReservationSummary;
 import com.example.model.Reservation;
+import com.example.model.SerieReservation;
 import com.example.model.StatutReservation;
+import com.example.repository.ReservationFetch;
 import com.example.repository.ReservationRepository;
+import com.example.service.booking.BookingStrategy;
+import com.example.service.booking.UnguardedBookingStrategy;
+import com.example.util.AppConfig;
+import com.example.util.CachedCount;
+import com.example.util.IntervalTree;
+import com.example.util.PageCursor;
+import com.example.util.PaginationResult;
+import org.hibernate.Session;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 public class ReservationServiceImpl implements ReservationService {
 
     private final EntityManager em;
     private final ReservationRepository reservationRepository;
+    private final BookingStrategy bookingStrategy;
+    private final int bulkBatchSize = AppConfig.getInt("reservation.bulk.batch-size", 50);
+    private final CachedCount approximateReservationCount;
 
     public ReservationServiceImpl(EntityManager em, ReservationRepository reservationRepository) {
+        this(em, reservationRepository, new UnguardedBookingStrategy());
+    }
+
+    public ReservationServiceImpl(EntityManager em, ReservationRepository reservationRepository,
+                                  BookingStrategy bookingStrategy) {
         this.em = em;
         this.reservationRepository = reservationRepository;
+        this.bookingStrategy = bookingStrategy;
+        this.approximateReservationCount = new CachedCount(reservationRepository::countReservations,
+                AppConfig.getLong("pagination.count-cache-seconds", 30));
     }
 
     @Override
@@ -23,6 +57,11 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationRepository.findById(id);
     }
 
+    @Override
+    public Reservation getReservationById(Long id, ReservationFetch fetch) {
+        return reservationRepository.findById(id, fetch);
+    }
+
     @Override
     public List<Reservation> getAllReservations() {
         return reservationRepository.findAll();
@@ -33,45 +72,295 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationRepository.findByUtilisateur(utilisateurId);
     }
 
+    @Override
+    public List<Reservation> getReservationsByUtilisateur(Long utilisateurId, ReservationFetch fetch) {
+        return reservationRepository.findByUtilisateur(utilisateurId, fetch);
+    }
+
     @Override
     public List<Reservation> getReservationsBySalle(Long salleId) {
         return reservationRepository.findBySalle(salleId);
     }
 
+    @Override
+    public List<Reservation> getReservationsBySalle(Long salleId, ReservationFetch fetch) {
+        return reservationRepository.findBySalle(salleId, fetch);
+    }
+
     @Override
     public List<Reservation> getReservationsByDateRange(LocalDateTime start, LocalDateTime end) {
         return reservationRepository.findByDateRange(start, end);
     }
 
+    @Override
+    public List<Reservation> getReservationsByDateRange(LocalDateTime start, LocalDateTime end, ReservationFetch fetch) {
+        return reservationRepository.findByDateRange(start, end, fetch);
+    }
+
     @Override
     public List<Reservation> getReservationsByStatut(StatutReservation statut) {
         return reservationRepository.findByStatut(statut);
     }
 
+    @Override
+    public List<Reservation> getReservationsByStatut(StatutReservation statut, ReservationFetch fetch) {
+        return reservationRepository.findByStatut(statut, fetch);
+    }
+
+    @Override
+    public List<ReservationSummary> getReservationSummariesByUtilisateur(Long utilisateurId) {
+        return reservationRepository.findSummariesByUtilisateur(utilisateurId);
+    }
+
+    @Override
+    public List<ReservationSummary> getReservationSummariesBySalle(Long salleId) {
+        return reservationRepository.findSummariesBySalle(salleId);
+    }
+
+    @Override
+    public List<ReservationSummary> getReservationSummariesByDateRange(LocalDateTime start, LocalDateTime end) {
+        return reservationRepository.findSummariesByDateRange(start, end);
+    }
+
+    @Override
+    public List<ReservationSummary> getReservationSummariesByStatut(StatutReservation statut) {
+        return reservationRepository.findSummariesByStatut(statut);
+    }
+
+    @Override
+    public List<Reservation> getOverlappingReservations(LocalDateTime start, LocalDateTime end,
+                                                        Long salleId, StatutReservation statut) {
+        return reservationRepository.findOverlapping(start, end, salleId, statut);
+    }
+
+    @Override
+    public PaginationResult<Reservation> getReservationsPage(String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("La taille de page doit être positive: " + pageSize);
+        }
+        PageCursor after = PageCursor.decode(cursor);
+        List<Reservation> rows = after == null
+                ? reservationRepository.findAfter(null, null, pageSize + 1)
+                : reservationRepository.findAfter(after.getDateTime(0), after.getLong(1), pageSize + 1);
+
+        // Une ligne de plus que la page : sa présence indique qu'une page suivante existe
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Reservation last = rows.get(pageSize - 1);
+            nextCursor = PageCursor.encode(last.getDateDebut(), last.getId());
+        }
+        return PaginationResult.ofKeyset(rows, pageSize, nextCursor, approximateReservationCount.get());
+    }
+
+    @Override
+    public Stream<Reservation> streamAllReservations() {
+        return reservationRepository.streamAll();
+    }
+
+    @Override
+    public Stream<Reservation> streamReservationsByStatut(StatutReservation statut) {
+        return reservationRepository.streamByStatut(statut);
+    }
+
     @Override
     public boolean createReservation(Reservation reservation) {
-        // Vérifier la disponibilité de la salle
-        boolean isAvailable = isSalleAvailable(
-                reservation.getSalle().getId(),
-                reservation.getDateDebut(),
-                reservation.getDateFin()
-        );
+        // Vérification de disponibilité et insertion selon la stratégie configurée
+        return bookingStrategy.book(em, reservationRepository, reservation);
+    }
+
+    @Override
+    public BulkImportReport createReservations(Collection<Reservation> reservations) {
+        List<Reservation> candidates = new ArrayList<>(reservations);
+        return new BulkImportReport(Arrays.asList(
+                bookingStrategy.bookAll(em, salleIds(candidates), new BulkBatch(null, candidates))));
+    }
 
-        if (!isAvailable) {
-            return false;
+    @Override
+    public BulkImportReport createSerie(SerieReservation serie) {
+        List<Reservation> occurrences = serie.genererOccurrences();
+        if (occurrences.isEmpty()) {
+            throw new IllegalArgumentException("La série ne contient aucune occurrence: " + serie);
         }
+        return new BulkImportReport(Arrays.asList(
+                bookingStrategy.bookAll(em, salleIds(occurrences), new BulkBatch(serie, occurrences))));
+    }
+
+    /**
+     * Import en masse ou série, exécuté dans la transaction de la stratégie de réservation :
+     * la vérification des conflits et l'insertion sont protégées par les mêmes verrous.
+     */
+    private class BulkBatch implements BookingStrategy.Batch<BulkImportReport.Item[]> {
+
+        private final SerieReservation serie;
+        private final List<Reservation> candidates;
+        private BulkImportReport.Item[] items;
+
+        BulkBatch(SerieReservation serie, List<Reservation> candidates) {
+            this.serie = serie;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public BulkImportReport.Item[] run() {
+            items = checkConflicts(candidates);
+            if (serie == null) {
+                insertInBatches(null, items);
+                return items;
+            }
+
+            // Tout ou rien : une seule occurrence en conflit empêche l'enregistrement de la série
+            boolean fullyAccepted = true;
+            for (BulkImportReport.Item item : items) {
+                fullyAccepted &= item.isAccepted();
+            }
+            if (fullyAccepted) {
+                insertInBatches(serie, items);
+            } else {
+                for (int i = 0; i < items.length; i++) {
+                    if (items[i].isAccepted()) {
+                        items[i] = BulkImportReport.Item.rejected(items[i].getReservation(),
+                                "Série non enregistrée : conflit sur une autre occurrence");
+                    }
+                }
+            }
+            return items;
+        }
+
+        @Override
+        public void reset() {
+            // Transaction annulée : les identifiants attribués à la tentative précédente ne valent plus rien
+            if (serie != null) {
+                serie.setId(null);
+                serie.setVersion(null);
+            }
+            for (BulkImportReport.Item item : items) {
+                if (item.isAccepted()) {
+                    item.getReservation().setId(null);
+                    item.getReservation().setVersion(null);
+                }
+            }
+        }
+    }
+
+    /** Salles valides d'un lot, par identifiant croissant (ordre de verrouillage) */
+    private static SortedSet<Long> salleIds(List<Reservation> candidates) {
+        SortedSet<Long> salleIds = new TreeSet<>();
+        for (Reservation reservation : candidates) {
+            if (reservation.getSalle() != null && reservation.getSalle().getId() != null) {
+                salleIds.add(reservation.getSalle().getId());
+            }
+        }
+        return salleIds;
+    }
+
+    /**
+     * Vérifie un lot de réservations contre la base et entre elles, sans rien écrire.
+     */
+    private BulkImportReport.Item[] checkConflicts(List<Reservation> candidates) {
+        BulkImportReport.Item[] items = new BulkImportReport.Item[candidates.size()];
+
+        // 1. Validation et fenêtre couverte par le lot
+        List<Integer> valid = new ArrayList<>();
+        Set<Long> salleIds = new HashSet<>();
+        LocalDateTime minStart = null;
+        LocalDateTime maxEnd = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            Reservation reservation = candidates.get(i);
+            String error = validate(reservation);
+            if (error != null) {
+                items[i] = BulkImportReport.Item.rejected(reservation, error);
+                continue;
+            }
+            valid.add(i);
+            salleIds.add(reservation.getSalle().getId());
+            if (minStart == null || reservation.getDateDebut().isBefore(minStart)) {
+                minStart = reservation.getDateDebut();
+            }
+            if (maxEnd == null || reservation.getDateFin().isAfter(maxEnd)) {
+                maxEnd = reservation.getDateFin();
+            }
+        }
+
+        // 2. Une requête pour les réservations existantes, puis un balayage trié par (salle, début) :
+        //    la base a priorité, puis la réservation du lot qui commence le plus tôt
+        if (!valid.isEmpty()) {
+            Map<Long, IntervalTree> existing = reservationRepository.findConfirmedIntervals(salleIds, minStart, maxEnd);
+            valid.sort(Comparator.<Integer, Long>comparing(i -> candidates.get(i).getSalle().getId())
+                    .thenComparing(i -> candidates.get(i).getDateDebut())
+                    .thenComparing(i -> i));
+
+            Long currentSalleId = null;
+            LocalDateTime lastAcceptedEnd = null;
+            for (int i : valid) {
+                Reservation reservation = candidates.get(i);
+                Long salleId = reservation.getSalle().getId();
+                if (!salleId.equals(currentSalleId)) {
+                    currentSalleId = salleId;
+                    lastAcceptedEnd = null;
+                }
+
+                IntervalTree tree = existing.get(salleId);
+                if (lastAcceptedEnd != null && !reservation.getDateDebut().isAfter(lastAcceptedEnd)) {
+                    items[i] = BulkImportReport.Item.rejected(reservation, "Conflit avec une autre réservation du lot");
+                } else if (tree != null && tree.overlaps(IntervalTree.toKey(reservation.getDateDebut()),
+                        IntervalTree.toKey(reservation.getDateFin()))) {
+                    items[i] = BulkImportReport.Item.rejected(reservation, "Salle déjà réservée sur ce créneau");
+                } else {
+                    items[i] = BulkImportReport.Item.accepted(reservation);
+                    lastAcceptedEnd = reservation.getDateFin();
+                }
+            }
+        }
+
+        return items;
+    }
+
+    /**
+     * Insère les réservations acceptées (et leur série éventuelle) par lots JDBC, dans la transaction courante.
+     */
+    private void insertInBatches(SerieReservation serie, BulkImportReport.Item[] items) {
+        Session session = em.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(bulkBatchSize);
 
-        em.getTransaction().begin();
         try {
-            reservationRepository.save(reservation);
-            em.getTransaction().commit();
-            return true;
-        } catch (Exception e) {
-            if (em.getTransaction().isActive()) {
-                em.getTransaction().rollback();
+            if (serie != null) {
+                em.persist(serie);
             }
-            throw e;
+            int pending = 0;
+            for (BulkImportReport.Item item : items) {
+                if (!item.isAccepted()) {
+                    continue;
+                }
+                reservationRepository.save(item.getReservation());
+                if (++pending % bulkBatchSize == 0) {
+                    // Envoi du lot puis libération du contexte de persistance
+                    em.flush();
+                    em.clear();
+                }
+            }
+            // Dernier lot envoyé ici : le commit de la stratégie a lieu après le retour à la taille de lot initiale
+            em.flush();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    private static String validate(Reservation reservation) {
+        if (reservation.getSalle() == null || reservation.getSalle().getId() == null) {
+            return "Salle manquante";
         }
+        if (reservation.getUtilisateur() == null) {
+            return "Utilisateur manquant";
+        }
+        if (reservation.getDateDebut() == null || reservation.getDateFin() == null) {
+            return "Dates manquantes";
+        }
+        if (!reservation.getDateFin().isAfter(reservation.getDateDebut())) {
+            return "La date de fin doit être postérieure à la date de début";
+        }
+        return null;
     }
 
     @Override
@@ -124,4 +413,9 @@ public class ReservationServiceImpl implements ReservationService {
     public boolean isSalleAvailable(Long salleId, LocalDateTime start, LocalDateTime end) {
         return reservationRepository.isSalleAvailable(salleId, start, end);
     }
+
+    @Override
+    public Map<AvailabilityProbe, Boolean> checkAvailability(Collection<AvailabilityProbe> probes) {
+        return reservationRepository.checkAvailability(probes);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de routage lecture/écriture d'une UnitOfWork : part des lectures servies par la réplique.
+ */
+public class RoutingCounters {
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder pinnedReads = new LongAdder();
+    private final LongAdder primaryOnlyCalls = new LongAdder();
+
+    void replicaRead() {
+        replicaReads.increment();
+    }
+
+    void primaryRead(boolean pinnedByWrite) {
+        primaryReads.increment();
+        if (pinnedByWrite) {
+            pinnedReads.increment();
+        }
+    }
+
+    void primaryOnlyCall() {
+        primaryOnlyCalls.increment();
+    }
+
+    /** Lectures @ReadOnly envoyées à la réplique */
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /** Lectures @ReadOnly servies par le primaire (pas de réplique, ou unité déjà écrivante) */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /** Parmi les lectures sur le primaire, celles imposées par une écriture antérieure de l'unité */
+    public long getPinnedReads() {
+        return pinnedReads.sum();
+    }
+
+    /** Appels de repository sans @ReadOnly (écritures, vérifications avant écriture), toujours sur le primaire */
+    public long getPrimaryOnlyCalls() {
+        return primaryOnlyCalls.sum();
+    }
+
+    public double getOffloadRatio() {
+        long replica = getReplicaReads();
+        long total = replica + getPrimaryReads();
+        return total == 0 ? 0 : (double) replica / total;
+    }
+
+    public void reset() {
+        replicaReads.reset();
+        primaryReads.reset();
+        pinnedReads.reset();
+        primaryOnlyCalls.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Routage : lectures réplique=%d primaire=%d (dont %d après écriture), autres appels=%d, délestage=%.1f%%",
+                getReplicaReads(), getPrimaryReads(), getPinnedReads(), getPrimaryOnlyCalls(), getOffloadRatio() * 100);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.service;
 
+import com.example.dto.SalleSummary;
 import com.example.model.Salle;
+import com.example.util.PaginationResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -10,10 +12,13 @@ public interface SalleService {
     Salle getSalleById(Long id);
     List<Salle> getAllSalles();
     List<Salle> findAvailableRooms(LocalDateTime start, LocalDateTime end);
+    List<SalleSummary> findAvailableRoomSummaries(LocalDateTime start, LocalDateTime end);
     List<Salle> searchRooms(Map<String, Object> criteria);
     long countRooms();
     int getTotalPages(int pageSize);
     List<Salle> getPaginatedRooms(int page, int pageSize);
+    List<SalleSummary> getPaginatedRoomSummaries(int page, int pageSize);
+    PaginationResult<Salle> getRoomsPage(String cursor, int pageSize);
     void createSalle(Salle salle);
     void updateSalle(Salle salle);
     void deleteSalle(Long id);
@@ -1,7 +1,12 @@
 package com.example.service;
 
+import com.example.dto.SalleSummary;
 import com.example.model.Salle;
 import com.example.repository.SalleRepository;
+import com.example.util.AppConfig;
+import com.example.util.CachedCount;
+import com.example.util.PageCursor;
+import com.example.util.PaginationResult;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
@@ -12,10 +17,13 @@ public class SalleServiceImpl implements SalleService {
 
     private final EntityManager em;
     private final SalleRepository salleRepository;
+    private final CachedCount approximateRoomCount;
 
     public SalleServiceImpl(EntityManager em, SalleRepository salleRepository) {
         this.em = em;
         this.salleRepository = salleRepository;
+        this.approximateRoomCount = new CachedCount(salleRepository::countRooms,
+                AppConfig.getLong("pagination.count-cache-seconds", 30));
     }
 
     @Override
@@ -33,6 +41,11 @@ public class SalleServiceImpl implements SalleService {
         return salleRepository.findAvailableRooms(start, end);
     }
 
+    @Override
+    public List<SalleSummary> findAvailableRoomSummaries(LocalDateTime start, LocalDateTime end) {
+        return salleRepository.findAvailableRoomSummaries(start, end);
+    }
+
     @Override
     public List<Salle> searchRooms(Map<String, Object> criteria) {
         return salleRepository.searchRooms(criteria);
@@ -54,12 +67,35 @@ public class SalleServiceImpl implements SalleService {
         return salleRepository.getPaginatedRooms(page, pageSize);
     }
 
+    @Override
+    public List<SalleSummary> getPaginatedRoomSummaries(int page, int pageSize) {
+        return salleRepository.getPaginatedRoomSummaries(page, pageSize);
+    }
+
+    @Override
+    public PaginationResult<Salle> getRoomsPage(String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("La taille de page doit être positive: " + pageSize);
+        }
+        PageCursor after = PageCursor.decode(cursor);
+        List<Salle> rows = salleRepository.findRoomsAfter(after != null ? after.getLong(0) : null, pageSize + 1);
+
+        // Une ligne de plus que la page : sa présence indique qu'une page suivante existe
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = PageCursor.encode(rows.get(pageSize - 1).getId());
+        }
+        return PaginationResult.ofKeyset(rows, pageSize, nextCursor, approximateRoomCount.get());
+    }
+
     @Override
     public void createSalle(Salle salle) {
         em.getTransaction().begin();
         try {
             salleRepository.save(salle);
             em.getTransaction().commit();
+            approximateRoomCount.invalidate();
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -88,6 +124,7 @@ public class SalleServiceImpl implements SalleService {
         try {
             salleRepository.delete(id);
             em.getTransaction().commit();
+            approximateRoomCount.invalidate();
         } catch (Exception e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
@@ -0,0 +1,276 @@
+package com.example.service;
+
+import com.example.repository.ReadOnly;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+
+/**
+ * Unité de travail construite sur l'EntityManagerFactory : chaque thread obtient son propre
+ * EntityManager, ouvert au début de l'unité et fermé (transaction oubliée annulée) à la fin.
+ *
+ * getEntityManager() renvoie un EntityManager contextuel, partageable entre threads, qui délègue
+ * à celui de l'unité en cours sur le thread appelant : repositories et services construits dessus
+ * restent confinés au thread sans changer de code. scoped() enveloppe un service pour qu'un appel
+ * hors unité de travail en ouvre une le temps de l'appel ; run() et call() ouvrent une unité
+ * couvrant plusieurs appels (une requête utilisateur, un scénario).
+ *
+ * Avec une EntityManagerFactory réplique, routed() envoie les méthodes @ReadOnly d'un repository
+ * vers la réplique, tant que l'unité n'a pas ouvert de transaction : après une écriture, toutes
+ * ses lectures restent sur le primaire (lecture de ses propres écritures).
+ */
+public class UnitOfWork {
+
+    private final class Scope {
+        private EntityManager primary;
+        private EntityManager replica;
+        int depth;
+        int replicaCalls;
+        boolean wrote;
+
+        EntityManager primary() {
+            if (primary == null) {
+                primary = emf.createEntityManager();
+            }
+            return primary;
+        }
+
+        EntityManager replica() {
+            if (replica == null) {
+                replica = replicaEmf.createEntityManager();
+            }
+            return replica;
+        }
+
+        /** EntityManager vers lequel l'EntityManager contextuel délègue en ce moment */
+        EntityManager current() {
+            return replicaCalls > 0 ? replica() : primary();
+        }
+
+        void closeAll() {
+            try {
+                if (primary != null) {
+                    closeEntityManager(primary);
+                }
+            } finally {
+                if (replica != null) {
+                    closeEntityManager(replica);
+                }
+            }
+        }
+    }
+
+    private final EntityManagerFactory emf;
+    private final EntityManagerFactory replicaEmf;
+    private final RoutingCounters routingCounters = new RoutingCounters();
+    private final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+    private final EntityManager contextualEntityManager;
+
+    public UnitOfWork(EntityManagerFactory emf) {
+        this(emf, null);
+    }
+
+    /**
+     * @param replicaEmf unité de persistance réplique pour les lectures @ReadOnly, null si aucune
+     */
+    public UnitOfWork(EntityManagerFactory emf, EntityManagerFactory replicaEmf) {
+        this.emf = emf;
+        this.replicaEmf = replicaEmf;
+        this.contextualEntityManager = (EntityManager) Proxy.newProxyInstance(
+                EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class}, this::invokeOnCurrent);
+    }
+
+    public EntityManagerFactory getEntityManagerFactory() {
+        return emf;
+    }
+
+    public EntityManagerFactory getReplicaEntityManagerFactory() {
+        return replicaEmf;
+    }
+
+    public RoutingCounters getRoutingCounters() {
+        return routingCounters;
+    }
+
+    /** EntityManager contextuel : utilisable uniquement à l'intérieur d'une unité de travail */
+    public EntityManager getEntityManager() {
+        return contextualEntityManager;
+    }
+
+    public boolean isActive() {
+        return currentScope.get() != null;
+    }
+
+    /** Exécute le traitement dans l'unité de travail du thread, ouverte pour l'occasion si besoin */
+    public <T> T call(Supplier<T> work) {
+        Scope scope = open();
+        try {
+            return work.get();
+        } finally {
+            close(scope);
+        }
+    }
+
+    public void run(Runnable work) {
+        call(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Exécute le traitement dans une transaction : validée en fin de traitement, annulée sur exception */
+    public <T> T inTransaction(Function<EntityManager, T> work) {
+        return call(() -> {
+            Scope scope = currentScope.get();
+            scope.wrote = true;
+            EntityManager em = scope.primary();
+            em.getTransaction().begin();
+            try {
+                T result = work.apply(em);
+                em.getTransaction().commit();
+                return result;
+            } catch (RuntimeException e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Enveloppe un service : chaque appel s'exécute dans l'unité de travail du thread (une unité par
+     * appel si aucune n'est ouverte). Un Stream renvoyé garde son EntityManager jusqu'à sa fermeture.
+     */
+    public <S> S scoped(Class<S> serviceInterface, S service) {
+        return serviceInterface.cast(Proxy.newProxyInstance(serviceInterface.getClassLoader(),
+                new Class<?>[]{serviceInterface}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invoke(method, service, args);
+                    }
+                    return invokeInScope(method, service, args, false);
+                }));
+    }
+
+    /**
+     * Enveloppe un repository construit sur l'EntityManager contextuel : ses méthodes @ReadOnly
+     * sont exécutées sur la réplique si elle existe et si l'unité n'a pas encore écrit.
+     */
+    public <R> R routed(Class<R> repositoryInterface, R repository) {
+        return repositoryInterface.cast(Proxy.newProxyInstance(repositoryInterface.getClassLoader(),
+                new Class<?>[]{repositoryInterface}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return invoke(method, repository, args);
+                    }
+                    boolean readOnly = method.isAnnotationPresent(ReadOnly.class);
+                    Scope scope = currentScope.get();
+                    boolean pinned = scope != null && scope.wrote;
+                    if (readOnly && replicaEmf != null && !pinned) {
+                        routingCounters.replicaRead();
+                        return invokeInScope(method, repository, args, true);
+                    }
+                    if (readOnly) {
+                        routingCounters.primaryRead(pinned);
+                    } else {
+                        routingCounters.primaryOnlyCall();
+                    }
+                    return invokeInScope(method, repository, args, false);
+                }));
+    }
+
+    private Object invokeInScope(Method method, Object target, Object[] args, boolean onReplica) throws Throwable {
+        Scope scope = open();
+        boolean handedOver = false;
+        try {
+            Object result;
+            if (onReplica) {
+                scope.replicaCalls++;
+                try {
+                    result = invoke(method, target, args);
+                } finally {
+                    scope.replicaCalls--;
+                }
+            } else {
+                result = invoke(method, target, args);
+            }
+            if (result instanceof BaseStream && scope.depth == 1) {
+                // Le flux est consommé après le retour : l'unité lui est confiée
+                currentScope.remove();
+                handedOver = true;
+                return ((BaseStream<?, ?>) result).onClose(scope::closeAll);
+            }
+            return result;
+        } finally {
+            if (!handedOver) {
+                close(scope);
+            }
+        }
+    }
+
+    private Scope open() {
+        Scope scope = currentScope.get();
+        if (scope == null) {
+            scope = new Scope();
+            currentScope.set(scope);
+        }
+        scope.depth++;
+        return scope;
+    }
+
+    private void close(Scope scope) {
+        if (--scope.depth == 0) {
+            currentScope.remove();
+            scope.closeAll();
+        }
+    }
+
+    private static void closeEntityManager(EntityManager em) {
+        try {
+            if (em.getTransaction().isActive()) {
+                System.err.println("Transaction laissée ouverte en fin d'unité de travail : annulation");
+                em.getTransaction().rollback();
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    private Object invokeOnCurrent(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "EntityManager contextuel de " + emf;
+            case "isOpen":
+                return isActive();
+            case "close":
+                throw new IllegalStateException("L'EntityManager contextuel est fermé par son unité de travail");
+            default:
+                Scope scope = currentScope.get();
+                if (scope == null) {
+                    throw new IllegalStateException("Aucune unité de travail ouverte sur ce thread pour " + method.getName());
+                }
+                if (scope.replicaCalls == 0 && method.getName().equals("getTransaction")) {
+                    // Une transaction sur le primaire : les lectures suivantes de l'unité y restent
+                    scope.wrote = true;
+                }
+                return invoke(method, scope.current(), args);
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
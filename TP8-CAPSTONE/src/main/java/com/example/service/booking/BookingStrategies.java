@@ -0,0 +1,36 @@
+package com.example.service.booking;
+
+import com.example.util.AppConfig;
+
+/**
+ * Fabrique des stratégies de réservation à partir de leur nom de configuration
+ * (clé reservation.booking.strategy).
+ */
+public final class BookingStrategies {
+
+    public static final String NONE = "none";
+    public static final String PESSIMISTIC = "pessimistic";
+    public static final String STRIPED = "striped";
+    public static final String OPTIMISTIC = "optimistic";
+
+    private BookingStrategies() {}
+
+    public static BookingStrategy fromConfig() {
+        return create(AppConfig.get("reservation.booking.strategy", NONE));
+    }
+
+    public static BookingStrategy create(String name) {
+        switch (name.trim().toLowerCase()) {
+            case NONE:
+                return new UnguardedBookingStrategy();
+            case PESSIMISTIC:
+                return new PessimisticLockBookingStrategy();
+            case STRIPED:
+                return new StripedLockBookingStrategy(AppConfig.getInt("reservation.booking.stripes", 64));
+            case OPTIMISTIC:
+                return new OptimisticRetryBookingStrategy(AppConfig.getInt("reservation.booking.max-attempts", 5));
+            default:
+                throw new IllegalArgumentException("Stratégie de réservation inconnue: " + name);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.service.booking;
+
+import com.example.model.Reservation;
+import com.example.repository.ReservationRepository;
+
+import javax.persistence.EntityManager;
+import java.util.SortedSet;
+
+/**
+ * Stratégie de contrôle des conflits utilisée par ReservationServiceImpl (réservation unitaire,
+ * import en masse et séries).
+ * Une instance est partagée par tous les services (et donc tous les threads) qui réservent.
+ */
+public interface BookingStrategy {
+
+    /**
+     * Vérifie la disponibilité puis enregistre la réservation dans sa propre transaction.
+     * @return false si la salle n'est pas disponible sur le créneau demandé
+     */
+    boolean book(EntityManager em, ReservationRepository reservationRepository, Reservation reservation);
+
+    /**
+     * Exécute une écriture groupée portant sur plusieurs salles dans une transaction ouverte par la
+     * stratégie, avec la même protection que book : la vérification des conflits faite par le lot
+     * ne peut pas être invalidée par une réservation concurrente de ces salles avant le commit.
+     * @param salleIds salles touchées par le lot, verrouillées dans cet ordre
+     * @return le résultat du lot, une fois la transaction validée
+     */
+    <T> T bookAll(EntityManager em, SortedSet<Long> salleIds, Batch<T> batch);
+
+    /**
+     * Vérification et insertion d'un lot de réservations dans la transaction courante.
+     */
+    interface Batch<T> {
+
+        T run();
+
+        /** Remet le lot dans son état initial avant une nouvelle tentative (stratégie optimiste) */
+        default void reset() {}
+    }
+}
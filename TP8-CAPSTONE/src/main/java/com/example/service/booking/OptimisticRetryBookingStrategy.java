@@ -0,0 +1,154 @@
+package com.example.service.booking;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.repository.ReservationRepository;
+import org.hibernate.StaleStateException;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.RollbackException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verrou optimiste sur le compteur de version de la salle : chaque réservation incrémente
+ * Salle.version au commit. Si une autre réservation de la même salle a été validée entre-temps,
+ * le commit échoue et la tentative est rejouée (vérification comprise). Un lot incrémente la
+ * version de chacune de ses salles et est rejoué en entier. getConflicts() compte ces échecs de
+ * commit, tentatives rejouées ou non.
+ */
+public class OptimisticRetryBookingStrategy implements BookingStrategy {
+
+    // Relire la version en base, pas dans le cache de second niveau
+    private static final Map<String, Object> BYPASS_CACHE =
+            Collections.singletonMap("javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+
+    private final int maxAttempts;
+    private final LongAdder conflicts = new LongAdder();
+
+    public OptimisticRetryBookingStrategy(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Le nombre de tentatives doit être positif: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public boolean book(EntityManager em, ReservationRepository reservationRepository, Reservation reservation) {
+        Long salleId = reservation.getSalle().getId();
+
+        for (int attempt = 1; ; attempt++) {
+            em.getTransaction().begin();
+            try {
+                Salle salle = em.find(Salle.class, salleId, BYPASS_CACHE);
+                if (salle == null || !reservationRepository.isSalleAvailableForUpdate(
+                        salleId, reservation.getDateDebut(), reservation.getDateFin())) {
+                    em.getTransaction().rollback();
+                    return false;
+                }
+                em.lock(salle, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+                reservationRepository.save(reservation);
+                em.getTransaction().commit();
+                return true;
+            } catch (OptimisticLockException | RollbackException e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                // Contexte de persistance incohérent après l'échec : on repart d'un état propre
+                em.clear();
+                reservation.setId(null);
+                reservation.setVersion(null);
+            } catch (RuntimeException e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public <T> T bookAll(EntityManager em, SortedSet<Long> salleIds, Batch<T> batch) {
+        for (int attempt = 1; ; attempt++) {
+            em.getTransaction().begin();
+            try {
+                Map<Long, Long> versions = lockSalles(em, salleIds, null);
+                T result = batch.run();
+                // Le lot peut vider le contexte de persistance, et avec lui les incréments prévus :
+                // on reverrouille les salles en exigeant les versions lues avant la vérification
+                lockSalles(em, salleIds, versions);
+
+                em.getTransaction().commit();
+                return result;
+            } catch (OptimisticLockException | RollbackException e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                if (!isOptimisticLockFailure(e)) {
+                    throw e;
+                }
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                em.clear();
+                batch.reset();
+            } catch (RuntimeException e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Programme l'incrément de version de chaque salle et renvoie les versions lues.
+     * @param expected versions attendues, ou null au premier verrouillage
+     */
+    private static Map<Long, Long> lockSalles(EntityManager em, SortedSet<Long> salleIds, Map<Long, Long> expected) {
+        Map<Long, Long> versions = new HashMap<>();
+        for (Long salleId : salleIds) {
+            Salle salle = em.find(Salle.class, salleId, BYPASS_CACHE);
+            if (salle == null) {
+                continue;
+            }
+            if (expected != null && !Objects.equals(expected.get(salleId), salle.getVersion())) {
+                throw new OptimisticLockException("Salle modifiée pendant le lot: " + salleId, null, salle);
+            }
+            em.lock(salle, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            versions.put(salleId, salle.getVersion());
+        }
+        return versions;
+    }
+
+    /** Commits refusés pour conflit de version depuis la création de la stratégie */
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
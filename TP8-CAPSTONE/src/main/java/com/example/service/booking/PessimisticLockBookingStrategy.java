@@ -0,0 +1,59 @@
+package com.example.service.booking;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.repository.ReservationRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.SortedSet;
+
+/**
+ * Verrou pessimiste (SELECT ... FOR UPDATE) sur la ligne de la salle : les réservations
+ * d'une même salle sont sérialisées par la base, celles de salles différentes restent parallèles.
+ * Un lot verrouille toutes ses salles par identifiant croissant, ce qui évite les interblocages.
+ */
+public class PessimisticLockBookingStrategy implements BookingStrategy {
+
+    @Override
+    public boolean book(EntityManager em, ReservationRepository reservationRepository, Reservation reservation) {
+        em.getTransaction().begin();
+        try {
+            Salle salle = em.find(Salle.class, reservation.getSalle().getId(), LockModeType.PESSIMISTIC_WRITE);
+            if (salle == null || !reservationRepository.isSalleAvailableForUpdate(
+                    salle.getId(), reservation.getDateDebut(), reservation.getDateFin())) {
+                em.getTransaction().rollback();
+                return false;
+            }
+
+            reservationRepository.save(reservation);
+            em.getTransaction().commit();
+            return true;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> T bookAll(EntityManager em, SortedSet<Long> salleIds, Batch<T> batch) {
+        em.getTransaction().begin();
+        try {
+            // Salle inexistante : rien à verrouiller, le lot rejette ou échoue sur la clé étrangère
+            for (Long salleId : salleIds) {
+                em.find(Salle.class, salleId, LockModeType.PESSIMISTIC_WRITE);
+            }
+
+            T result = batch.run();
+            em.getTransaction().commit();
+            return result;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.service.booking;
+
+import com.example.model.Reservation;
+import com.example.repository.ReservationRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Verrous en mémoire répartis par salle (lock striping) : la vérification et l'insertion
+ * d'une même salle sont sérialisées dans la JVM, sans verrou en base.
+ * Ne protège que les réservations passant par ce processus. Un lot prend les verrous de toutes
+ * ses salles par indice croissant, ce qui évite les interblocages entre lots.
+ */
+public class StripedLockBookingStrategy implements BookingStrategy {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLockBookingStrategy(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de verrous doit être positif: " + stripeCount);
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public boolean book(EntityManager em, ReservationRepository reservationRepository, Reservation reservation) {
+        Long salleId = reservation.getSalle().getId();
+        ReentrantLock lock = stripes[stripeIndex(salleId)];
+
+        // Le verrou couvre le commit : la réservation suivante voit forcément celle-ci
+        lock.lock();
+        try {
+            if (!reservationRepository.isSalleAvailable(salleId, reservation.getDateDebut(), reservation.getDateFin())) {
+                return false;
+            }
+
+            em.getTransaction().begin();
+            try {
+                reservationRepository.save(reservation);
+                em.getTransaction().commit();
+                return true;
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T bookAll(EntityManager em, SortedSet<Long> salleIds, Batch<T> batch) {
+        SortedSet<Integer> indexes = new TreeSet<>();
+        for (Long salleId : salleIds) {
+            indexes.add(stripeIndex(salleId));
+        }
+
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                held.add(stripes[index]);
+            }
+
+            em.getTransaction().begin();
+            try {
+                T result = batch.run();
+                em.getTransaction().commit();
+                return result;
+            } catch (Exception e) {
+                if (em.getTransaction().isActive()) {
+                    em.getTransaction().rollback();
+                }
+                throw e;
+            }
+        } finally {
+            for (ReentrantLock lock : held) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private int stripeIndex(Long salleId) {
+        return Math.floorMod(salleId.hashCode(), stripes.length);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.service.booking;
+
+import com.example.model.Reservation;
+import com.example.repository.ReservationRepository;
+
+import javax.persistence.EntityManager;
+import java.util.SortedSet;
+
+/**
+ * Comportement historique : vérification hors transaction puis insertion.
+ * Deux réservations concurrentes peuvent passer la vérification toutes les deux.
+ * Les lots sont vérifiés dans leur transaction d'écriture, sans verrou.
+ */
+public class UnguardedBookingStrategy implements BookingStrategy {
+
+    @Override
+    public boolean book(EntityManager em, ReservationRepository reservationRepository, Reservation reservation) {
+        // Vérifier la disponibilité de la salle
+        boolean isAvailable = reservationRepository.isSalleAvailable(
+                reservation.getSalle().getId(),
+                reservation.getDateDebut(),
+                reservation.getDateFin()
+        );
+
+        if (!isAvailable) {
+            return false;
+        }
+
+        em.getTransaction().begin();
+        try {
+            reservationRepository.save(reservation);
+            em.getTransaction().commit();
+            return true;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> T bookAll(EntityManager em, SortedSet<Long> salleIds, Batch<T> batch) {
+        em.getTransaction().begin();
+        try {
+            T result = batch.run();
+            em.getTransaction().commit();
+            return result;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+}
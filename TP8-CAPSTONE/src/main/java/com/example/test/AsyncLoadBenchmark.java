@@ -0,0 +1,233 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.service.AsyncReservationService;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.ConnectionPools;
+import com.example.util.DataInitializer;
+import com.example.util.LatencyHistogram;
+import com.example.util.PoolMetrics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 10 000 requêtes simultanées (90 % de vérifications de disponibilité, 10 % de réservations) :
+ * service synchrone avec un thread plateforme par appelant, contre la façade asynchrone
+ * (pool fixe sur Java 17, concurrence bornée par le pool). Durée totale, latence par requête,
+ * pic de threads et attente au pool de connexions.
+ */
+public class AsyncLoadBenchmark {
+
+    private static final String MOTIF = "BENCH-ASYNC";
+    private static final int BOOKING_PERCENT = 10;
+
+    private final EntityManagerFactory emf;
+    private final int requests;
+
+    public AsyncLoadBenchmark(EntityManagerFactory emf, int requests) {
+        this.emf = emf;
+        this.requests = requests;
+    }
+
+    public void runBenchmark() {
+        System.out.println("\n=== BENCHMARK: FAÇADE ASYNCHRONE, " + requests + " REQUÊTES SIMULTANÉES ===");
+
+        // Entités détachées, référencées par les réservations créées depuis n'importe quel thread
+        List<Salle> salles;
+        Utilisateur utilisateur;
+        EntityManager em = emf.createEntityManager();
+        try {
+            salles = em.createQuery("SELECT s FROM Salle s ORDER BY s.id", Salle.class).getResultList();
+            List<Utilisateur> utilisateurs = em.createQuery("SELECT u FROM Utilisateur u ORDER BY u.id", Utilisateur.class)
+                    .setMaxResults(1).getResultList();
+            if (salles.isEmpty() || utilisateurs.isEmpty()) {
+                System.out.println("Aucune salle ou aucun utilisateur : initialisez d'abord les données de test.");
+                return;
+            }
+            utilisateur = utilisateurs.get(0);
+        } finally {
+            em.close();
+        }
+
+        UnitOfWork unitOfWork = new UnitOfWork(emf);
+        EntityManager contextual = unitOfWork.getEntityManager();
+        ReservationService service = unitOfWork.scoped(ReservationService.class,
+                new ReservationServiceImpl(contextual, new ReservationRepositoryImpl(contextual)));
+
+        System.out.println(String.format("%-10s | %9s | %10s | %9s | %9s | %9s | %7s | %11s | %16s",
+                "Mode", "Durée (s)", "Requêtes/s", "p50 (ms)", "p99 (ms)", "max (ms)", "Erreurs",
+                "Pic threads", "Attente p99 (ms)"));
+
+        // Premier passage de chaque mode : chauffe
+        for (int round = 0; round < 2; round++) {
+            cleanUp();
+            runSynchronous(service, salles, utilisateur, round == 1);
+            cleanUp();
+            runAsynchronous(service, salles, utilisateur, round == 1);
+        }
+        cleanUp();
+    }
+
+    private void runSynchronous(ReservationService service, List<Salle> salles, Utilisateur utilisateur, boolean report) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicInteger errors = new AtomicInteger();
+        Random random = new Random(42);
+        startMeasure();
+
+        long start = System.nanoTime();
+        List<Thread> callers = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            Runnable request = newRequest(service, random, salles, utilisateur);
+            long submitted = System.nanoTime();
+            Thread caller = new Thread(() -> {
+                try {
+                    request.run();
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                }
+                latencies.record(System.nanoTime() - submitted);
+            });
+            caller.start();
+            callers.add(caller);
+        }
+        for (Thread caller : callers) {
+            try {
+                caller.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (report) {
+            report("Synchrone", System.nanoTime() - start, latencies, errors.get());
+        }
+    }
+
+    private void runAsynchronous(ReservationService service, List<Salle> salles, Utilisateur utilisateur, boolean report) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        AtomicInteger errors = new AtomicInteger();
+        Random random = new Random(42);
+        startMeasure();
+
+        try (AsyncReservationService async = new AsyncReservationService(service)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                long submitted = System.nanoTime();
+                CompletableFuture<?> future = newAsyncRequest(async, random, salles, utilisateur);
+                futures.add(future.whenComplete((result, error) -> {
+                    if (error != null) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.record(System.nanoTime() - submitted);
+                }));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (RuntimeException e) {
+                // Erreurs déjà comptées requête par requête
+            }
+            if (report) {
+                report("Asynchrone", System.nanoTime() - start, latencies, errors.get());
+            }
+        }
+    }
+
+    private Runnable newRequest(ReservationService service, Random random, List<Salle> salles, Utilisateur utilisateur) {
+        Salle salle = salles.get(random.nextInt(salles.size()));
+        LocalDateTime start = slot(random);
+        if (random.nextInt(100) < BOOKING_PERCENT) {
+            Reservation reservation = newReservation(salle, utilisateur, start);
+            return () -> service.createReservation(reservation);
+        }
+        return () -> service.isSalleAvailable(salle.getId(), start, start.plusHours(1));
+    }
+
+    private CompletableFuture<?> newAsyncRequest(AsyncReservationService async, Random random,
+                                                 List<Salle> salles, Utilisateur utilisateur) {
+        Salle salle = salles.get(random.nextInt(salles.size()));
+        LocalDateTime start = slot(random);
+        if (random.nextInt(100) < BOOKING_PERCENT) {
+            return async.createReservation(newReservation(salle, utilisateur, start));
+        }
+        return async.isSalleAvailable(salle.getId(), start, start.plusHours(1));
+    }
+
+    private static LocalDateTime slot(Random random) {
+        return LocalDateTime.now().plusYears(3).withHour(8).withMinute(0).withSecond(0).withNano(0)
+                .plusDays(random.nextInt(60)).plusHours(random.nextInt(10));
+    }
+
+    private static Reservation newReservation(Salle salle, Utilisateur utilisateur, LocalDateTime start) {
+        Reservation reservation = new Reservation(start, start.plusHours(1), MOTIF);
+        reservation.setSalle(salle);
+        reservation.setUtilisateur(utilisateur);
+        return reservation;
+    }
+
+    private void startMeasure() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        PoolMetrics poolMetrics = ConnectionPools.metricsOf(emf);
+        if (poolMetrics != null) {
+            poolMetrics.reset();
+        }
+    }
+
+    private void report(String mode, long elapsedNanos, LatencyHistogram latencies, int errors) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        PoolMetrics poolMetrics = ConnectionPools.metricsOf(emf);
+        double seconds = elapsedNanos / 1e9;
+        System.out.println(String.format("%-10s | %9.2f | %10.0f | %9.2f | %9.2f | %9.2f | %7d | %11d | %16.3f",
+                mode, seconds, requests / seconds, latencies.percentileMillis(50), latencies.percentileMillis(99),
+                latencies.getMaxNanos() / 1e6, errors, threads.getPeakThreadCount(),
+                poolMetrics != null ? poolMetrics.getAcquisition().percentileMillis(99) : 0));
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evict(Reservation.class);
+    }
+
+    public static void main(String[] args) {
+        // Arguments : unité de persistance, nombre de requêtes simultanées
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new AsyncLoadBenchmark(emf, requests).runBenchmark();
+        } finally {
+            emf.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.test;
+
+import com.example.dto.AvailabilityProbe;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compare N appels isSalleAvailable à une seule vérification groupée checkAvailability,
+ * de 10 à 10 000 sondes (salle, créneau).
+ */
+public class AvailabilityBatchBenchmark {
+
+    private static final int[] PROBE_COUNTS = {10, 100, 1_000, 10_000};
+
+    private final EntityManagerFactory emf;
+
+    public AvailabilityBatchBenchmark(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void runBenchmark() {
+        System.out.println("\n=== BENCHMARK: VÉRIFICATION DE DISPONIBILITÉ GROUPÉE ===");
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            ReservationService reservationService = new ReservationServiceImpl(em, new ReservationRepositoryImpl(em));
+            List<Long> salleIds = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class).getResultList();
+            if (salleIds.isEmpty()) {
+                System.out.println("Aucune salle en base : initialisez d'abord les données de test.");
+                return;
+            }
+
+            // Chauffe : chargement des classes, cache de plans de requêtes
+            List<AvailabilityProbe> warmup = buildProbes(salleIds, 100, 0L);
+            runOneByOne(reservationService, warmup);
+            reservationService.checkAvailability(warmup);
+
+            System.out.println(String.format("%10s | %16s | %16s | %8s", "Sondes", "Unitaire (ms)", "Groupé (ms)", "Gain"));
+            for (int count : PROBE_COUNTS) {
+                List<AvailabilityProbe> probes = buildProbes(salleIds, count, count);
+
+                em.clear();
+                long start = System.nanoTime();
+                int availableOneByOne = runOneByOne(reservationService, probes);
+                long oneByOneNanos = System.nanoTime() - start;
+
+                em.clear();
+                start = System.nanoTime();
+                Map<AvailabilityProbe, Boolean> results = reservationService.checkAvailability(probes);
+                long batchNanos = System.nanoTime() - start;
+
+                int availableBatch = 0;
+                for (AvailabilityProbe probe : probes) {
+                    if (results.get(probe)) {
+                        availableBatch++;
+                    }
+                }
+                if (availableBatch != availableOneByOne) {
+                    System.err.println("Résultats divergents pour " + count + " sondes: unitaire=" +
+                            availableOneByOne + ", groupé=" + availableBatch);
+                }
+
+                System.out.println(String.format("%10d | %16.2f | %16.2f | %7.1fx",
+                        count, oneByOneNanos / 1e6, batchNanos / 1e6, (double) oneByOneNanos / batchNanos));
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    private int runOneByOne(ReservationService reservationService, List<AvailabilityProbe> probes) {
+        int available = 0;
+        for (AvailabilityProbe probe : probes) {
+            if (reservationService.isSalleAvailable(probe.getSalleId(), probe.getStart(), probe.getEnd())) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    private List<AvailabilityProbe> buildProbes(List<Long> salleIds, int count, long seed) {
+        // Grille salles x créneaux d'une heure sur les 90 prochains jours, reproductible
+        Random random = new Random(seed);
+        LocalDateTime origin = LocalDateTime.now().withHour(8).withMinute(0).withSecond(0).withNano(0);
+        List<AvailabilityProbe> probes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = origin.plusDays(random.nextInt(90)).plusHours(random.nextInt(10));
+            probes.add(new AvailabilityProbe(salleIds.get(i % salleIds.size()), start, start.plusHours(1)));
+        }
+        return probes;
+    }
+
+    public static void main(String[] args) {
+        // Unité de persistance en argument (ex: gestion-reservations pour MySQL), H2 en mémoire par défaut
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new AvailabilityBatchBenchmark(emf).runBenchmark();
+        } finally {
+            emf.close();
+        }
+    }
+}
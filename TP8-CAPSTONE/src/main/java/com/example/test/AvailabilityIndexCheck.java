@@ -0,0 +1,164 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.StatutReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationAvailabilityIndex;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index de disponibilité en mode VERIFY : aucune différence avec la requête JPQL après chargement
+ * puis après création, modification et suppression par le repository ; une modification par
+ * dirty checking, hors repository, laisse l'index périmé et l'écart doit être compté.
+ * Code de sortie 1 en cas d'échec.
+ */
+public class AvailabilityIndexCheck {
+
+    private static final String MOTIF = "CHECK-INDEX-DISPONIBILITE";
+
+    private final EntityManagerFactory emf;
+    private final ReservationAvailabilityIndex index =
+            new ReservationAvailabilityIndex(ReservationAvailabilityIndex.Mode.VERIFY);
+    private boolean success = true;
+
+    public AvailabilityIndexCheck(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public boolean runCheck() {
+        System.out.println("\n=== VÉRIFICATION: INDEX DE DISPONIBILITÉ (VERIFY) ===");
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            ReservationRepositoryImpl repository = new ReservationRepositoryImpl(em, index);
+            index.load(em);
+
+            // 1. Après chargement : chaque réservation confirmée et ses voisines immédiates
+            List<Reservation> confirmed = em.createQuery(
+                            "SELECT r FROM Reservation r WHERE r.statut = :statut", Reservation.class)
+                    .setParameter("statut", StatutReservation.CONFIRMEE)
+                    .getResultList();
+            for (Reservation reservation : confirmed) {
+                probeAround(repository, reservation.getSalle().getId(), reservation.getDateDebut(), reservation.getDateFin());
+            }
+            expect(confirmed.size() + " réservations confirmées chargées, aucun écart après chargement",
+                    index.size() == confirmed.size() && index.getMismatchCount() == 0);
+
+            Long salleId = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class)
+                    .setMaxResults(1)
+                    .getSingleResult();
+            Long utilisateurId = em.createQuery("SELECT u.id FROM Utilisateur u ORDER BY u.id", Long.class)
+                    .setMaxResults(1)
+                    .getSingleResult();
+            LocalDateTime start = LocalDateTime.now().plusYears(5).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+            // 2. Écritures par le repository : l'index suit la base
+            Reservation reservation = new Reservation(start, start.plusHours(2), MOTIF);
+            reservation.setSalle(em.getReference(Salle.class, salleId));
+            reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+            inTransaction(em, () -> repository.save(reservation));
+            probeAround(repository, salleId, reservation.getDateDebut(), reservation.getDateFin());
+
+            inTransaction(em, () -> {
+                reservation.setDateDebut(start.plusDays(1));
+                reservation.setDateFin(start.plusDays(1).plusHours(2));
+                repository.update(reservation);
+            });
+            probeAround(repository, salleId, start, start.plusHours(2));
+            probeAround(repository, salleId, reservation.getDateDebut(), reservation.getDateFin());
+
+            inTransaction(em, () -> {
+                reservation.setStatut(StatutReservation.ANNULEE);
+                repository.update(reservation);
+            });
+            probeAround(repository, salleId, reservation.getDateDebut(), reservation.getDateFin());
+            expect("création, modification et annulation par le repository : aucun écart",
+                    index.getMismatchCount() == 0);
+
+            // 3. Dirty checking hors repository : la base change, l'index non
+            inTransaction(em, () -> reservation.setStatut(StatutReservation.CONFIRMEE));
+            boolean available = repository.isSalleAvailable(salleId, reservation.getDateDebut(), reservation.getDateFin());
+            expect("modification hors repository : réponse JPQL retenue, écart compté (" + index.getMismatchCount() + ")",
+                    !available && index.getMismatchCount() > 0);
+
+            long mismatches = index.getMismatchCount();
+            Long id = reservation.getId();
+            inTransaction(em, () -> repository.delete(id));
+            probeAround(repository, salleId, reservation.getDateDebut(), reservation.getDateFin());
+            expect("suppression par le repository : index de nouveau cohérent",
+                    index.getMismatchCount() == mismatches);
+        } finally {
+            cleanUp(em);
+            em.close();
+        }
+
+        System.out.println(success ? "OK : index de disponibilité cohérent, écarts comptés"
+                : "ÉCHEC : index de disponibilité incohérent");
+        return success;
+    }
+
+    /** Le créneau lui-même, la veille, le lendemain et les heures qui le bordent */
+    private void probeAround(ReservationRepositoryImpl repository, Long salleId, LocalDateTime start, LocalDateTime end) {
+        repository.isSalleAvailable(salleId, start, end);
+        repository.isSalleAvailable(salleId, start.minusDays(1), end.minusDays(1));
+        repository.isSalleAvailable(salleId, start.plusDays(1), end.plusDays(1));
+        repository.isSalleAvailable(salleId, start.minusHours(1), start.minusMinutes(1));
+        repository.isSalleAvailable(salleId, end.plusMinutes(1), end.plusHours(1));
+        repository.isSalleAvailable(salleId, start.minusHours(1), start);
+    }
+
+    private void inTransaction(EntityManager em, Runnable work) {
+        try {
+            em.getTransaction().begin();
+            work.run();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+    }
+
+    private void cleanUp(EntityManager em) {
+        em.clear();
+        inTransaction(em, () -> em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                .setParameter("motif", MOTIF)
+                .executeUpdate());
+        emf.getCache().evict(Reservation.class);
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new AvailabilityIndexCheck(emf).runCheck();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.StatutReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.booking.BookingStrategies;
+import com.example.service.booking.BookingStrategy;
+import com.example.util.ConnectionPools;
+import com.example.util.DataInitializer;
+import com.example.util.PoolMetrics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réservations concurrentes sur quelques salles très demandées, pour chaque stratégie
+ * de contrôle des conflits et de 1 à 64 threads : débit (réservations/s) et nombre
+ * de doubles réservations constatées en base, avec l'attente au pool de connexions (p99)
+ * pour dimensionner db.pool.max-size.
+ */
+public class BookingConcurrencyBenchmark {
+
+    private static final String MOTIF = "BENCH-CONCURRENCE";
+    private static final String[] STRATEGIES = {
+            BookingStrategies.NONE, BookingStrategies.PESSIMISTIC,
+            BookingStrategies.STRIPED, BookingStrategies.OPTIMISTIC
+    };
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int ATTEMPTS_PER_THREAD = 20;
+    private static final int HOT_ROOMS = 3;
+    private static final int SLOTS_PER_ROOM = 40;
+
+    private final EntityManagerFactory emf;
+
+    public BookingConcurrencyBenchmark(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void runBenchmark() {
+        System.out.println("\n=== BENCHMARK: STRATÉGIES DE RÉSERVATION CONCURRENTE ===");
+
+        List<Long> salleIds;
+        Long utilisateurId;
+        EntityManager em = emf.createEntityManager();
+        try {
+            salleIds = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class)
+                    .setMaxResults(HOT_ROOMS)
+                    .getResultList();
+            List<Long> utilisateurIds = em.createQuery("SELECT u.id FROM Utilisateur u ORDER BY u.id", Long.class)
+                    .setMaxResults(1)
+                    .getResultList();
+            if (salleIds.isEmpty() || utilisateurIds.isEmpty()) {
+                System.out.println("Aucune salle ou aucun utilisateur : initialisez d'abord les données de test.");
+                return;
+            }
+            utilisateurId = utilisateurIds.get(0);
+        } finally {
+            em.close();
+        }
+
+        System.out.println(String.format("%-12s | %7s | %10s | %9s | %8s | %7s | %8s | %15s",
+                "Stratégie", "Threads", "Résa/s", "Acceptées", "Refusées", "Erreurs", "Doublons", "Attente p99 (ms)"));
+
+        for (String strategyName : STRATEGIES) {
+            for (int threads : THREAD_COUNTS) {
+                cleanUp();
+                runScenario(strategyName, threads, salleIds, utilisateurId);
+            }
+        }
+        cleanUp();
+
+        PoolMetrics poolMetrics = ConnectionPools.metricsOf(emf);
+        if (poolMetrics != null) {
+            System.out.println(poolMetrics);
+        }
+    }
+
+    private void runScenario(String strategyName, int threads, List<Long> salleIds, Long utilisateurId) {
+        // Une seule instance de stratégie partagée par tous les threads (verrous répartis)
+        BookingStrategy strategy = BookingStrategies.create(strategyName);
+        LocalDateTime origin = LocalDateTime.now().plusYears(5).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+        PoolMetrics poolMetrics = ConnectionPools.metricsOf(emf);
+        if (poolMetrics != null) {
+            poolMetrics.reset();
+        }
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final long seed = t;
+            executor.submit(() -> {
+                EntityManager em = emf.createEntityManager();
+                try {
+                    ReservationService service = new ReservationServiceImpl(em, new ReservationRepositoryImpl(em), strategy);
+                    Random random = new Random(seed);
+                    startSignal.await();
+
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        LocalDateTime start = origin.plusHours(random.nextInt(SLOTS_PER_ROOM) * 2L);
+                        Reservation reservation = new Reservation(start, start.plusHours(1), MOTIF);
+                        reservation.setSalle(em.getReference(Salle.class, salleIds.get(random.nextInt(salleIds.size()))));
+                        reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+                        try {
+                            if (service.createReservation(reservation)) {
+                                accepted.incrementAndGet();
+                            } else {
+                                rejected.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            // Interblocage, tentatives épuisées...
+                            errors.incrementAndGet();
+                            em.clear();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    em.close();
+                }
+            });
+        }
+
+        long startTime = System.nanoTime();
+        startSignal.countDown();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        double acquisitionP99 = poolMetrics != null ? poolMetrics.getAcquisition().percentileMillis(99) : 0;
+        System.out.println(String.format("%-12s | %7d | %10.1f | %9d | %8d | %7d | %8d | %15.3f",
+                strategyName, threads, accepted.get() / seconds, accepted.get(), rejected.get(),
+                errors.get(), countDoubleBookings(), acquisitionP99));
+    }
+
+    private long countDoubleBookings() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT COUNT(r1) FROM Reservation r1, Reservation r2 " +
+                                    "WHERE r1.salle = r2.salle AND r1.id < r2.id " +
+                                    "AND r1.motif = :motif AND r2.motif = :motif " +
+                                    "AND r1.statut = :statut AND r2.statut = :statut " +
+                                    "AND r1.dateDebut <= r2.dateFin AND r1.dateFin >= r2.dateDebut",
+                            Long.class)
+                    .setParameter("motif", MOTIF)
+                    .setParameter("statut", StatutReservation.CONFIRMEE)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evict(Reservation.class);
+    }
+
+    public static void main(String[] args) {
+        // Unité de persistance en argument (ex: gestion-reservations pour MySQL), H2 en mémoire par défaut
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new BookingConcurrencyBenchmark(emf).runBenchmark();
+        } finally {
+            emf.close();
+        }
+    }
+}
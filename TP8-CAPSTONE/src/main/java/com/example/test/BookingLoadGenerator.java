@@ -0,0 +1,547 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.StatutReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationFetch;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.SalleService;
+import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.service.booking.BookingStrategies;
+import com.example.service.booking.BookingStrategy;
+import com.example.service.booking.OptimisticRetryBookingStrategy;
+import com.example.util.AppConfig;
+import com.example.util.DataInitializer;
+import com.example.util.LatencyHistogram;
+import org.hibernate.StaleStateException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.OptimisticLockException;
+import javax.persistence.Persistence;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Générateur de charge "lundi matin" sur ReservationService et SalleService : recherches de salles
+ * disponibles, réservations, annulations et modifications sur les créneaux de 8 h à midi de la
+ * même semaine, avec une demande concentrée sur quelques salles (loi de Zipf sur les salles
+ * triées par id, la première étant la plus demandée).
+ *
+ * Deux modes d'arrivée (clés load.* de application.properties, surchargeables par -Dcle=valeur) :
+ * boucle fermée (load.arrival-rate=0, chaque thread enchaîne ses opérations) ou boucle ouverte
+ * (arrivées poissoniennes à load.arrival-rate opérations/s, servies par load.threads threads ; la
+ * latence part de l'instant d'arrivée prévu et compte donc l'attente dans la file).
+ *
+ * Toutes les load.report-interval-seconds secondes : débit, p50/p99, réservations acceptées et
+ * refusées, taux de conflits de version (commits refusés, tentatives rejouées par la stratégie
+ * optimiste comprises) et file d'attente ; puis un bilan par opération et le nombre de doubles
+ * réservations constatées en base.
+ */
+public class BookingLoadGenerator {
+
+    private static final String MOTIF = "LOAD-TEST";
+    private static final String MOTIF_MODIFIE = "LOAD-TEST modifiée";
+    // Réservations récentes parmi lesquelles les annulations et modifications choisissent leur cible
+    private static final int RECENT_CAPACITY = 1024;
+
+    enum Operation {
+        SEARCH("search", "Recherche"),
+        BOOK("book", "Réservation"),
+        CANCEL("cancel", "Annulation"),
+        UPDATE("update", "Modification");
+
+        private final String key;
+        private final String label;
+
+        Operation(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        static Operation parse(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equalsIgnoreCase(key.trim())) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Opération inconnue dans load.mix: " + key);
+        }
+    }
+
+    /** Tirage d'un rang (0 = le plus fréquent) selon une loi de Zipf ; exposant 0 : tirage uniforme */
+    static final class ZipfDistribution {
+        private final double[] cumulative;
+
+        ZipfDistribution(int size, double exponent) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("La loi de Zipf demande au moins un élément");
+            }
+            cumulative = new double[size];
+            double sum = 0;
+            for (int rank = 0; rank < size; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < size; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+
+        /** Part des tirages attendue pour ce rang */
+        double probability(int rank) {
+            return rank == 0 ? cumulative[0] : cumulative[rank] - cumulative[rank - 1];
+        }
+    }
+
+    /** Compteurs d'un intervalle de rapport, remplacés par un jeu neuf à chaque rapport */
+    private static final class Window {
+        final long startNanos = System.nanoTime();
+        final LatencyHistogram latencies = new LatencyHistogram();
+        final LongAdder operations = new LongAdder();
+        final LongAdder writes = new LongAdder();
+        final LongAdder accepted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final EntityManagerFactory emf;
+    private final int threads;
+    private final int durationSeconds;
+    private final double arrivalRate;
+    private final double zipfExponent;
+    private final int reportIntervalSeconds;
+    private final int days;
+    private final int slotsPerDay;
+    private final String strategyName;
+    private final Operation[] mix;
+
+    private final AtomicReference<Window> window = new AtomicReference<>(new Window());
+    private final LatencyHistogram[] totalLatencies = new LatencyHistogram[Operation.values().length];
+    private final LongAdder[] totalErrors = new LongAdder[Operation.values().length];
+    private final LongAdder totalAccepted = new LongAdder();
+    private final LongAdder totalRejected = new LongAdder();
+    private final LongAdder totalWrites = new LongAdder();
+    private final LongAdder totalConflicts = new LongAdder();
+    private final AtomicLongArray recentIds = new AtomicLongArray(RECENT_CAPACITY);
+    private final AtomicLong recentCount = new AtomicLong();
+
+    private BookingStrategy strategy;
+    private ReservationService reservationService;
+    private SalleService salleService;
+    private List<Salle> salles;
+    private List<Utilisateur> utilisateurs;
+    private ZipfDistribution salleDistribution;
+    private LocalDateTime origin;
+    // Conflits de la stratégie optimiste déjà attribués à un intervalle (thread de rapport uniquement)
+    private long reportedStrategyConflicts;
+
+    public BookingLoadGenerator(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.threads = AppConfig.getInt("load.threads", 16);
+        this.durationSeconds = AppConfig.getInt("load.duration-seconds", 30);
+        this.arrivalRate = AppConfig.getDouble("load.arrival-rate", 0);
+        this.zipfExponent = AppConfig.getDouble("load.zipf-exponent", 1.1);
+        this.reportIntervalSeconds = AppConfig.getInt("load.report-interval-seconds", 5);
+        this.days = AppConfig.getInt("load.days", 5);
+        this.slotsPerDay = AppConfig.getInt("load.slots-per-day", 4);
+        this.strategyName = AppConfig.get("load.booking.strategy",
+                AppConfig.get("reservation.booking.strategy", BookingStrategies.NONE));
+        this.mix = parseMix(AppConfig.get("load.mix", "search:50,book:30,cancel:10,update:10"));
+        for (int i = 0; i < totalLatencies.length; i++) {
+            totalLatencies[i] = new LatencyHistogram();
+            totalErrors[i] = new LongAdder();
+        }
+    }
+
+    public void run() {
+        System.out.println("\n=== GÉNÉRATEUR DE CHARGE: RÉSERVATIONS DU LUNDI MATIN ===");
+
+        // Entités détachées, référencées par les réservations créées depuis n'importe quel thread
+        EntityManager em = emf.createEntityManager();
+        try {
+            salles = em.createQuery("SELECT s FROM Salle s ORDER BY s.id", Salle.class).getResultList();
+            utilisateurs = em.createQuery("SELECT u FROM Utilisateur u ORDER BY u.id", Utilisateur.class).getResultList();
+        } finally {
+            em.close();
+        }
+        if (salles.isEmpty() || utilisateurs.isEmpty()) {
+            System.out.println("Aucune salle ou aucun utilisateur : initialisez d'abord les données de test.");
+            return;
+        }
+
+        strategy = BookingStrategies.create(strategyName);
+        UnitOfWork unitOfWork = new UnitOfWork(emf);
+        EntityManager contextual = unitOfWork.getEntityManager();
+        reservationService = unitOfWork.scoped(ReservationService.class,
+                new ReservationServiceImpl(contextual, new ReservationRepositoryImpl(contextual), strategy));
+        salleService = unitOfWork.scoped(SalleService.class,
+                new SalleServiceImpl(contextual, new SalleRepositoryImpl(contextual)));
+        salleDistribution = new ZipfDistribution(salles.size(), zipfExponent);
+        origin = LocalDate.now().plusYears(4).with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atTime(8, 0);
+
+        System.out.println(String.format("Threads: %d | Durée: %d s | Arrivées: %s | Stratégie: %s | Zipf s=%.2f "
+                        + "(salle la plus demandée: %.1f %% des opérations) | Créneaux: %d jours x %d h",
+                threads, durationSeconds, arrivalRate > 0 ? String.format("%.0f opér./s", arrivalRate) : "boucle fermée",
+                strategyName, zipfExponent, salleDistribution.probability(0) * 100, days, slotsPerDay));
+        System.out.println(String.format("%7s | %9s | %9s | %9s | %9s | %8s | %9s | %12s | %7s | %7s",
+                "t (s)", "Opér./s", "p50 (ms)", "p99 (ms)", "Acceptées", "Refusées", "Refus (%)",
+                "Conflits (%)", "Erreurs", "File"));
+
+        cleanUp();
+        if (arrivalRate > 0) {
+            runOpenLoop();
+        } else {
+            runClosedLoop();
+        }
+        printSummary();
+        cleanUp();
+    }
+
+    private void runClosedLoop() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ScheduledExecutorService reporter = startReporter(start, null);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    execute(nextOperation(random), System.nanoTime());
+                }
+            });
+        }
+        awaitTermination(workers);
+        stopReporter(reporter, start, null);
+    }
+
+    private void runOpenLoop() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>());
+        ScheduledExecutorService reporter = startReporter(start, workers);
+
+        // Arrivées poissoniennes : intervalles exponentiels de moyenne 1 / load.arrival-rate
+        Random random = new Random();
+        long nextArrival = start;
+        while (nextArrival < deadline) {
+            long delay = nextArrival - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            long scheduled = nextArrival;
+            Operation operation = nextOperation(random);
+            workers.execute(() -> execute(operation, scheduled));
+            nextArrival += (long) (-Math.log(1 - random.nextDouble()) * 1e9 / arrivalRate);
+        }
+        awaitTermination(workers);
+        stopReporter(reporter, start, workers);
+    }
+
+    private Operation nextOperation(Random random) {
+        return mix[random.nextInt(mix.length)];
+    }
+
+    /** Exécute une opération et l'enregistre, latence comptée depuis startNanos */
+    private void execute(Operation operation, long startNanos) {
+        Window current = window.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            switch (operation) {
+                case SEARCH:
+                    search(random);
+                    break;
+                case BOOK:
+                    book(random, current);
+                    break;
+                case CANCEL:
+                    cancel(random, current);
+                    break;
+                case UPDATE:
+                    update(random, current);
+                    break;
+            }
+        } catch (RuntimeException e) {
+            if (operation != Operation.BOOK && isOptimisticLockFailure(e)) {
+                // Version périmée : l'entité a changé depuis sa lecture, aucune écriture effectuée
+                current.conflicts.increment();
+                totalConflicts.increment();
+            } else {
+                // Tentatives épuisées, interblocage, délai d'attente du verrou...
+                current.errors.increment();
+                totalErrors[operation.ordinal()].increment();
+            }
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        current.latencies.record(elapsed);
+        current.operations.increment();
+        totalLatencies[operation.ordinal()].record(elapsed);
+    }
+
+    private void search(Random random) {
+        LocalDateTime start = randomSlot(random);
+        salleService.findAvailableRooms(start, start.plusMinutes(50));
+    }
+
+    private void book(Random random, Window current) {
+        LocalDateTime start = randomSlot(random);
+        Reservation reservation = new Reservation(start, start.plusMinutes(50), MOTIF);
+        reservation.setSalle(salles.get(salleDistribution.sample(random)));
+        reservation.setUtilisateur(utilisateurs.get(random.nextInt(utilisateurs.size())));
+        current.writes.increment();
+        totalWrites.increment();
+        if (reservationService.createReservation(reservation)) {
+            current.accepted.increment();
+            totalAccepted.increment();
+            recentIds.set((int) (recentCount.getAndIncrement() % RECENT_CAPACITY), reservation.getId());
+        } else {
+            current.rejected.increment();
+            totalRejected.increment();
+        }
+    }
+
+    private void cancel(Random random, Window current) {
+        Long id = randomRecentId(random);
+        if (id == null) {
+            // Aucune réservation créée pour l'instant : la demande devient une réservation
+            book(random, current);
+            return;
+        }
+        current.writes.increment();
+        totalWrites.increment();
+        reservationService.cancelReservation(id);
+    }
+
+    /** Lecture puis modification en deux unités de travail : un conflit de version est possible entre les deux */
+    private void update(Random random, Window current) {
+        Long id = randomRecentId(random);
+        if (id == null) {
+            book(random, current);
+            return;
+        }
+        Reservation reservation = reservationService.getReservationById(id, ReservationFetch.NONE);
+        if (reservation == null) {
+            return;
+        }
+        reservation.setMotif(MOTIF.equals(reservation.getMotif()) ? MOTIF_MODIFIE : MOTIF);
+        current.writes.increment();
+        totalWrites.increment();
+        reservationService.updateReservation(reservation);
+    }
+
+    private LocalDateTime randomSlot(Random random) {
+        return origin.plusDays(random.nextInt(days)).plusHours(random.nextInt(slotsPerDay));
+    }
+
+    private Long randomRecentId(Random random) {
+        int available = (int) Math.min(recentCount.get(), RECENT_CAPACITY);
+        if (available == 0) {
+            return null;
+        }
+        long id = recentIds.get(random.nextInt(available));
+        // Emplacement réservé mais pas encore rempli
+        return id != 0 ? id : null;
+    }
+
+    // Rapports périodiques
+
+    private ScheduledExecutorService startReporter(long start, ThreadPoolExecutor workers) {
+        reportedStrategyConflicts = strategyConflicts();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(() -> report(start, workers),
+                reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        return reporter;
+    }
+
+    private void stopReporter(ScheduledExecutorService reporter, long start, ThreadPoolExecutor workers) {
+        reporter.shutdown();
+        try {
+            reporter.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Dernier intervalle, incomplet
+        if (window.get().operations.sum() > 0) {
+            report(start, workers);
+        }
+    }
+
+    private void report(long start, ThreadPoolExecutor workers) {
+        Window finished = window.getAndSet(new Window());
+        long now = System.nanoTime();
+        double elapsed = (now - start) / 1e9;
+        double seconds = Math.max(1e-3, (now - finished.startNanos) / 1e9);
+
+        // Conflits de la stratégie optimiste : rejoués en interne, invisibles pour l'appelant
+        long strategyConflicts = strategyConflicts();
+        long retried = strategyConflicts - reportedStrategyConflicts;
+        reportedStrategyConflicts = strategyConflicts;
+        totalConflicts.add(retried);
+
+        long conflicts = finished.conflicts.sum() + retried;
+        long commits = finished.writes.sum() + retried;
+        long accepted = finished.accepted.sum();
+        long rejected = finished.rejected.sum();
+        System.out.println(String.format("%7.1f | %9.1f | %9.3f | %9.3f | %9d | %8d | %9.1f | %12.1f | %7d | %7d",
+                elapsed, finished.operations.sum() / seconds,
+                finished.latencies.percentileMillis(50), finished.latencies.percentileMillis(99),
+                accepted, rejected, percent(rejected, accepted + rejected), percent(conflicts, commits),
+                finished.errors.sum(), workers != null ? workers.getQueue().size() : 0));
+    }
+
+    private long strategyConflicts() {
+        return strategy instanceof OptimisticRetryBookingStrategy
+                ? ((OptimisticRetryBookingStrategy) strategy).getConflicts()
+                : 0;
+    }
+
+    private void printSummary() {
+        System.out.println("\n--- Bilan ---");
+        System.out.println(String.format("%-13s | %8s | %9s | %9s | %9s | %9s | %9s | %7s",
+                "Opération", "Nombre", "Opér./s", "p50 (ms)", "p90 (ms)", "p99 (ms)", "max (ms)", "Erreurs"));
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram latencies = totalLatencies[operation.ordinal()];
+            System.out.println(String.format("%-13s | %8d | %9.1f | %9.3f | %9.3f | %9.3f | %9.3f | %7d",
+                    operation.label, latencies.getCount(), latencies.getCount() / (double) durationSeconds,
+                    latencies.percentileMillis(50), latencies.percentileMillis(90), latencies.percentileMillis(99),
+                    latencies.getMaxNanos() / 1e6, totalErrors[operation.ordinal()].sum()));
+        }
+        long accepted = totalAccepted.sum();
+        long rejected = totalRejected.sum();
+        long conflicts = totalConflicts.sum();
+        System.out.println(String.format("Réservations acceptées: %d, refusées: %d (%.1f %%)",
+                accepted, rejected, percent(rejected, accepted + rejected)));
+        System.out.println(String.format("Conflits de version: %d (%.1f %% des commits en écriture)",
+                conflicts, percent(conflicts, totalWrites.sum() + strategyConflicts())));
+        System.out.println("Doubles réservations en base: " + countDoubleBookings());
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    private long countDoubleBookings() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT COUNT(r1) FROM Reservation r1, Reservation r2 " +
+                                    "WHERE r1.salle = r2.salle AND r1.id < r2.id " +
+                                    "AND r1.motif IN :motifs AND r2.motif IN :motifs " +
+                                    "AND r1.statut = :statut AND r2.statut = :statut " +
+                                    "AND r1.dateDebut <= r2.dateFin AND r1.dateFin >= r2.dateDebut",
+                            Long.class)
+                    .setParameter("motifs", Arrays.asList(MOTIF, MOTIF_MODIFIE))
+                    .setParameter("statut", StatutReservation.CONFIRMEE)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void awaitTermination(ExecutorService workers) {
+        workers.shutdown();
+        try {
+            // Boucle ouverte : la file restante est servie, dans une limite raisonnable
+            if (!workers.awaitTermination(2, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockException
+                    || cause instanceof StaleStateException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** "search:50,book:30,..." : tableau de 100 cases (ou de la somme des poids) pour un tirage direct */
+    private static Operation[] parseMix(String value) {
+        Operation[] weighted = new Operation[0];
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Entrée invalide dans load.mix: " + entry);
+            }
+            Operation operation = Operation.parse(parts[0]);
+            int weight = Integer.parseInt(parts[1].trim());
+            int from = weighted.length;
+            weighted = Arrays.copyOf(weighted, from + weight);
+            Arrays.fill(weighted, from, weighted.length, operation);
+        }
+        if (weighted.length == 0) {
+            throw new IllegalArgumentException("load.mix ne contient aucune opération");
+        }
+        return weighted;
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif IN :motifs")
+                    .setParameter("motifs", Arrays.asList(MOTIF, MOTIF_MODIFIE))
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evict(Reservation.class);
+    }
+
+    public static void main(String[] args) {
+        // Argument : unité de persistance, par défaut la base H2 en mémoire du processus
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit,
+                Collections.singletonMap("hibernate.show_sql", "false"));
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new BookingLoadGenerator(emf).run();
+        } finally {
+            emf.close();
+        }
+    }
+}
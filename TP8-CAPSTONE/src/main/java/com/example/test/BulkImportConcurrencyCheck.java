@@ -0,0 +1,197 @@
+package com.example.test;
+
+import com.example.dto.BulkImportReport;
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.StatutReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.booking.BookingStrategies;
+import com.example.service.booking.BookingStrategy;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports en masse concurrents (createReservations) sur quelques salles très demandées, pour chaque
+ * stratégie de contrôle des conflits : avec les stratégies pessimiste, striped et optimiste, aucune
+ * double réservation ne doit apparaître en base. Code de sortie 1 en cas d'échec.
+ */
+public class BulkImportConcurrencyCheck {
+
+    private static final String MOTIF = "CHECK-IMPORT-CONCURRENT";
+    private static final String[] STRATEGIES = {
+            BookingStrategies.PESSIMISTIC, BookingStrategies.STRIPED, BookingStrategies.OPTIMISTIC
+    };
+    private static final int THREADS = 8;
+    private static final int IMPORTS_PER_THREAD = 10;
+    private static final int RESERVATIONS_PER_IMPORT = 6;
+    private static final int HOT_ROOMS = 3;
+    private static final int SLOTS_PER_ROOM = 30;
+
+    private final EntityManagerFactory emf;
+    private boolean success = true;
+
+    public BulkImportConcurrencyCheck(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public boolean runCheck() {
+        System.out.println("\n=== VÉRIFICATION: IMPORTS EN MASSE CONCURRENTS ===");
+
+        List<Long> salleIds;
+        Long utilisateurId;
+        EntityManager em = emf.createEntityManager();
+        try {
+            salleIds = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class)
+                    .setMaxResults(HOT_ROOMS)
+                    .getResultList();
+            utilisateurId = em.createQuery("SELECT u.id FROM Utilisateur u ORDER BY u.id", Long.class)
+                    .setMaxResults(1)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+
+        for (String strategyName : STRATEGIES) {
+            cleanUp();
+            runScenario(strategyName, salleIds, utilisateurId);
+        }
+        cleanUp();
+
+        System.out.println(success ? "OK : aucun import concurrent ne provoque de double réservation"
+                : "ÉCHEC : double réservation par import en masse");
+        return success;
+    }
+
+    private void runScenario(String strategyName, List<Long> salleIds, Long utilisateurId) {
+        BookingStrategy strategy = BookingStrategies.create(strategyName);
+        LocalDateTime origin = LocalDateTime.now().plusYears(5).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            final long seed = t;
+            executor.submit(() -> {
+                EntityManager em = emf.createEntityManager();
+                try {
+                    ReservationService service = new ReservationServiceImpl(em, new ReservationRepositoryImpl(em), strategy);
+                    Random random = new Random(seed);
+                    startSignal.await();
+
+                    for (int i = 0; i < IMPORTS_PER_THREAD; i++) {
+                        List<Reservation> batch = new ArrayList<>();
+                        for (int j = 0; j < RESERVATIONS_PER_IMPORT; j++) {
+                            LocalDateTime start = origin.plusHours(random.nextInt(SLOTS_PER_ROOM) * 2L);
+                            Reservation reservation = new Reservation(start, start.plusHours(1), MOTIF);
+                            reservation.setSalle(em.getReference(Salle.class, salleIds.get(random.nextInt(salleIds.size()))));
+                            reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+                            batch.add(reservation);
+                        }
+                        try {
+                            BulkImportReport report = service.createReservations(batch);
+                            accepted.addAndGet(report.getAcceptedCount());
+                        } catch (RuntimeException e) {
+                            // Interblocage, tentatives épuisées...
+                            errors.incrementAndGet();
+                            em.clear();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    em.close();
+                }
+            });
+        }
+
+        startSignal.countDown();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long doubleBookings = countDoubleBookings();
+        expect(String.format("%-12s acceptées: %3d, erreurs: %2d, doublons: %d",
+                strategyName, accepted.get(), errors.get(), doubleBookings), doubleBookings == 0 && accepted.get() > 0);
+    }
+
+    private long countDoubleBookings() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery(
+                            "SELECT COUNT(r1) FROM Reservation r1, Reservation r2 " +
+                                    "WHERE r1.salle = r2.salle AND r1.id < r2.id " +
+                                    "AND r1.motif = :motif AND r2.motif = :motif " +
+                                    "AND r1.statut = :statut AND r2.statut = :statut " +
+                                    "AND r1.dateDebut <= r2.dateFin AND r1.dateFin >= r2.dateDebut",
+                            Long.class)
+                    .setParameter("motif", MOTIF)
+                    .setParameter("statut", StatutReservation.CONFIRMEE)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evict(Reservation.class);
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            new DataInitializer(emf).initializeData();
+            success = new BulkImportConcurrencyCheck(emf).runCheck();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationFetch;
+import com.example.repository.ReservationRepository;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.util.DataInitializer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Nombre d'instructions SQL d'une liste de réservations affichée (nom de la salle et de
+ * l'utilisateur) selon le chargement demandé : constant (une seule requête) avec un graphe
+ * d'entités quelle que soit la taille du résultat, borné par le chargement par lots (@BatchSize)
+ * sans graphe. Vérifie aussi findById avec un profil de chargement. Cache L2 vidé avant chaque
+ * mesure. Code de sortie 1 en cas d'échec.
+ */
+public class FetchStatementCountCheck {
+
+    private static final String MOTIF = "CHECK-FETCH";
+    private static final int RESERVATIONS = 1_000;
+    // Salles et utilisateurs dédiés : le nombre d'associations distinctes croît avec le résultat
+    private static final int DISTINCT_ASSOCIATIONS = 100;
+    private static final int BATCH_SIZE = 25;
+    private static final int[] RESULT_SIZES = {10, 100, 1_000};
+
+    private final EntityManagerFactory emf;
+    private final Statistics statistics;
+    private long sink;
+    private boolean success = true;
+
+    public FetchStatementCountCheck(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    public boolean runCheck() {
+        System.out.println("\n=== VÉRIFICATION: REQUÊTES N+1 SUR LES LISTES DE RÉSERVATIONS ===");
+        cleanUp();
+        LocalDateTime origin = seed();
+
+        System.out.println(String.format("%-20s | %8s | %12s", "Chargement", "Lignes", "Instructions"));
+        for (int size : RESULT_SIZES) {
+            LocalDateTime end = origin.plusHours(size - 1).plusMinutes(30);
+            for (ReservationFetch fetch : ReservationFetch.values()) {
+                long[] measured = countStatements(repository -> repository.findByDateRange(origin, end, fetch));
+                System.out.println(String.format("%-20s | %8d | %12d", fetch, measured[0], measured[1]));
+                success &= measured[0] == size;
+                success &= measured[1] <= expectedStatements(fetch, size);
+            }
+        }
+        long[] defaultFetch = countStatements(repository ->
+                repository.findByDateRange(origin, origin.plusHours(RESERVATIONS - 1).plusMinutes(30)));
+        expect("liste par défaut : salle et utilisateur paresseux, chargés par lots (" + defaultFetch[1] + " instructions)",
+                defaultFetch[1] > 1 && defaultFetch[1] <= expectedStatements(ReservationFetch.NONE, RESERVATIONS));
+
+        // Profil de chargement sur findById : salle et utilisateur initialisés par le même SELECT
+        Long id = firstSeededId();
+        EntityManager em = emf.createEntityManager();
+        try {
+            emf.getCache().evictAll();
+            statistics.clear();
+            Reservation reservation = new ReservationRepositoryImpl(em).findById(id, ReservationFetch.SALLE_UTILISATEUR);
+            boolean loaded = emf.getPersistenceUnitUtil().isLoaded(reservation, "salle")
+                    && emf.getPersistenceUnitUtil().isLoaded(reservation, "utilisateur");
+            expect("findById + profil : associations chargées en " + statistics.getPrepareStatementCount()
+                    + " instruction", loaded && statistics.getPrepareStatementCount() == 1);
+        } finally {
+            em.close();
+        }
+
+        cleanUp();
+        System.out.println(success ? "OK : nombre d'instructions indépendant de la taille du résultat"
+                : "ÉCHEC : requêtes N+1");
+        return success;
+    }
+
+    /**
+     * Borne attendue : une requête pour la liste, plus un SELECT ... IN par lot de BATCH_SIZE
+     * salles ou utilisateurs distincts restés paresseux
+     */
+    private static long expectedStatements(ReservationFetch fetch, int size) {
+        long batches = (Math.min(size, DISTINCT_ASSOCIATIONS) + BATCH_SIZE - 1) / BATCH_SIZE;
+        long statements = 1;
+        if (fetch == ReservationFetch.NONE || fetch == ReservationFetch.UTILISATEUR) {
+            statements += batches;
+        }
+        if (fetch == ReservationFetch.NONE || fetch == ReservationFetch.SALLE) {
+            statements += batches;
+        }
+        return statements;
+    }
+
+    /** Lignes lues et instructions préparées, lecture et affichage compris, dans un EntityManager neuf */
+    private long[] countStatements(Function<ReservationRepository, List<Reservation>> read) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            emf.getCache().evictAll();
+            statistics.clear();
+            List<Reservation> reservations = read.apply(new ReservationRepositoryImpl(em));
+            for (Reservation reservation : reservations) {
+                sink += reservation.getSalle().getNom().length() + reservation.getUtilisateur().getNom().length();
+            }
+            return new long[]{reservations.size(), statistics.getPrepareStatementCount()};
+        } finally {
+            em.close();
+        }
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    /** Une réservation par heure à partir de la date d'origine renvoyée, salles et utilisateurs en rotation */
+    private LocalDateTime seed() {
+        LocalDateTime origin = LocalDateTime.now().plusYears(7).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<Salle> salles = new ArrayList<>();
+            List<Utilisateur> utilisateurs = new ArrayList<>();
+            for (int i = 0; i < DISTINCT_ASSOCIATIONS; i++) {
+                Salle salle = new Salle(MOTIF + " salle " + i, 10);
+                em.persist(salle);
+                salles.add(salle);
+                Utilisateur utilisateur = new Utilisateur(MOTIF + " " + i, "Test", "check.fetch." + i + "@example.com");
+                em.persist(utilisateur);
+                utilisateurs.add(utilisateur);
+            }
+            for (int i = 0; i < RESERVATIONS; i++) {
+                LocalDateTime start = origin.plusHours(i);
+                Reservation reservation = new Reservation(start, start.plusMinutes(50), MOTIF);
+                reservation.setSalle(salles.get(i % DISTINCT_ASSOCIATIONS));
+                reservation.setUtilisateur(utilisateurs.get(i % DISTINCT_ASSOCIATIONS));
+                em.persist(reservation);
+            }
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        return origin;
+    }
+
+    private Long firstSeededId() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT MIN(r.id) FROM Reservation r WHERE r.motif = :motif", Long.class)
+                    .setParameter("motif", MOTIF)
+                    .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.createQuery("DELETE FROM Salle s WHERE s.nom LIKE :prefix")
+                    .setParameter("prefix", MOTIF + " salle %")
+                    .executeUpdate();
+            em.createQuery("DELETE FROM Utilisateur u WHERE u.email LIKE :prefix")
+                    .setParameter("prefix", "check.fetch.%")
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evictAll();
+    }
+
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new FetchStatementCountCheck(emf).runCheck();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
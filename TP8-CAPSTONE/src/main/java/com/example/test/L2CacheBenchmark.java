@@ -0,0 +1,258 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.util.DataInitializer;
+import com.example.util.L2CacheProvider;
+import com.example.util.LatencyHistogram;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cache L2 des réservations avec un million d'entrées : Ehcache 2 (tas seul, borné en entrées)
+ * contre Ehcache 3 via JCache (tas + hors tas, borné en Mo, voir ehcache3.xml). Pour chaque
+ * fournisseur : taux de succès de la région Reservation sur des em.find aléatoires, pauses GC
+ * (nombre, cumul, p99, max) pendant le chargement et la mesure, tas retenu en fin de mesure.
+ *
+ * Le million d'entrées demande de la mémoire : lancer avec par exemple
+ * -Xmx1536m -XX:MaxDirectMemorySize=2560m (l'étage hors tas de Reservation fait 2,25 Go).
+ * Sous H2 en mémoire, la base elle-même occupe le tas (environ 500 Mo) et un échec de cache ne
+ * coûte qu'une lecture locale : sous MySQL, chaque échec est un aller-retour réseau. Le dimensionnement
+ * en Mo de l'étage tas mesure les objets par réflexion : sous Java 17, ajouter
+ * --add-opens java.base/java.lang=ALL-UNNAMED --add-opens java.base/java.time=ALL-UNNAMED.
+ */
+public class L2CacheBenchmark {
+
+    private static final String REGION = Reservation.class.getName();
+    private static final String MOTIF = "BENCH-L2";
+    private static final int INSERT_BATCH = 5_000;
+    private static final int LOAD_PAGE = 10_000;
+    private static final int FINDS_PER_ENTITY_MANAGER = 1_000;
+
+    private final EntityManagerFactory emf;
+    private final String mode;
+    private final int lookups;
+    private final List<Long> ids = new ArrayList<>();
+
+    public L2CacheBenchmark(EntityManagerFactory emf, String mode, int lookups) {
+        this.emf = emf;
+        this.mode = mode;
+        this.lookups = lookups;
+    }
+
+    /** Insère les réservations en JDBC par lots, hors contexte de persistance et hors cache */
+    public void seed(int reservations) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Long salleId = em.createQuery("SELECT MIN(s.id) FROM Salle s", Long.class).getSingleResult();
+            Long utilisateurId = em.createQuery("SELECT MIN(u.id) FROM Utilisateur u", Long.class).getSingleResult();
+            LocalDateTime origin = LocalDateTime.now().plusYears(10).withHour(8).withMinute(0).withSecond(0).withNano(0);
+            em.getTransaction().begin();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO reservations (id, date_debut, date_fin, motif, statut, salle_id, utilisateur_id, version)"
+                                + " VALUES (?, ?, ?, ?, 'CONFIRMEE', ?, ?, 0)")) {
+                    for (int i = 0; i < reservations; i++) {
+                        LocalDateTime start = origin.plusHours(i);
+                        statement.setLong(1, 1_000_000_000L + i);
+                        statement.setTimestamp(2, Timestamp.valueOf(start));
+                        statement.setTimestamp(3, Timestamp.valueOf(start.plusMinutes(30)));
+                        statement.setString(4, MOTIF + " #" + i);
+                        statement.setLong(5, salleId);
+                        statement.setLong(6, utilisateurId);
+                        statement.addBatch();
+                        if ((i + 1) % INSERT_BATCH == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            });
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    public void runBenchmark() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        try (GcPauses loadPauses = new GcPauses()) {
+            long start = System.nanoTime();
+            loadAll();
+            System.out.println(String.format("[%s] %d réservations chargées dans le cache en %.1f s, pauses GC : %s",
+                    mode, ids.size(), (System.nanoTime() - start) / 1e9, loadPauses));
+        }
+        if (ids.isEmpty()) {
+            System.out.println("Aucune réservation : rien à mesurer.");
+            return;
+        }
+
+        statistics.clear();
+        Random random = new Random(42);
+        LatencyHistogram latencies = new LatencyHistogram();
+        LatencyHistogram gcPauses;
+        double seconds;
+        try (GcPauses pauses = new GcPauses()) {
+            long start = System.nanoTime();
+            EntityManager em = null;
+            try {
+                for (int i = 0; i < lookups; i++) {
+                    if (i % FINDS_PER_ENTITY_MANAGER == 0) {
+                        if (em != null) {
+                            em.close();
+                        }
+                        em = emf.createEntityManager();
+                    }
+                    long lookupStart = System.nanoTime();
+                    em.find(Reservation.class, ids.get(random.nextInt(ids.size())));
+                    latencies.record(System.nanoTime() - lookupStart);
+                }
+            } finally {
+                if (em != null) {
+                    em.close();
+                }
+            }
+            seconds = (System.nanoTime() - start) / 1e9;
+            gcPauses = pauses.getPauses();
+        }
+
+        // Tas réellement retenu (cache compris) : mesuré après collecte, hors fenêtre de mesure des pauses
+        System.gc();
+        long retainedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(REGION);
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        System.out.println(String.format("%-9s | %10s | %8s | %9s | %9s | %8s | %10s | %14s | %14s | %13s",
+                "Mode", "Lectures/s", "Taux L2", "p50 (µs)", "p99 (µs)", "Pauses GC", "Cumul (ms)",
+                "Pause p99 (ms)", "Pause max (ms)", "Tas retenu (Mo)"));
+        System.out.println(String.format("%-9s | %10.0f | %7.1f%% | %9.1f | %9.1f | %8d | %10.0f | %14.1f | %14.1f | %13d",
+                mode, lookups / seconds, hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses),
+                latencies.percentile(50) / 1e3, latencies.percentile(99) / 1e3, gcPauses.getCount(),
+                gcPauses.getTotalNanos() / 1e6, gcPauses.percentileMillis(99), gcPauses.getMaxNanos() / 1e6,
+                retainedHeap / (1024 * 1024)));
+    }
+
+    /** Lecture de toutes les réservations par pages : chaque entité lue est placée dans le cache L2 */
+    private void loadAll() {
+        long lastId = 0;
+        while (true) {
+            EntityManager em = emf.createEntityManager();
+            try {
+                List<Reservation> page = em.createQuery(
+                                "SELECT r FROM Reservation r WHERE r.id > :lastId ORDER BY r.id", Reservation.class)
+                        .setParameter("lastId", lastId)
+                        .setMaxResults(LOAD_PAGE)
+                        .getResultList();
+                if (page.isEmpty()) {
+                    return;
+                }
+                for (Reservation reservation : page) {
+                    ids.add(reservation.getId());
+                }
+                lastId = page.get(page.size() - 1).getId();
+            } finally {
+                em.close();
+            }
+        }
+    }
+
+    /** Pauses des collecteurs (hors cycles concurrents) notifiées pendant la durée de vie de l'objet */
+    private static final class GcPauses implements NotificationListener, AutoCloseable {
+
+        private final LatencyHistogram pauses = new LatencyHistogram();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+        GcPauses() {
+            System.gc();
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                if (collector instanceof NotificationEmitter && !collector.getName().contains("Concurrent")) {
+                    ((NotificationEmitter) collector).addNotificationListener(this, null, null);
+                    emitters.add((NotificationEmitter) collector);
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                pauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+            }
+        }
+
+        LatencyHistogram getPauses() {
+            return pauses;
+        }
+
+        @Override
+        public void close() {
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException e) {
+                    // Déjà retiré
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d, cumul %.0f ms, max %.1f ms", pauses.getCount(),
+                    pauses.getTotalNanos() / 1e6, pauses.getMaxNanos() / 1e6);
+        }
+    }
+
+    public static void main(String[] args) {
+        // Arguments : unité de persistance, réservations insérées (H2), lectures mesurées, fournisseurs
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        int reservations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 500_000;
+        String[] modes = args.length > 3 ? args[3].split(",")
+                : new String[]{L2CacheProvider.EHCACHE2, L2CacheProvider.JCACHE};
+
+        System.out.println("\n=== BENCHMARK: CACHE L2 DES RÉSERVATIONS ===");
+        for (String mode : modes) {
+            Map<String, Object> properties = L2CacheProvider.overrides(mode);
+            properties.put("hibernate.generate_statistics", "true");
+            properties.put("hibernate.show_sql", "false");
+            EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+            try {
+                L2CacheBenchmark benchmark = new L2CacheBenchmark(emf, mode, lookups);
+                if (persistenceUnit.endsWith("-h2")) {
+                    new DataInitializer(emf).initializeData();
+                    benchmark.seed(reservations);
+                }
+                benchmark.runBenchmark();
+            } finally {
+                emf.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.service.ReservationServiceImpl;
+import com.example.util.DataInitializer;
+import com.example.util.PageCursor;
+import com.example.util.PaginationResult;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Latence de la première page et d'une page profonde (10 000 par défaut) des réservations,
+ * en pagination OFFSET et en pagination par clé (keyset).
+ */
+public class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int DEEP_PAGE = 10_000;
+    private static final int ITERATIONS = 20;
+
+    private final EntityManagerFactory emf;
+
+    public PaginationBenchmark(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void runBenchmark() {
+        System.out.println("\n=== BENCHMARK: PAGINATION OFFSET / KEYSET ===");
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            ReservationServiceImpl service = new ReservationServiceImpl(em, new ReservationRepositoryImpl(em));
+            long total = em.createQuery("SELECT COUNT(r) FROM Reservation r", Long.class).getSingleResult();
+            int lastPage = (int) Math.max(1, (total + PAGE_SIZE - 1) / PAGE_SIZE);
+            int deepPage = Math.min(DEEP_PAGE, lastPage);
+            if (deepPage < DEEP_PAGE) {
+                System.out.println("Seulement " + total + " réservations : page profonde ramenée à " + deepPage);
+            }
+
+            // Jeton keyset désignant la fin de la page précédant la page profonde (préparation, non mesurée)
+            String deepCursor = null;
+            if (deepPage > 1) {
+                Object[] key = em.createQuery("SELECT r.dateDebut, r.id FROM Reservation r ORDER BY r.dateDebut, r.id", Object[].class)
+                        .setFirstResult((deepPage - 1) * PAGE_SIZE - 1)
+                        .setMaxResults(1)
+                        .getSingleResult();
+                deepCursor = PageCursor.encode((LocalDateTime) key[0], (Long) key[1]);
+            }
+
+            System.out.println(String.format("%-8s | %10s | %14s", "Mode", "Page", "Moyenne (ms)"));
+            report("OFFSET", 1, measure(em, () -> offsetPage(em, 1)));
+            report("OFFSET", deepPage, measure(em, () -> offsetPage(em, deepPage)));
+            report("KEYSET", 1, measure(em, () -> service.getReservationsPage(null, PAGE_SIZE).getItems()));
+            final String cursor = deepCursor;
+            report("KEYSET", deepPage, measure(em, () -> {
+                PaginationResult<Reservation> page = service.getReservationsPage(cursor, PAGE_SIZE);
+                return page.getItems();
+            }));
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<Reservation> offsetPage(EntityManager em, int page) {
+        // Même ordre que le mode keyset, pour une comparaison à résultat identique
+        return em.createQuery("SELECT r FROM Reservation r ORDER BY r.dateDebut, r.id", Reservation.class)
+                .setFirstResult((page - 1) * PAGE_SIZE)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList();
+    }
+
+    private double measure(EntityManager em, Supplier<List<Reservation>> pageLoader) {
+        // Chauffe
+        for (int i = 0; i < 3; i++) {
+            pageLoader.get();
+            em.clear();
+        }
+        long total = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            pageLoader.get();
+            total += System.nanoTime() - start;
+            em.clear();
+        }
+        return total / 1e6 / ITERATIONS;
+    }
+
+    private void report(String mode, int page, double averageMillis) {
+        System.out.println(String.format("%-8s | %10d | %14.3f", mode, page, averageMillis));
+    }
+
+    public static void main(String[] args) {
+        // Unité de persistance en argument (ex: gestion-reservations pour MySQL), H2 en mémoire par défaut
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new PaginationBenchmark(emf).runBenchmark();
+        } finally {
+            emf.close();
+        }
+    }
+}
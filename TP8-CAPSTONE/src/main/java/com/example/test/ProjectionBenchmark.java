@@ -0,0 +1,262 @@
+package com.example.test;
+
+import com.example.dto.ReservationSummary;
+import com.example.dto.SalleSummary;
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.StatutReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationFetch;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.SalleService;
+import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Listes d'entités contre projections DTO (ReservationSummary, SalleSummary) sur les lectures
+ * findBy*, findAvailableRooms et getPaginatedRooms. Chaque appel affiche les mêmes colonnes
+ * (nom de la salle, nom de l'utilisateur, dates) : côté entités, cela inclut le chargement des
+ * associations paresseuses. Temps et octets alloués par appel, résultats comparés.
+ */
+public class ProjectionBenchmark {
+
+    private static final String MOTIF = "BENCH-PROJECTION";
+    private static final int RESERVATIONS = 5_000;
+    private static final int ITERATIONS = 200;
+
+    /** Une lecture, côté entités et côté projection : chacun renvoie les identifiants affichés */
+    private static final class Case {
+        final String name;
+        final Supplier<List<Long>> entities;
+        final Supplier<List<Long>> summaries;
+
+        Case(String name, Supplier<List<Long>> entities, Supplier<List<Long>> summaries) {
+            this.name = name;
+            this.entities = entities;
+            this.summaries = summaries;
+        }
+    }
+
+    private final EntityManagerFactory emf;
+    private final UnitOfWork unitOfWork;
+    private final SalleService salleService;
+    private final ReservationService reservationService;
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    // Empêche l'élimination des lectures de colonnes
+    private long sink;
+    private boolean success = true;
+
+    public ProjectionBenchmark(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.unitOfWork = new UnitOfWork(emf);
+        EntityManager em = unitOfWork.getEntityManager();
+        this.salleService = unitOfWork.scoped(SalleService.class,
+                new SalleServiceImpl(em, new SalleRepositoryImpl(em)));
+        this.reservationService = unitOfWork.scoped(ReservationService.class,
+                new ReservationServiceImpl(em, new ReservationRepositoryImpl(em)));
+    }
+
+    public boolean runBenchmark() {
+        System.out.println("\n=== BENCHMARK: PROJECTIONS DTO CONTRE ENTITÉS ===");
+        cleanUp();
+        LocalDateTime origin = seed();
+        if (origin == null) {
+            return false;
+        }
+        Long salleId = salleService.getPaginatedRooms(1, 1).get(0).getId();
+        Long utilisateurId = reservationService.getReservationsBySalle(salleId).get(0).getUtilisateur().getId();
+        LocalDateTime rangeStart = origin.plusDays(30);
+        LocalDateTime rangeEnd = rangeStart.plusDays(30);
+        LocalDateTime slot = origin.plusDays(1);
+
+        // Entités : salle et utilisateur affichés, donc joints à la requête comme pour un écran
+        ReservationFetch fetch = ReservationFetch.SALLE_UTILISATEUR;
+        List<Case> cases = new ArrayList<>();
+        cases.add(new Case("Par utilisateur",
+                () -> displayReservations(reservationService.getReservationsByUtilisateur(utilisateurId, fetch)),
+                () -> displaySummaries(reservationService.getReservationSummariesByUtilisateur(utilisateurId))));
+        cases.add(new Case("Par salle",
+                () -> displayReservations(reservationService.getReservationsBySalle(salleId, fetch)),
+                () -> displaySummaries(reservationService.getReservationSummariesBySalle(salleId))));
+        cases.add(new Case("Par plage de dates",
+                () -> displayReservations(reservationService.getReservationsByDateRange(rangeStart, rangeEnd, fetch)),
+                () -> displaySummaries(reservationService.getReservationSummariesByDateRange(rangeStart, rangeEnd))));
+        cases.add(new Case("Par statut",
+                () -> displayReservations(reservationService.getReservationsByStatut(StatutReservation.CONFIRMEE, fetch)),
+                () -> displaySummaries(reservationService.getReservationSummariesByStatut(StatutReservation.CONFIRMEE))));
+        cases.add(new Case("Salles disponibles",
+                () -> displaySalles(salleService.findAvailableRooms(slot, slot.plusHours(1))),
+                () -> displaySalleSummaries(salleService.findAvailableRoomSummaries(slot, slot.plusHours(1)))));
+        cases.add(new Case("Page de salles",
+                () -> displaySalles(salleService.getPaginatedRooms(1, 10)),
+                () -> displaySalleSummaries(salleService.getPaginatedRoomSummaries(1, 10))));
+
+        System.out.println(String.format("%-20s | %7s | %13s | %13s | %13s | %13s | %7s",
+                "Lecture", "Lignes", "Entités (µs)", "DTO (µs)", "Entités (Ko)", "DTO (Ko)", "Gain"));
+        for (Case benchmarkCase : cases) {
+            List<Long> expected = unitOfWork.call(benchmarkCase.entities);
+            boolean same = expected.equals(unitOfWork.call(benchmarkCase.summaries));
+            // Premier passage : chauffe
+            measure(benchmarkCase.entities);
+            measure(benchmarkCase.summaries);
+            long[] entities = measure(benchmarkCase.entities);
+            long[] summaries = measure(benchmarkCase.summaries);
+            System.out.println(String.format("%-20s | %7d | %13.1f | %13.1f | %13.1f | %13.1f | %6.1fx%s",
+                    benchmarkCase.name, expected.size(),
+                    entities[0] / 1e3 / ITERATIONS, summaries[0] / 1e3 / ITERATIONS,
+                    entities[1] / 1024.0 / ITERATIONS, summaries[1] / 1024.0 / ITERATIONS,
+                    (double) entities[0] / Math.max(1, summaries[0]), same ? "" : "  ÉCART"));
+            success &= same;
+        }
+
+        cleanUp();
+        System.out.println(success ? "OK : projections identiques aux entités" : "ÉCHEC : résultats différents");
+        return success;
+    }
+
+    /**
+     * Durée totale et octets alloués par le thread courant pour ITERATIONS appels, chacun dans sa
+     * propre unité de travail (comme une requête utilisateur : lecture puis affichage)
+     */
+    private long[] measure(Supplier<List<Long>> call) {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += unitOfWork.call(call).size();
+        }
+        return new long[]{System.nanoTime() - start, threads.getThreadAllocatedBytes(threadId) - allocatedBefore};
+    }
+
+    private List<Long> displayReservations(List<Reservation> reservations) {
+        List<Long> ids = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            sink += reservation.getSalle().getNom().length() + reservation.getUtilisateur().getNom().length()
+                    + reservation.getDateDebut().getHour() + reservation.getDateFin().getHour();
+            ids.add(reservation.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private List<Long> displaySummaries(List<ReservationSummary> summaries) {
+        List<Long> ids = new ArrayList<>(summaries.size());
+        for (ReservationSummary summary : summaries) {
+            sink += summary.getSalleNom().length() + summary.getUtilisateurNom().length()
+                    + summary.getDateDebut().getHour() + summary.getDateFin().getHour();
+            ids.add(summary.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private List<Long> displaySalles(List<Salle> salles) {
+        List<Long> ids = new ArrayList<>(salles.size());
+        for (Salle salle : salles) {
+            sink += salle.getNom().length() + salle.getCapacite();
+            ids.add(salle.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private List<Long> displaySalleSummaries(List<SalleSummary> salles) {
+        List<Long> ids = new ArrayList<>(salles.size());
+        for (SalleSummary salle : salles) {
+            sink += salle.getNom().length() + salle.getCapacite();
+            ids.add(salle.getId());
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    /** Réservations réparties sur les salles, les utilisateurs et 200 jours ; renvoie la date d'origine */
+    private LocalDateTime seed() {
+        LocalDateTime origin = LocalDateTime.now().plusYears(6).withHour(8).withMinute(0).withSecond(0).withNano(0);
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Long> salleIds = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class).getResultList();
+            List<Long> utilisateurIds = em.createQuery("SELECT u.id FROM Utilisateur u ORDER BY u.id", Long.class)
+                    .getResultList();
+            if (salleIds.isEmpty() || utilisateurIds.isEmpty()) {
+                System.out.println("Aucune salle ou aucun utilisateur : initialisez d'abord les données de test.");
+                return null;
+            }
+            em.getTransaction().begin();
+            for (int i = 0; i < RESERVATIONS; i++) {
+                LocalDateTime start = origin.plusDays(i % 200).plusHours(i / 200 % 10);
+                Reservation reservation = new Reservation(start, start.plusMinutes(50), MOTIF);
+                reservation.setSalle(em.getReference(Salle.class, salleIds.get(i % salleIds.size())));
+                reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurIds.get(i % utilisateurIds.size())));
+                em.persist(reservation);
+                if ((i + 1) % 50 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        return origin;
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evict(Reservation.class);
+    }
+
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new ProjectionBenchmark(emf).runBenchmark();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
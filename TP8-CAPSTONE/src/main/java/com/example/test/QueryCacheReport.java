@@ -0,0 +1,205 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.SalleService;
+import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.DataInitializer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Taux de succès du cache de requêtes par région sur une charge mêlant recherches de salles,
+ * recherches de disponibilité, comptages et réservations (qui n'invalident que la région des
+ * disponibilités). Vérifie aussi qu'une réservation est visible immédiatement malgré le cache.
+ */
+public class QueryCacheReport {
+
+    private static final String MOTIF = "BENCH-QUERY-CACHE";
+    private static final String[] REGIONS = {
+            SalleRepositoryImpl.SEARCH_QUERY_REGION, SalleRepositoryImpl.AVAILABLE_QUERY_REGION,
+            SalleRepositoryImpl.COUNT_QUERY_REGION, ReservationRepositoryImpl.COUNT_QUERY_REGION
+    };
+    private static final int OPERATIONS = 5_000;
+    private static final int WRITE_EVERY = 100;
+    private static final int WINDOWS = 10;
+
+    private final EntityManagerFactory emf;
+
+    public QueryCacheReport(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public boolean runReport() {
+        System.out.println("\n=== RAPPORT: CACHE DE REQUÊTES ===");
+
+        List<Salle> salles;
+        Utilisateur utilisateur;
+        EntityManager em = emf.createEntityManager();
+        try {
+            salles = em.createQuery("SELECT s FROM Salle s ORDER BY s.id", Salle.class).getResultList();
+            List<Utilisateur> utilisateurs = em.createQuery("SELECT u FROM Utilisateur u ORDER BY u.id", Utilisateur.class)
+                    .setMaxResults(1).getResultList();
+            if (salles.isEmpty() || utilisateurs.isEmpty()) {
+                System.out.println("Aucune salle ou aucun utilisateur : initialisez d'abord les données de test.");
+                return false;
+            }
+            utilisateur = utilisateurs.get(0);
+        } finally {
+            em.close();
+        }
+
+        UnitOfWork unitOfWork = new UnitOfWork(emf);
+        EntityManager contextual = unitOfWork.getEntityManager();
+        SalleService salleService = unitOfWork.scoped(SalleService.class,
+                new SalleServiceImpl(contextual, new SalleRepositoryImpl(contextual)));
+        ReservationService reservationService = unitOfWork.scoped(ReservationService.class,
+                new ReservationServiceImpl(contextual, new ReservationRepositoryImpl(contextual)));
+
+        cleanUp();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        LocalDateTime origin = LocalDateTime.now().plusYears(4).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        List<Map<String, Object>> searches = buildSearches();
+        Random random = new Random(7);
+        int writes = 0;
+        long start = System.nanoTime();
+        for (int i = 1; i <= OPERATIONS; i++) {
+            LocalDateTime windowStart = origin.plusDays(random.nextInt(WINDOWS));
+            switch (random.nextInt(3)) {
+                case 0:
+                    salleService.searchRooms(searches.get(random.nextInt(searches.size())));
+                    break;
+                case 1:
+                    salleService.findAvailableRooms(windowStart, windowStart.plusHours(1));
+                    break;
+                default:
+                    salleService.countRooms();
+            }
+            if (i % WRITE_EVERY == 0) {
+                Reservation reservation = new Reservation(windowStart, windowStart.plusHours(1), MOTIF);
+                reservation.setSalle(salles.get(random.nextInt(salles.size())));
+                reservation.setUtilisateur(utilisateur);
+                if (reservationService.createReservation(reservation)) {
+                    writes++;
+                }
+            }
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1e6;
+
+        System.out.println(String.format("%d opérations, %d réservations intercalées, %.3f ms par opération",
+                OPERATIONS, writes, elapsedMillis / OPERATIONS));
+        printRegions(emf);
+
+        // Fraîcheur : une réservation retire immédiatement la salle des résultats mis en cache
+        LocalDateTime freshStart = origin.plusDays(WINDOWS + 1);
+        List<Salle> before = salleService.findAvailableRooms(freshStart, freshStart.plusHours(1));
+        salleService.findAvailableRooms(freshStart, freshStart.plusHours(1));
+        Salle booked = before.get(0);
+        Reservation reservation = new Reservation(freshStart, freshStart.plusHours(1), MOTIF);
+        reservation.setSalle(booked);
+        reservation.setUtilisateur(utilisateur);
+        reservationService.createReservation(reservation);
+        boolean fresh = salleService.findAvailableRooms(freshStart, freshStart.plusHours(1)).stream()
+                .noneMatch(salle -> salle.getId().equals(booked.getId()));
+        System.out.println(fresh
+                ? "OK : la salle réservée disparaît aussitôt des disponibilités en cache"
+                : "ÉCHEC : résultat de disponibilité périmé servi par le cache");
+
+        cleanUp();
+        return fresh;
+    }
+
+    /** Succès, échecs et taux par région du cache de requêtes (hibernate.generate_statistics requis) */
+    public static void printRegions(EntityManagerFactory emf) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            System.out.println("Statistiques Hibernate désactivées (hibernate.generate_statistics) : pas de taux de succès");
+            return;
+        }
+        System.out.println(String.format("%-26s | %8s | %8s | %8s | %8s", "Région", "Succès", "Échecs", "Ajouts", "Taux"));
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            System.out.println(String.format("%-26s | %8d | %8d | %8d | %7.1f%%", region, hits, misses,
+                    regionStatistics.getPutCount(), hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses)));
+        }
+        long hits = statistics.getQueryCacheHitCount();
+        long misses = statistics.getQueryCacheMissCount();
+        System.out.println(String.format("Total : %d succès, %d échecs (%.1f%%), %d requêtes exécutées en base",
+                hits, misses, hits + misses == 0 ? 0 : 100.0 * hits / (hits + misses), statistics.getQueryExecutionCount()));
+    }
+
+    private static List<Map<String, Object>> buildSearches() {
+        List<Map<String, Object>> searches = new ArrayList<>();
+        for (int capacite : new int[]{10, 20, 50}) {
+            Map<String, Object> criteria = new HashMap<>();
+            criteria.put("capaciteMin", capacite);
+            searches.add(criteria);
+        }
+        searches.add(Collections.singletonMap("etage", 1));
+        searches.add(Collections.singletonMap("batiment", "Bâtiment A"));
+        return searches;
+    }
+
+    private void cleanUp() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+        emf.getCache().evict(Reservation.class);
+    }
+
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.generate_statistics", "true");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new QueryCacheReport(emf).runReport();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.test;
+
+import com.example.model.StatutReservation;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.util.DataInitializer;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Vérifie sur une base H2 en mémoire que la requête de chevauchement générée par
+ * ReservationRepository.findOverlapping est servie par l'index composite
+ * (salle_id, statut, date_debut, date_fin). Code de sortie 1 si ce n'est pas le cas.
+ */
+public class QueryPlanCheck {
+
+    private static final String INDEX_NAME = "IDX_RESERVATION_SALLE_STATUT_DATES";
+
+    /** Mémorise le dernier SQL généré par Hibernate */
+    public static class CapturingStatementInspector implements StatementInspector {
+        private volatile String lastSql;
+
+        @Override
+        public String inspect(String sql) {
+            lastSql = sql;
+            return sql;
+        }
+
+        public String getLastSql() {
+            return lastSql;
+        }
+    }
+
+    private final EntityManagerFactory emf;
+    private final CapturingStatementInspector inspector;
+
+    public QueryPlanCheck(EntityManagerFactory emf, CapturingStatementInspector inspector) {
+        this.emf = emf;
+        this.inspector = inspector;
+    }
+
+    public boolean runCheck() {
+        System.out.println("\n=== VÉRIFICATION DU PLAN: REQUÊTE DE CHEVAUCHEMENT ===");
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Long salleId = em.createQuery("SELECT MIN(s.id) FROM Salle s", Long.class).getSingleResult();
+            LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+            LocalDateTime end = start.plusHours(2);
+
+            int found = new ReservationRepositoryImpl(em)
+                    .findOverlapping(start, end, salleId, StatutReservation.CONFIRMEE).size();
+            String sql = inspector.getLastSql();
+            System.out.println("SQL généré: " + sql);
+            System.out.println("Réservations trouvées: " + found);
+
+            // Paramètres dans l'ordre de la requête : fin, début, salle, statut
+            StringBuilder plan = new StringBuilder();
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                    statement.setTimestamp(1, Timestamp.valueOf(end));
+                    statement.setTimestamp(2, Timestamp.valueOf(start));
+                    statement.setLong(3, salleId);
+                    statement.setString(4, StatutReservation.CONFIRMEE.name());
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            plan.append(resultSet.getString(1)).append('\n');
+                        }
+                    }
+                }
+            });
+            System.out.println("Plan d'exécution:\n" + plan);
+
+            boolean usesIndex = plan.toString().toUpperCase().contains(INDEX_NAME);
+            System.out.println(usesIndex
+                    ? "OK : la requête utilise l'index " + INDEX_NAME
+                    : "ÉCHEC : l'index " + INDEX_NAME + " n'est pas utilisé");
+            return usesIndex;
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        CapturingStatementInspector inspector = new CapturingStatementInspector();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.session_factory.statement_inspector", inspector);
+
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("gestion-reservations-h2", properties);
+        boolean success;
+        try {
+            new DataInitializer(emf).initializeData();
+            success = new QueryPlanCheck(emf, inspector).runCheck();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
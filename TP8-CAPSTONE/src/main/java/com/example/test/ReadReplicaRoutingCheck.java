@@ -0,0 +1,157 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationRepository;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepository;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.RoutingCounters;
+import com.example.service.SalleService;
+import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.ConnectionPools;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routage lecture/écriture sur deux bases H2 en mémoire : le primaire et une réplique alimentée
+ * par copie. Vérifie que les lectures @ReadOnly partent vers la réplique, qu'une unité de travail
+ * relit ses propres écritures sur le primaire, et que la réplique ne voit l'écriture qu'après
+ * la copie suivante. Code de sortie 1 en cas d'échec.
+ */
+public class ReadReplicaRoutingCheck {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:reservation_salles;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:reservation_salles_replica;DB_CLOSE_DELAY=-1";
+    private static final String MOTIF = "CHECK-REPLIQUE";
+
+    private final UnitOfWork unitOfWork;
+    private final SalleService salleService;
+    private final ReservationService reservationService;
+    private boolean success = true;
+
+    public ReadReplicaRoutingCheck(UnitOfWork unitOfWork) {
+        this.unitOfWork = unitOfWork;
+        EntityManager em = unitOfWork.getEntityManager();
+        this.salleService = unitOfWork.scoped(SalleService.class, new SalleServiceImpl(em,
+                unitOfWork.routed(SalleRepository.class, new SalleRepositoryImpl(em))));
+        this.reservationService = unitOfWork.scoped(ReservationService.class, new ReservationServiceImpl(em,
+                unitOfWork.routed(ReservationRepository.class, new ReservationRepositoryImpl(em))));
+    }
+
+    public boolean runCheck() {
+        System.out.println("\n=== VÉRIFICATION: ROUTAGE LECTURE / ÉCRITURE ===");
+        RoutingCounters counters = unitOfWork.getRoutingCounters();
+
+        // 1. Lectures pures, une unité de travail par appel : toutes sur la réplique
+        counters.reset();
+        LocalDateTime start = LocalDateTime.now().plusYears(2).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        Map<String, Object> criteria = new HashMap<>();
+        criteria.put("capaciteMin", 10);
+        salleService.searchRooms(criteria);
+        salleService.getPaginatedRooms(1, 5);
+        List<Salle> available = salleService.findAvailableRooms(start, start.plusHours(1));
+        Long salleId = available.get(0).getId();
+        int replicaBefore = reservationService.getReservationsBySalle(salleId).size();
+        expect("lectures servies par la réplique", counters.getReplicaReads() == 4 && counters.getPrimaryReads() == 0);
+        System.out.println(counters);
+
+        // 2. Écriture puis lecture dans la même unité : la lecture reste sur le primaire
+        counters.reset();
+        int seenInRequest = unitOfWork.call(() -> {
+            EntityManager em = unitOfWork.getEntityManager();
+            Long utilisateurId = em.createQuery("SELECT MIN(u.id) FROM Utilisateur u", Long.class).getSingleResult();
+            Reservation reservation = new Reservation(start, start.plusHours(1), MOTIF);
+            reservation.setSalle(em.getReference(Salle.class, salleId));
+            reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+            if (!reservationService.createReservation(reservation)) {
+                throw new IllegalStateException("Créneau de vérification déjà réservé");
+            }
+            return reservationService.getReservationsBySalle(salleId).size();
+        });
+        expect("lecture de ses propres écritures (primaire)", seenInRequest == replicaBefore + 1);
+        expect("lecture imposée sur le primaire après écriture", counters.getPinnedReads() == 1);
+        System.out.println(counters);
+
+        // 3. Nouvelle unité : la réplique n'a pas encore reçu l'écriture, puis la reçoit après copie
+        int staleCount = reservationService.getReservationsBySalle(salleId).size();
+        expect("réplique non encore synchronisée", staleCount == replicaBefore);
+        copyPrimaryToReplica();
+        int syncedCount = reservationService.getReservationsBySalle(salleId).size();
+        expect("réplique synchronisée après copie", syncedCount == replicaBefore + 1);
+
+        System.out.println(success ? "OK : routage lecture / écriture conforme" : "ÉCHEC : routage lecture / écriture");
+        return success;
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    /** Réplication simulée : instantané SQL du primaire rejoué sur la réplique */
+    static void copyPrimaryToReplica() {
+        DataSource primary = ConnectionPools.acquire(PRIMARY_URL, "sa", "");
+        DataSource replica = ConnectionPools.acquire(REPLICA_URL, "sa", "");
+        File snapshot = null;
+        try {
+            snapshot = File.createTempFile("replica-", ".sql");
+            try (Connection connection = primary.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SCRIPT TO ?")) {
+                statement.setString(1, snapshot.getAbsolutePath());
+                statement.execute();
+            }
+            try (Connection connection = replica.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + snapshot.getAbsolutePath().replace("'", "''") + "'");
+            }
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("Copie du primaire vers la réplique impossible", e);
+        } finally {
+            if (snapshot != null) {
+                snapshot.delete();
+            }
+            ConnectionPools.release(replica);
+            ConnectionPools.release(primary);
+        }
+    }
+
+    public static void main(String[] args) {
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory("gestion-reservations-h2");
+        EntityManagerFactory replicaEmf = null;
+        boolean success;
+        try {
+            new DataInitializer(emf).initializeData();
+            copyPrimaryToReplica();
+            replicaEmf = Persistence.createEntityManagerFactory("gestion-reservations-h2-replica");
+            success = new ReadReplicaRoutingCheck(new UnitOfWork(emf, replicaEmf)).runCheck();
+        } finally {
+            if (replicaEmf != null) {
+                replicaEmf.close();
+            }
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
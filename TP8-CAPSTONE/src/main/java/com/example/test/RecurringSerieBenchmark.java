@@ -0,0 +1,142 @@
+package com.example.test;
+
+import com.example.dto.BulkImportReport;
+import com.example.model.FrequenceRecurrence;
+import com.example.model.RegleRecurrence;
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.model.SerieReservation;
+import com.example.model.Utilisateur;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Réservation d'une série hebdomadaire de 52 occurrences : une réservation à la fois
+ * (52 vérifications et 52 transactions) contre createSerie (une requête, un balayage,
+ * une transaction en batch).
+ */
+public class RecurringSerieBenchmark {
+
+    private static final String MOTIF = "BENCH-SERIE";
+    private static final int OCCURRENCES = 52;
+    private static final int ROUNDS = 5;
+
+    private final EntityManagerFactory emf;
+
+    public RecurringSerieBenchmark(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void runBenchmark() {
+        System.out.println("\n=== BENCHMARK: SÉRIE HEBDOMADAIRE DE " + OCCURRENCES + " OCCURRENCES ===");
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Salle> salles = em.createQuery("SELECT s FROM Salle s ORDER BY s.id", Salle.class)
+                    .setMaxResults(1).getResultList();
+            List<Utilisateur> utilisateurs = em.createQuery("SELECT u FROM Utilisateur u ORDER BY u.id", Utilisateur.class)
+                    .setMaxResults(1).getResultList();
+            if (salles.isEmpty() || utilisateurs.isEmpty()) {
+                System.out.println("Aucune salle ou aucun utilisateur : initialisez d'abord les données de test.");
+                return;
+            }
+            Long salleId = salles.get(0).getId();
+            Long utilisateurId = utilisateurs.get(0).getId();
+            ReservationService service = new ReservationServiceImpl(em, new ReservationRepositoryImpl(em));
+
+            long oneByOneTotal = 0;
+            long serieTotal = 0;
+            for (int round = 0; round <= ROUNDS; round++) {
+                // Créneau lointain pour ne pas interférer avec les données existantes
+                LocalDateTime premierDebut = LocalDateTime.now().plusYears(10 + round)
+                        .withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+                cleanUp(em);
+                long start = System.nanoTime();
+                int accepted = bookOneByOne(em, service, salleId, utilisateurId, premierDebut);
+                long oneByOneNanos = System.nanoTime() - start;
+
+                cleanUp(em);
+                SerieReservation serie = new SerieReservation(premierDebut, premierDebut.plusHours(1), MOTIF,
+                        RegleRecurrence.occurrences(FrequenceRecurrence.HEBDOMADAIRE, 1, OCCURRENCES));
+                serie.setSalle(em.getReference(Salle.class, salleId));
+                serie.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+                start = System.nanoTime();
+                BulkImportReport report = service.createSerie(serie);
+                long serieNanos = System.nanoTime() - start;
+
+                // Le premier tour sert de chauffe
+                if (round == 0) {
+                    continue;
+                }
+                oneByOneTotal += oneByOneNanos;
+                serieTotal += serieNanos;
+                System.out.println(String.format("Tour %d : unitaire %.2f ms (%d acceptées), série %.2f ms (%d acceptées)",
+                        round, oneByOneNanos / 1e6, accepted, serieNanos / 1e6, report.getAcceptedCount()));
+            }
+            cleanUp(em);
+
+            System.out.println(String.format("Moyenne : unitaire %.2f ms, série %.2f ms, gain %.1fx",
+                    oneByOneTotal / 1e6 / ROUNDS, serieTotal / 1e6 / ROUNDS, (double) oneByOneTotal / serieTotal));
+        } finally {
+            em.close();
+        }
+    }
+
+    private int bookOneByOne(EntityManager em, ReservationService service, Long salleId, Long utilisateurId,
+                             LocalDateTime premierDebut) {
+        int accepted = 0;
+        for (int week = 0; week < OCCURRENCES; week++) {
+            LocalDateTime debut = premierDebut.plusWeeks(week);
+            Reservation reservation = new Reservation(debut, debut.plusHours(1), MOTIF);
+            reservation.setSalle(em.getReference(Salle.class, salleId));
+            reservation.setUtilisateur(em.getReference(Utilisateur.class, utilisateurId));
+            if (service.createReservation(reservation)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private void cleanUp(EntityManager em) {
+        em.getTransaction().begin();
+        try {
+            em.createQuery("DELETE FROM Reservation r WHERE r.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.createQuery("DELETE FROM SerieReservation s WHERE s.motif = :motif")
+                    .setParameter("motif", MOTIF)
+                    .executeUpdate();
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        }
+        em.clear();
+        emf.getCache().evict(Reservation.class);
+    }
+
+    public static void main(String[] args) {
+        // Unité de persistance en argument (ex: gestion-reservations pour MySQL), H2 en mémoire par défaut
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new RecurringSerieBenchmark(emf).runBenchmark();
+        } finally {
+            emf.close();
+        }
+    }
+}
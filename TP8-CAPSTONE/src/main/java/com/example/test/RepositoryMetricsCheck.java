@@ -0,0 +1,194 @@
+package com.example.test;
+
+import com.example.model.Reservation;
+import com.example.model.Salle;
+import com.example.repository.RepositoryMetrics;
+import com.example.repository.ReservationRepository;
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepository;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.DataInitializer;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Mesures par méthode de repository : instructions SQL et accès au cache L2 identiques aux
+ * statistiques Hibernate, lignes comptées (listes, flux), erreurs, enregistrement concurrent sans
+ * perte, exports Prometheus et JSON, puis surcoût du proxy par appel. Code de sortie 1 en cas d'échec.
+ */
+public class RepositoryMetricsCheck {
+
+    private static final int THREADS = 8;
+    private static final int CALLS_PER_THREAD = 2_000;
+    private static final int OVERHEAD_ITERATIONS = 200_000;
+
+    private final EntityManagerFactory emf;
+    private final Statistics statistics;
+    private final UnitOfWork unitOfWork;
+    private final RepositoryMetrics metrics = new RepositoryMetrics();
+    private final SalleRepository salleRepository;
+    private final ReservationRepository reservationRepository;
+    private boolean success = true;
+
+    public RepositoryMetricsCheck(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        this.unitOfWork = new UnitOfWork(emf);
+        EntityManager em = unitOfWork.getEntityManager();
+        this.salleRepository = unitOfWork.routed(SalleRepository.class,
+                metrics.instrument(SalleRepository.class, new SalleRepositoryImpl(em)));
+        this.reservationRepository = unitOfWork.routed(ReservationRepository.class,
+                metrics.instrument(ReservationRepository.class, new ReservationRepositoryImpl(em)));
+    }
+
+    public boolean runCheck() throws Exception {
+        System.out.println("\n=== VÉRIFICATION: MESURES PAR MÉTHODE DE REPOSITORY ===");
+
+        // 1. Instructions SQL et cache L2 : mêmes totaux que les statistiques Hibernate
+        emf.getCache().evictAll();
+        statistics.clear();
+        List<Salle> salles = unitOfWork.call(() -> salleRepository.findAll());
+        emf.getCache().evict(Salle.class);
+        for (int i = 0; i < 3; i++) {
+            // Une unité par lecture : le premier findById manque le cache L2, les suivants le trouvent
+            unitOfWork.call(() -> salleRepository.findById(salles.get(0).getId()));
+        }
+        int reservations = unitOfWork.call(() -> reservationRepository.findAll().size());
+        long streamed;
+        try (Stream<Reservation> stream = reservationRepository.streamAll()) {
+            streamed = stream.count();
+        }
+        RepositoryMetrics.MethodMetrics findAll = metrics.get("SalleRepository", "findAll");
+        RepositoryMetrics.MethodMetrics findById = metrics.get("SalleRepository", "findById");
+        RepositoryMetrics.MethodMetrics reservationFindAll = metrics.get("ReservationRepository", "findAll()");
+        RepositoryMetrics.MethodMetrics streamAll = metrics.get("ReservationRepository", "streamAll");
+        long statements = 0;
+        long hits = 0;
+        long misses = 0;
+        for (RepositoryMetrics.MethodMetrics method : metrics.getMethods()) {
+            statements += method.getStatements();
+            hits += method.getL2Hits();
+            misses += method.getL2Misses();
+        }
+        expect("instructions SQL = statistiques Hibernate (" + statements + ")",
+                statements == statistics.getPrepareStatementCount());
+        expect("cache L2 = statistiques Hibernate (" + hits + " succès / " + misses + " échecs)",
+                hits == statistics.getSecondLevelCacheHitCount() && misses == statistics.getSecondLevelCacheMissCount());
+        expect("findById : 1 échec puis 2 succès du cache L2",
+                findById.getCalls() == 3 && findById.getL2Hits() == 2 && findById.getL2Misses() == 1
+                        && findById.getStatements() == 1);
+        expect("lignes : liste des salles (" + findAll.getRows() + ")", findAll.getRows() == salles.size());
+        expect("lignes : surcharges distinguées, findAll() = " + reservationFindAll.getRows(),
+                reservationFindAll.getCalls() == 1 && reservationFindAll.getRows() == reservations);
+        expect("lignes : flux compté à la consommation (" + streamAll.getRows() + ")", streamAll.getRows() == streamed);
+
+        // 2. Erreurs
+        try {
+            unitOfWork.call(() -> salleRepository.searchRooms(Map.of("equipementsMode", "AUCUN", "equipements", List.of(1L))));
+        } catch (IllegalArgumentException expected) {
+            // compté ci-dessous
+        }
+        expect("erreur comptée", metrics.get("SalleRepository", "searchRooms").getErrors() == 1);
+
+        // 3. Enregistrement concurrent : aucun appel perdu
+        metrics.reset();
+        Long salleId = salles.get(0).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        unitOfWork.call(() -> salleRepository.findById(salleId));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        RepositoryMetrics.MethodMetrics concurrent = metrics.get("SalleRepository", "findById");
+        expect(THREADS + " threads : " + concurrent.getCalls() + " appels enregistrés",
+                concurrent.getCalls() == (long) THREADS * CALLS_PER_THREAD
+                        && concurrent.getL2Hits() + concurrent.getL2Misses() == concurrent.getCalls()
+                        && concurrent.getRows() == concurrent.getCalls());
+
+        // 4. Exports
+        String prometheus = metrics.export(RepositoryMetrics.Format.PROMETHEUS);
+        String json = metrics.export(RepositoryMetrics.Format.JSON);
+        System.out.print(prometheus);
+        System.out.println(json);
+        expect("export Prometheus", prometheus.contains(
+                "repository_call_duration_seconds_count{repository=\"SalleRepository\",method=\"findById\"} "
+                        + concurrent.getCalls()) && prometheus.contains("quantile=\"0.99\""));
+        expect("export JSON", json.startsWith("{\"methods\":[") && json.endsWith("]}")
+                && json.contains("\"calls\":" + concurrent.getCalls()));
+
+        // 5. Surcoût du proxy, sur une méthode servie sans SQL
+        SalleRepository plain = new SalleRepositoryImpl(unitOfWork.getEntityManager());
+        SalleRepository instrumented = metrics.instrument(SalleRepository.class, plain);
+        for (int round = 0; round < 5; round++) {
+            long plainNanos = time(plain, salleId);
+            long instrumentedNanos = time(instrumented, salleId);
+            if (round == 4) {
+                System.out.println(String.format("Surcoût par appel : %.0f ns (findById servi par le contexte de persistance : %.0f ns)",
+                        (double) (instrumentedNanos - plainNanos) / OVERHEAD_ITERATIONS,
+                        (double) plainNanos / OVERHEAD_ITERATIONS));
+            }
+        }
+
+        System.out.println(success ? "OK : mesures par méthode conformes" : "ÉCHEC : mesures par méthode");
+        return success;
+    }
+
+    private long time(SalleRepository repository, Long salleId) {
+        return unitOfWork.call(() -> {
+            repository.findById(salleId);
+            long start = System.nanoTime();
+            for (int i = 0; i < OVERHEAD_ITERATIONS; i++) {
+                repository.findById(salleId);
+            }
+            return System.nanoTime() - start;
+        });
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new RepositoryMetricsCheck(emf).runCheck();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
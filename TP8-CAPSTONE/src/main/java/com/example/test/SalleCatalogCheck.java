@@ -0,0 +1,216 @@
+package com.example.test;
+
+import com.example.model.Salle;
+import com.example.repository.SalleCatalog;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.SalleService;
+import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Catalogue des salles en mémoire : mêmes résultats que la requête JPQL de searchRooms sur une
+ * grille de critères (dont plusieurs équipements, ALL et ANY), salles renvoyées propres à chaque
+ * appelant, reconstruction après création, modification et suppression de salle, puis temps et
+ * octets alloués par recherche (catalogue contre JPQL). Code de sortie 1 en cas d'échec.
+ */
+public class SalleCatalogCheck {
+
+    private static final int ITERATIONS = 20_000;
+
+    private final EntityManagerFactory emf;
+    private final SalleCatalog catalog;
+    private final UnitOfWork unitOfWork;
+    private final SalleService catalogService;
+    private final SalleService jpqlService;
+    private boolean success = true;
+
+    public SalleCatalogCheck(EntityManagerFactory emf) {
+        this.emf = emf;
+        this.catalog = new SalleCatalog(emf);
+        this.unitOfWork = new UnitOfWork(emf);
+        EntityManager em = unitOfWork.getEntityManager();
+        this.catalogService = unitOfWork.scoped(SalleService.class,
+                new SalleServiceImpl(em, new SalleRepositoryImpl(em, null, catalog)));
+        this.jpqlService = unitOfWork.scoped(SalleService.class,
+                new SalleServiceImpl(em, new SalleRepositoryImpl(em)));
+    }
+
+    public boolean runCheck() {
+        System.out.println("\n=== VÉRIFICATION: CATALOGUE DES SALLES EN MÉMOIRE ===");
+        catalog.load();
+        List<Map<String, Object>> grid = buildCriteria();
+
+        // 1. Équivalence avec la requête JPQL
+        int mismatches = 0;
+        for (Map<String, Object> criteria : grid) {
+            if (!ids(catalogService.searchRooms(criteria)).equals(ids(jpqlService.searchRooms(criteria)))) {
+                System.out.println("  Écart pour " + criteria);
+                mismatches++;
+            }
+        }
+        expect(grid.size() + " combinaisons de critères identiques à JPQL", mismatches == 0);
+
+        // 2. Copies propres à l'appelant : les modifier ne change pas le catalogue
+        Map<String, Object> all = new HashMap<>();
+        Salle returned = catalogService.searchRooms(all).get(0);
+        String nom = returned.getNom();
+        int equipementCount = returned.getEquipements().size();
+        returned.setNom("Modifiée hors transaction");
+        returned.getEquipements().clear();
+        Salle again = catalogService.searchRooms(all).get(0);
+        expect("salle renvoyée modifiée sans effet sur le catalogue",
+                again != returned && nom.equals(again.getNom())
+                        && again.getEquipements().size() == equipementCount);
+        boolean reservationsReadable;
+        try {
+            reservationsReadable = again.getReservations().isEmpty();
+        } catch (RuntimeException e) {
+            reservationsReadable = false;
+        }
+        expect("réservations d'une salle renvoyée accessibles hors session", reservationsReadable);
+
+        // 3. Reconstruction après écriture validée
+        Map<String, Object> byBatiment = new HashMap<>();
+        byBatiment.put("batiment", "Bâtiment CATALOGUE");
+        Salle salle = new Salle("Salle catalogue", 12);
+        salle.setBatiment("Bâtiment CATALOGUE");
+        catalogService.createSalle(salle);
+        expect("salle créée visible", catalogService.searchRooms(byBatiment).size() == 1);
+
+        Salle toUpdate = catalogService.getSalleById(salle.getId());
+        toUpdate.setCapacite(99);
+        catalogService.updateSalle(toUpdate);
+        Map<String, Object> byCapacite = new HashMap<>(byBatiment);
+        byCapacite.put("capaciteMin", 99);
+        expect("salle modifiée visible", catalogService.searchRooms(byCapacite).size() == 1);
+
+        catalogService.deleteSalle(salle.getId());
+        expect("salle supprimée retirée", catalogService.searchRooms(byBatiment).isEmpty());
+
+        // 4. Coût par recherche
+        System.out.println(String.format("%-10s | %14s | %16s", "Mode", "µs / recherche", "octets / recherche"));
+        for (int round = 0; round < 2; round++) {
+            measure("Catalogue", catalogService, grid, round == 1);
+            measure("JPQL", jpqlService, grid, round == 1);
+        }
+
+        System.out.println(success ? "OK : catalogue conforme" : "ÉCHEC : catalogue des salles");
+        return success;
+    }
+
+    private void measure(String mode, SalleService service, List<Map<String, Object>> grid, boolean report) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // Une unité de travail pour toute la série : seul le coût de la recherche est mesuré
+        long[] measured = unitOfWork.call(() -> {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                service.searchRooms(grid.get(i % grid.size()));
+            }
+            return new long[]{System.nanoTime() - start, threads.getThreadAllocatedBytes(threadId) - allocatedBefore};
+        });
+        if (report) {
+            System.out.println(String.format("%-10s | %14.2f | %16d", mode,
+                    measured[0] / 1e3 / ITERATIONS, measured[1] / ITERATIONS));
+        }
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    private static List<Long> ids(List<Salle> salles) {
+        return salles.stream().map(Salle::getId).sorted().collect(Collectors.toList());
+    }
+
+    private List<Map<String, Object>> buildCriteria() {
+        List<String> batiments;
+        List<Long> equipements;
+        EntityManager em = emf.createEntityManager();
+        try {
+            batiments = em.createQuery("SELECT DISTINCT s.batiment FROM Salle s WHERE s.batiment IS NOT NULL", String.class)
+                    .getResultList();
+            equipements = em.createQuery("SELECT e.id FROM Equipement e ORDER BY e.id", Long.class).getResultList();
+        } finally {
+            em.close();
+        }
+
+        List<Map<String, Object>> grid = new ArrayList<>();
+        grid.add(new HashMap<>());
+        for (int capacite : new int[]{10, 20, 30, 50}) {
+            Map<String, Object> min = new HashMap<>();
+            min.put("capaciteMin", capacite);
+            grid.add(min);
+            Map<String, Object> range = new HashMap<>(min);
+            range.put("capaciteMax", capacite * 2);
+            grid.add(range);
+        }
+        for (String batiment : batiments) {
+            for (int etage = 0; etage <= 3; etage++) {
+                Map<String, Object> criteria = new HashMap<>();
+                criteria.put("batiment", batiment);
+                criteria.put("etage", etage);
+                grid.add(criteria);
+            }
+        }
+        for (Long equipement : equipements) {
+            Map<String, Object> criteria = new HashMap<>();
+            criteria.put("equipement", equipement);
+            grid.add(criteria);
+            Map<String, Object> combined = new HashMap<>(criteria);
+            combined.put("capaciteMin", 20);
+            if (!batiments.isEmpty()) {
+                combined.put("batiment", batiments.get(0));
+            }
+            grid.add(combined);
+        }
+        // Plusieurs équipements, tous exigés ou au moins un, y compris un identifiant inconnu
+        for (int size = 2; size <= 3 && size <= equipements.size(); size++) {
+            for (int first = 0; first + size <= equipements.size(); first++) {
+                for (String mode : new String[]{"ALL", "ANY"}) {
+                    Map<String, Object> criteria = new HashMap<>();
+                    criteria.put("equipements", new ArrayList<>(equipements.subList(first, first + size)));
+                    criteria.put("equipementsMode", mode);
+                    grid.add(criteria);
+                }
+            }
+        }
+        for (String mode : new String[]{"ALL", "ANY"}) {
+            Map<String, Object> criteria = new HashMap<>();
+            criteria.put("equipements", List.of(-1L, equipements.isEmpty() ? -2L : equipements.get(0)));
+            criteria.put("equipementsMode", mode);
+            grid.add(criteria);
+        }
+        return grid;
+    }
+
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new SalleCatalogCheck(emf).runCheck();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
+    }
+}
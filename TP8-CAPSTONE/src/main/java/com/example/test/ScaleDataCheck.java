@@ -0,0 +1,109 @@
+package com.example.test;
+
+import com.example.model.StatutReservation;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Mode volume de DataInitializer : le même jeu de données (même graine) est généré dans deux bases
+ * H2 vides, avec un puis plusieurs producteurs. Vérifie les volumes, l'absence de chevauchement
+ * entre réservations CONFIRMEE d'une même salle et l'identité du contenu des deux bases.
+ * Code de sortie 1 en cas d'échec.
+ */
+public class ScaleDataCheck {
+
+    private static final int SALLES = 500;
+    private static final int UTILISATEURS = 1_000;
+    private static final long RESERVATIONS = 100_000;
+    private static final long SEED = 2024;
+    private static final LocalDate START_DATE = LocalDate.of(2030, 1, 7);
+
+    private boolean success = true;
+
+    public boolean runCheck(String persistenceUnit) {
+        System.out.println("\n=== VÉRIFICATION: JEU DE DONNÉES VOLUMINEUX ===");
+        long singleProducer = generateAndCheck(persistenceUnit, "scale_check_1", 1);
+        long severalProducers = generateAndCheck(persistenceUnit, "scale_check_3", 3);
+        expect("contenu identique avec 1 et 3 producteurs", singleProducer == severalProducers);
+
+        System.out.println(success ? "OK : jeu de données reproductible et sans chevauchement"
+                : "ÉCHEC : jeu de données incorrect");
+        return success;
+    }
+
+    /** Génère le jeu de données dans une base H2 neuve et renvoie l'empreinte de son contenu */
+    private long generateAndCheck(String persistenceUnit, String database, int producers) {
+        System.out.println("\n--- " + producers + " producteur(s) ---");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        properties.put("javax.persistence.jdbc.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        try {
+            new DataInitializer(emf).initializeScaleData(SALLES, UTILISATEURS, RESERVATIONS, SEED, producers, START_DATE);
+
+            EntityManager em = emf.createEntityManager();
+            try {
+                expect("salles: " + SALLES, count(em, "SELECT COUNT(s) FROM Salle s") == SALLES);
+                expect("utilisateurs: " + UTILISATEURS, count(em, "SELECT COUNT(u) FROM Utilisateur u") == UTILISATEURS);
+                expect("réservations: " + RESERVATIONS, count(em, "SELECT COUNT(r) FROM Reservation r") == RESERVATIONS);
+
+                long overlaps = em.createQuery(
+                                "SELECT COUNT(r1) FROM Reservation r1, Reservation r2 " +
+                                        "WHERE r1.salle = r2.salle AND r1.id < r2.id " +
+                                        "AND r1.statut = :statut AND r2.statut = :statut " +
+                                        "AND r1.dateDebut <= r2.dateFin AND r1.dateFin >= r2.dateDebut",
+                                Long.class)
+                        .setParameter("statut", StatutReservation.CONFIRMEE)
+                        .getSingleResult();
+                expect("aucun chevauchement entre réservations confirmées (" + overlaps + ")", overlaps == 0);
+
+                return fingerprint(em);
+            } finally {
+                em.close();
+            }
+        } finally {
+            emf.close();
+        }
+    }
+
+    /** Empreinte du contenu, indépendante des identifiants et de l'ordre d'insertion des réservations */
+    private static long fingerprint(EntityManager em) {
+        List<Object[]> rows = em.createQuery(
+                        "SELECT r.salle.id, r.utilisateur.id, r.dateDebut, r.dateFin, r.statut, r.motif " +
+                                "FROM Reservation r ORDER BY r.salle.id, r.dateDebut, r.dateFin, r.statut, r.utilisateur.id, r.motif",
+                        Object[].class)
+                .getResultList();
+        long hash = 17;
+        for (Object[] row : rows) {
+            for (Object value : row) {
+                hash = 31 * hash + Objects.hashCode(value);
+            }
+        }
+        return hash;
+    }
+
+    private static long count(EntityManager em, String jpql) {
+        return em.createQuery(jpql, Long.class).getSingleResult();
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    public static void main(String[] args) {
+        // Argument : unité de persistance H2 dont l'URL est remplacée par deux bases en mémoire
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        if (!new ScaleDataCheck().runCheck(persistenceUnit)) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.test;
+
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.util.DataInitializer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal des requêtes lentes (SlowQueryLog) sur une base H2 en mémoire : avec un seuil nul, chaque
+ * appel de findByDateRange est journalisé avec sa méthode d'origine et ses paramètres, et le plan
+ * EXPLAIN n'est capturé qu'à la première occurrence de la requête ; avec un seuil élevé, rien n'est
+ * écrit. Code de sortie 1 en cas d'échec.
+ */
+public class SlowQueryLogCheck {
+
+    private static final String ORIGIN = "[ReservationRepositoryImpl.findByDateRange]";
+    private static final int CALLS = 3;
+
+    private boolean success = true;
+
+    public boolean runCheck(String persistenceUnit) throws IOException {
+        System.out.println("\n=== VÉRIFICATION: JOURNAL DES REQUÊTES LENTES ===");
+
+        Path everything = Files.createTempFile("slow-queries-", ".log");
+        Path nothing = Files.createTempFile("slow-queries-", ".log");
+        try {
+            runWorkload(persistenceUnit, everything, 0);
+            List<String> entries = entries(everything, ORIGIN);
+            long plans = entries.stream().filter(entry -> entry.contains("  Plan (")).count();
+            System.out.println("Seuil 0 ms, première entrée:\n" + (entries.isEmpty() ? "(aucune)" : entries.get(0)));
+            expect(CALLS + " appels journalisés avec leur méthode d'origine (" + entries.size() + ")",
+                    entries.size() == CALLS);
+            expect("paramètres liés journalisés",
+                    !entries.isEmpty() && entries.stream().allMatch(entry -> entry.contains("  Paramètres: [1=")));
+            expect("un seul plan EXPLAIN pour la forme de requête (" + plans + ")", plans == 1);
+            expect("plan portant sur la table des réservations", entries.stream()
+                    .anyMatch(entry -> entry.contains("  Plan (") && entry.toUpperCase().contains("RESERVATIONS")));
+
+            runWorkload(persistenceUnit, nothing, 60_000);
+            expect("seuil de 60 s : journal vide", Files.size(nothing) == 0);
+        } finally {
+            Files.deleteIfExists(everything);
+            Files.deleteIfExists(nothing);
+        }
+
+        System.out.println(success ? "OK : requêtes lentes journalisées et expliquées une fois par forme"
+                : "ÉCHEC : journal des requêtes lentes incorrect");
+        return success;
+    }
+
+    /** CALLS recherches par plage de dates ; la fermeture de l'EntityManagerFactory vide le journal */
+    private static void runWorkload(String persistenceUnit, Path file, long thresholdMillis) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        properties.put("db.slow-query.enabled", "true");
+        properties.put("db.slow-query.threshold-ms", String.valueOf(thresholdMillis));
+        properties.put("db.slow-query.file", file.toString());
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        try {
+            new DataInitializer(emf).initializeData();
+            EntityManager em = emf.createEntityManager();
+            try {
+                ReservationRepositoryImpl repository = new ReservationRepositoryImpl(em);
+                LocalDateTime start = LocalDateTime.now().withHour(8).withMinute(0).withSecond(0).withNano(0);
+                for (int i = 0; i < CALLS; i++) {
+                    repository.findByDateRange(start.plusDays(i), start.plusDays(i + 7));
+                }
+            } finally {
+                em.close();
+            }
+        } finally {
+            emf.close();
+        }
+    }
+
+    /** Entrées du journal (ligne d'en-tête et lignes indentées qui suivent) portant cette origine */
+    private static List<String> entries(Path file, String origin) throws IOException {
+        List<String> entries = new ArrayList<>();
+        StringBuilder current = null;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.startsWith(" ")) {
+                if (current != null && current.indexOf(origin) >= 0) {
+                    entries.add(current.toString());
+                }
+                current = new StringBuilder();
+            }
+            if (current != null) {
+                current.append(line).append('\n');
+            }
+        }
+        if (current != null && current.indexOf(origin) >= 0) {
+            entries.add(current.toString());
+        }
+        return entries;
+    }
+
+    private void expect(String label, boolean condition) {
+        System.out.println((condition ? "  [OK]    " : "  [ÉCHEC] ") + label);
+        success &= condition;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        if (!new SlowQueryLogCheck().runCheck(persistenceUnit)) {
+            System.exit(1);
+        }
+    }
+}
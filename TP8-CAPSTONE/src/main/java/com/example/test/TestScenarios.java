@@ -6,11 +6,13 @@ import com.example.repository.SalleRepository;
 import com.example.service.ReservationService;
 import com.example.service.SalleService;
 import com.example.util.PaginationResult;
+import org.hibernate.jpa.QueryHints;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.OptimisticLockException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +69,8 @@ public class TestScenarios {
         EntityManager em = emf.createEntityManager();
         try {
             Reservation reservation = em.createQuery("SELECT r FROM Reservation r WHERE r.statut = :statut", Reservation.class)
+                    // Salle jointe à la requête : pas de SELECT supplémentaire pour getSalle().getNom()
+                    .setHint(QueryHints.HINT_FETCHGRAPH, em.getEntityGraph("Reservation.salle"))
                     .setParameter("statut", StatutReservation.CONFIRMEE)
                     .setMaxResults(1)
                     .getSingleResult();
@@ -132,6 +136,19 @@ public class TestScenarios {
             System.out.println("- " + salle.getNom() + " (Capacité: " + salle.getCapacite() +
                     ", Bâtiment: " + salle.getBatiment() + ")");
         }
+
+        // Test 4: Recherche sur plusieurs équipements à la fois
+        Map<String, Object> criteres4 = new HashMap<>();
+        criteres4.put("equipements", Arrays.asList(1L, 3L, 6L)); // Projecteur, visioconférence, microphones
+        criteres4.put("equipementsMode", "ALL");
+
+        System.out.println("\nRecherche de salles avec projecteur ET visioconférence ET microphones");
+        List<Salle> resultat4 = salleService.searchRooms(criteres4);
+
+        System.out.println("Nombre de salles trouvées: " + resultat4.size());
+        for (Salle salle : resultat4) {
+            System.out.println("- " + salle.getNom() + " (" + salle.getEquipements().size() + " équipement(s))");
+        }
     }
 
     private void testPagination() {
@@ -183,6 +200,7 @@ public class TestScenarios {
 
         try {
             reservation = em.createQuery("SELECT r FROM Reservation r WHERE r.statut = :statut", Reservation.class)
+                    .setHint(QueryHints.HINT_FETCHGRAPH, em.getEntityGraph("Reservation.salle"))
                     .setParameter("statut", StatutReservation.CONFIRMEE)
                     .setMaxResults(1)
                     .getSingleResult();
@@ -0,0 +1,166 @@
+package com.example.test;
+
+import com.example.repository.ReservationRepositoryImpl;
+import com.example.repository.SalleRepositoryImpl;
+import com.example.service.ReservationService;
+import com.example.service.ReservationServiceImpl;
+import com.example.service.SalleService;
+import com.example.service.SalleServiceImpl;
+import com.example.service.UnitOfWork;
+import com.example.util.ConnectionPools;
+import com.example.util.DataInitializer;
+import com.example.util.PoolMetrics;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Débit des services partagés par plusieurs threads grâce à l'unité de travail : une seule instance
+ * de chaque service, un EntityManager par appel. Mesure le nombre d'appels par seconde de 1 à 2 x CPU
+ * threads et l'accélération par rapport à un thread (1,0 par thread pour un passage à l'échelle linéaire).
+ */
+public class UnitOfWorkScalingBenchmark {
+
+    private static final long RUN_MILLIS = 3_000;
+    private static final long WARMUP_MILLIS = 3_000;
+
+    private final EntityManagerFactory emf;
+
+    public UnitOfWorkScalingBenchmark(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void runBenchmark() {
+        System.out.println("\n=== BENCHMARK: UNITÉ DE TRAVAIL ET PASSAGE À L'ÉCHELLE ===");
+
+        List<Long> salleIds;
+        EntityManager em = emf.createEntityManager();
+        try {
+            salleIds = em.createQuery("SELECT s.id FROM Salle s ORDER BY s.id", Long.class).getResultList();
+        } finally {
+            em.close();
+        }
+        if (salleIds.isEmpty()) {
+            System.out.println("Aucune salle en base : initialisez d'abord les données de test.");
+            return;
+        }
+
+        // Services partagés par tous les threads, construits sur l'EntityManager contextuel
+        UnitOfWork unitOfWork = new UnitOfWork(emf);
+        EntityManager contextual = unitOfWork.getEntityManager();
+        SalleService salleService = unitOfWork.scoped(SalleService.class,
+                new SalleServiceImpl(contextual, new SalleRepositoryImpl(contextual)));
+        ReservationService reservationService = unitOfWork.scoped(ReservationService.class,
+                new ReservationServiceImpl(contextual, new ReservationRepositoryImpl(contextual)));
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.println("Processeurs disponibles: " + processors);
+        System.out.println(String.format("%7s | %12s | %12s | %10s | %16s",
+                "Threads", "Appels/s", "Accélération", "Efficacité", "Attente p99 (ms)"));
+
+        runScenario(1, WARMUP_MILLIS, salleIds, salleService, reservationService);
+        double baseline = 0;
+        for (int threads = 1; threads <= processors * 2; threads *= 2) {
+            PoolMetrics poolMetrics = ConnectionPools.metricsOf(emf);
+            if (poolMetrics != null) {
+                poolMetrics.reset();
+            }
+            double throughput = runScenario(threads, RUN_MILLIS, salleIds, salleService, reservationService);
+            if (threads == 1) {
+                baseline = throughput;
+            }
+            double speedup = throughput / baseline;
+            System.out.println(String.format("%7d | %12.0f | %11.2fx | %10.2f | %16.3f",
+                    threads, throughput, speedup, speedup / threads,
+                    poolMetrics != null ? poolMetrics.getAcquisition().percentileMillis(99) : 0));
+        }
+    }
+
+    private double runScenario(int threads, long durationMillis, List<Long> salleIds,
+                               SalleService salleService, ReservationService reservationService) {
+        LongAdder calls = new LongAdder();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        LocalDateTime origin = LocalDateTime.now().withHour(8).withMinute(0).withSecond(0).withNano(0);
+
+        for (int t = 0; t < threads; t++) {
+            final long seed = t;
+            executor.submit(() -> {
+                Random random = new Random(seed);
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (running.get()) {
+                    Long salleId = salleIds.get(random.nextInt(salleIds.size()));
+                    try {
+                        // Mélange de lectures : entité (cache L2), vérification de disponibilité, liste
+                        switch (random.nextInt(3)) {
+                            case 0:
+                                salleService.getSalleById(salleId);
+                                break;
+                            case 1:
+                                LocalDateTime start = origin.plusDays(random.nextInt(30)).plusHours(random.nextInt(10));
+                                reservationService.isSalleAvailable(salleId, start, start.plusHours(1));
+                                break;
+                            default:
+                                reservationService.getReservationsBySalle(salleId);
+                        }
+                        calls.increment();
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        long startTime = System.nanoTime();
+        startSignal.countDown();
+        try {
+            Thread.sleep(durationMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running.set(false);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        if (errors.get() > 0) {
+            System.err.println(errors.get() + " appels en erreur avec " + threads + " threads");
+        }
+        return calls.sum() / seconds;
+    }
+
+    public static void main(String[] args) {
+        // Unité de persistance en argument (ex: gestion-reservations pour MySQL), H2 en mémoire par défaut
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit);
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            new UnitOfWorkScalingBenchmark(emf).runBenchmark();
+        } finally {
+            emf.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Configuration applicative : lit application.properties depuis le classpath,
+ * chaque clé pouvant être surchargée par une propriété système (-Dcle=valeur).
+ */
+public final class AppConfig {
+
+    private static final String RESOURCE = "application.properties";
+    private static final Properties PROPERTIES = load();
+
+    private AppConfig() {}
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream inputStream = AppConfig.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (inputStream != null) {
+                properties.load(inputStream);
+            }
+        } catch (IOException e) {
+            System.err.println("Impossible de lire " + RESOURCE + ": " + e.getMessage());
+        }
+        return properties;
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPERTIES.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        return value != null ? Long.parseLong(value) : defaultValue;
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+}
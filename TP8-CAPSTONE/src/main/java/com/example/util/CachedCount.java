@@ -0,0 +1,35 @@
+package com.example.util;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Total approximatif : le résultat d'un COUNT est réutilisé pendant une durée donnée
+ * au lieu d'être recalculé à chaque page. Une durée nulle désactive le cache.
+ */
+public class CachedCount {
+
+    private final LongSupplier counter;
+    private final long ttlNanos;
+    private volatile long value;
+    private volatile long computedAt;
+    private volatile boolean valid;
+
+    public CachedCount(LongSupplier counter, long ttlSeconds) {
+        this.counter = counter;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    public long get() {
+        long now = System.nanoTime();
+        if (!valid || now - computedAt >= ttlNanos) {
+            value = counter.getAsLong();
+            computedAt = now;
+            valid = true;
+        }
+        return value;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pools de connexions HikariCP partagés, un par base (URL + utilisateur) : les EntityManagerFactory
+ * (via PooledConnectionProvider) et DatabaseMigrationTool empruntent le même pool.
+ * Chaque acquire doit être suivi d'un release ; le pool est fermé au dernier release.
+ */
+public final class ConnectionPools {
+
+    private static final Map<String, SharedPool> POOLS = new HashMap<>();
+
+    private ConnectionPools() {}
+
+    private static final class SharedPool {
+        final HikariDataSource dataSource;
+        final PoolMetrics metrics;
+        int references;
+
+        SharedPool(HikariDataSource dataSource, PoolMetrics metrics) {
+            this.dataSource = dataSource;
+            this.metrics = metrics;
+        }
+    }
+
+    public static synchronized DataSource acquire(String jdbcUrl, String username, String password) {
+        String key = key(jdbcUrl, username);
+        SharedPool pool = POOLS.get(key);
+        if (pool == null) {
+            pool = create(jdbcUrl, username, password);
+            POOLS.put(key, pool);
+        }
+        pool.references++;
+        return pool.dataSource;
+    }
+
+    public static synchronized void release(DataSource dataSource) {
+        for (Map.Entry<String, SharedPool> entry : POOLS.entrySet()) {
+            SharedPool pool = entry.getValue();
+            if (pool.dataSource == dataSource) {
+                if (--pool.references == 0) {
+                    POOLS.remove(entry.getKey());
+                    pool.dataSource.close();
+                }
+                return;
+            }
+        }
+    }
+
+    /** Métriques du pool servant cette DataSource, null si elle n'est pas gérée ici */
+    public static synchronized PoolMetrics metricsOf(DataSource dataSource) {
+        for (SharedPool pool : POOLS.values()) {
+            if (pool.dataSource == dataSource) {
+                return pool.metrics;
+            }
+        }
+        return null;
+    }
+
+    /** Métriques du pool utilisé par cette EntityManagerFactory, null si elle n'utilise pas PooledConnectionProvider */
+    public static PoolMetrics metricsOf(EntityManagerFactory emf) {
+        ConnectionProvider provider = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(DataSource.class)) {
+            return null;
+        }
+        return metricsOf(provider.unwrap(DataSource.class));
+    }
+
+    /** Métriques de tous les pools ouverts */
+    public static synchronized List<PoolMetrics> allMetrics() {
+        List<PoolMetrics> metrics = new ArrayList<>();
+        for (SharedPool pool : POOLS.values()) {
+            metrics.add(pool.metrics);
+        }
+        return metrics;
+    }
+
+    private static SharedPool create(String jdbcUrl, String username, String password) {
+        String poolName = "pool-" + (POOLS.size() + 1);
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(AppConfig.getInt("db.pool.max-size", 20));
+        config.setMinimumIdle(AppConfig.getInt("db.pool.min-idle", 2));
+        config.setConnectionTimeout(AppConfig.getLong("db.pool.connection-timeout-ms", 30_000));
+        config.setIdleTimeout(AppConfig.getLong("db.pool.idle-timeout-ms", 600_000));
+        config.setLeakDetectionThreshold(AppConfig.getLong("db.pool.leak-detection-ms", 0));
+
+        // Cache de requêtes préparées côté pilote (MySQL Connector/J)
+        int statementCacheSize = AppConfig.getInt("db.pool.statement-cache-size", 250);
+        if (jdbcUrl.startsWith("jdbc:mysql:") && statementCacheSize > 0) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+        }
+
+        PoolMetrics metrics = new PoolMetrics(poolName);
+        config.setMetricsTrackerFactory(metrics);
+
+        HikariDataSource dataSource = new HikariDataSource(config);
+        metrics.attach(dataSource.getHikariPoolMXBean());
+        System.out.println("Pool de connexions " + poolName + " ouvert sur " + jdbcUrl +
+                " (min=" + config.getMinimumIdle() + ", max=" + config.getMaximumPoolSize() + ")");
+        return new SharedPool(dataSource, metrics);
+    }
+
+    private static String key(String jdbcUrl, String username) {
+        return username + "@" + jdbcUrl;
+    }
+}
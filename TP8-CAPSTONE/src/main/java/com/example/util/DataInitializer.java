@@ -1,13 +1,51 @@
 package com.example.util;
 
 import com.example.model.*;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 public class DataInitializer {
 
+    private static final String[] NOMS = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier"};
+
+    private static final String[] PRENOMS = {"Jean", "Marie", "Pierre", "Sophie", "Thomas", "Catherine", "Nicolas", "Isabelle", "Philippe", "Nathalie",
+            "Michel", "Françoise", "Patrick", "Monique", "René", "Sylvie", "Louis", "Anne", "Daniel", "Christine"};
+
+    private static final String[] DEPARTEMENTS = {"Ressources Humaines", "Informatique", "Finance", "Marketing", "Commercial",
+            "Production", "Recherche et Développement", "Juridique", "Communication", "Direction"};
+
+    private static final String[] MOTIFS = {
+            "Réunion d'équipe", "Entretien", "Formation", "Présentation client",
+            "Brainstorming", "Réunion de projet", "Conférence", "Atelier",
+            "Séminaire", "Réunion de direction", "Démonstration produit"
+    };
+
+    // Mode volume : lots envoyés avant chaque validation, pour borner la taille des transactions
+    private static final int BATCHES_PER_TRANSACTION = 20;
+    private static final int[] CAPACITES = {6, 8, 10, 12, 16, 20, 30, 50, 80, 120, 200};
+    // Équipements de toutes les salles : tableau blanc, WiFi, prises électriques
+    private static final int[] EQUIPEMENTS_DE_BASE = {3, 7, 9};
+
     private final EntityManagerFactory emf;
     private final Random random = new Random();
 
@@ -92,19 +130,10 @@ public class DataInitializer {
 
         Utilisateur[] utilisateurs = new Utilisateur[20];
 
-        String[] noms = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
-                "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier"};
-
-        String[] prenoms = {"Jean", "Marie", "Pierre", "Sophie", "Thomas", "Catherine", "Nicolas", "Isabelle", "Philippe", "Nathalie",
-                "Michel", "Françoise", "Patrick", "Monique", "René", "Sylvie", "Louis", "Anne", "Daniel", "Christine"};
-
-        String[] departements = {"Ressources Humaines", "Informatique", "Finance", "Marketing", "Commercial",
-                "Production", "Recherche et Développement", "Juridique", "Communication", "Direction"};
-
         for (int i = 0; i < 20; i++) {
-            utilisateurs[i] = new Utilisateur(noms[i], prenoms[i], prenoms[i].toLowerCase() + "." + noms[i].toLowerCase() + "@example.com");
+            utilisateurs[i] = new Utilisateur(NOMS[i], PRENOMS[i], PRENOMS[i].toLowerCase() + "." + NOMS[i].toLowerCase() + "@example.com");
             utilisateurs[i].setTelephone("06" + (10000000 + random.nextInt(90000000)));
-            utilisateurs[i].setDepartement(departements[i % 10]);
+            utilisateurs[i].setDepartement(DEPARTEMENTS[i % 10]);
             em.persist(utilisateurs[i]);
         }
 
@@ -189,11 +218,6 @@ public class DataInitializer {
         System.out.println("Création des réservations...");
 
         LocalDateTime now = LocalDateTime.now();
-        String[] motifs = {
-                "Réunion d'équipe", "Entretien", "Formation", "Présentation client",
-                "Brainstorming", "Réunion de projet", "Conférence", "Atelier",
-                "Séminaire", "Réunion de direction", "Démonstration produit"
-        };
 
         // Créer 100 réservations réparties sur les 3 prochains mois
         for (int i = 0; i < 100; i++) {
@@ -209,7 +233,7 @@ public class DataInitializer {
             Salle salle = salles[random.nextInt(salles.length)];
 
             // Créer la réservation
-            Reservation reservation = new Reservation(dateDebut, dateFin, motifs[random.nextInt(motifs.length)]);
+            Reservation reservation = new Reservation(dateDebut, dateFin, MOTIFS[random.nextInt(MOTIFS.length)]);
 
             // Définir le statut (80% confirmées, 10% en attente, 10% annulées)
             int statutRandom = random.nextInt(10);
@@ -228,4 +252,293 @@ public class DataInitializer {
             em.persist(reservation);
         }
     }
+    /**
+     * Jeu de données volumineux pour les tests de capacité, selon les clés data.scale.* de
+     * application.properties (voir initializeScaleData(int, int, long, long, int, LocalDate)).
+     */
+    public void initializeScaleData() {
+        String startDate = AppConfig.get("data.scale.start-date", "");
+        initializeScaleData(
+                AppConfig.getInt("data.scale.salles", 2000),
+                AppConfig.getInt("data.scale.utilisateurs", 5000),
+                AppConfig.getLong("data.scale.reservations", 1_000_000),
+                AppConfig.getLong("data.scale.seed", 42),
+                AppConfig.getInt("data.scale.producers", Runtime.getRuntime().availableProcessors()),
+                startDate.isEmpty() ? LocalDate.now() : LocalDate.parse(startDate));
+    }
+
+    /**
+     * Génère salleCount salles, utilisateurCount utilisateurs puis reservationCount réservations
+     * à partir de startDate, en jours ouvrés de 8 h à 19 h. Le contenu ne dépend que de seed :
+     * salles et utilisateurs sont insérés dans l'ordre par un seul thread (identifiants reproductibles
+     * sur une base vide), les réservations par producers threads qui se partagent les salles, chaque
+     * salle tirant son planning de son propre générateur.
+     *
+     * Insertions par lots JDBC de data.scale.batch-size lignes (identifiants de salles, utilisateurs et
+     * réservations tirés de séquences allouées par blocs), contexte de persistance vidé après
+     * chaque lot et validation tous les BATCHES_PER_TRANSACTION lots, sans alimenter le cache L2.
+     * Dans une salle, les réservations CONFIRMEE se suivent sans se chevaucher, même au sens inclusif
+     * de la vérification de disponibilité ; les réservations EN_ATTENTE et ANNULEE peuvent chevaucher
+     * la confirmation suivante.
+     */
+    public void initializeScaleData(int salleCount, int utilisateurCount, long reservationCount, long seed,
+                                    int producers, LocalDate startDate) {
+        int batchSize = AppConfig.getInt("data.scale.batch-size", 500);
+        System.out.println(String.format("Génération d'un jeu de données volumineux : %d salles, %d utilisateurs, "
+                        + "%d réservations (graine %d, %d producteurs, lots de %d)",
+                salleCount, utilisateurCount, reservationCount, seed, producers, batchSize));
+        long start = System.nanoTime();
+        Random seeded = new Random(seed);
+
+        // Seules les salles et utilisateurs créés ici reçoivent des réservations : aucun chevauchement
+        // possible avec des réservations existantes
+        long lastSalleId = maxId("SELECT COALESCE(MAX(s.id), 0) FROM Salle s");
+        long lastUtilisateurId = maxId("SELECT COALESCE(MAX(u.id), 0) FROM Utilisateur u");
+
+        Equipement[] equipements = findOrCreateEquipements();
+
+        System.out.println("Création des utilisateurs...");
+        persistInBatches(utilisateurCount, batchSize, (entityManager, i) -> {
+            String nom = NOMS[i % NOMS.length];
+            String prenom = PRENOMS[(i / NOMS.length) % PRENOMS.length];
+            Utilisateur utilisateur = new Utilisateur(nom, prenom,
+                    prenom.toLowerCase() + "." + nom.toLowerCase() + "." + (i + 1) + "@example.com");
+            utilisateur.setTelephone("06" + (10000000 + seeded.nextInt(90000000)));
+            utilisateur.setDepartement(DEPARTEMENTS[i % DEPARTEMENTS.length]);
+            entityManager.persist(utilisateur);
+        });
+
+        System.out.println("Création des salles...");
+        persistInBatches(salleCount, batchSize, (entityManager, i) -> {
+            int capacite = CAPACITES[seeded.nextInt(CAPACITES.length)];
+            Salle salle = new Salle("Salle S" + (i + 1), capacite);
+            salle.setDescription(capacite >= 50 ? "Salle de conférence" : capacite >= 16 ? "Salle de formation" : "Salle de réunion");
+            salle.setBatiment("Bâtiment " + (i / 100 + 1));
+            salle.setEtage((i / 10) % 10 + 1);
+            salle.setNumero("S" + (i + 1));
+            // Côté propriétaire seulement : la collection inverse Equipement.salles n'est pas chargée
+            for (int index : EQUIPEMENTS_DE_BASE) {
+                if (index < equipements.length) {
+                    salle.getEquipements().add(entityManager.getReference(Equipement.class, equipements[index].getId()));
+                }
+            }
+            for (Equipement equipement : equipements) {
+                if (seeded.nextInt(10) < 3) {
+                    salle.getEquipements().add(entityManager.getReference(Equipement.class, equipement.getId()));
+                }
+            }
+            entityManager.persist(salle);
+        });
+
+        List<Long> salleIds = ids("SELECT s.id FROM Salle s WHERE s.id > :after ORDER BY s.id", lastSalleId);
+        List<Long> utilisateurIds = ids("SELECT u.id FROM Utilisateur u WHERE u.id > :after ORDER BY u.id", lastUtilisateurId);
+        if (reservationCount > 0 && (salleIds.isEmpty() || utilisateurIds.isEmpty())) {
+            throw new IllegalArgumentException("Des réservations demandent au moins une salle et un utilisateur");
+        }
+
+        System.out.println("Création des réservations...");
+        createScaleReservations(salleIds, utilisateurIds, reservationCount, seed, Math.max(1, producers), startDate, batchSize);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("Jeu de données volumineux initialisé en %.1f s (%.0f lignes/s)",
+                seconds, (salleCount + utilisateurCount + reservationCount) / seconds));
+    }
+
+    /** Équipements existants (jeu de données de base déjà chargé), créés seulement si la table est vide */
+    private Equipement[] findOrCreateEquipements() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            Equipement[] equipements = em.createQuery("SELECT e FROM Equipement e ORDER BY e.id", Equipement.class)
+                    .getResultList()
+                    .toArray(new Equipement[0]);
+            if (equipements.length == 0) {
+                equipements = createEquipements(em);
+            }
+            em.getTransaction().commit();
+            return equipements;
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /** Insère count entités dans l'ordre, par lots, en un seul thread (identifiants reproductibles) */
+    private void persistInBatches(int count, int batchSize, BiConsumer<EntityManager, Integer> persistOne) {
+        EntityManager em = emf.createEntityManager();
+        Session session = em.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            em.getTransaction().begin();
+            for (int i = 0; i < count; i++) {
+                persistOne.accept(em, i);
+                if ((i + 1) % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.getTransaction().commit();
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private void createScaleReservations(List<Long> salleIds, List<Long> utilisateurIds, long reservationCount,
+                                         long seed, int producers, LocalDate startDate, int batchSize) {
+        AtomicLong inserted = new AtomicLong();
+        long start = System.nanoTime();
+
+        // Avancement toutes les data.scale.progress-seconds secondes
+        int progressSeconds = AppConfig.getInt("data.scale.progress-seconds", 5);
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        long[] previous = {0, start};
+        progress.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            long rows = inserted.get();
+            System.out.println(String.format("  %d / %d réservations (%.0f %%) : %.0f lignes/s, %.0f lignes/s en moyenne",
+                    rows, reservationCount, rows * 100.0 / Math.max(1, reservationCount),
+                    (rows - previous[0]) / ((now - previous[1]) / 1e9), rows / ((now - start) / 1e9)));
+            previous[0] = rows;
+            previous[1] = now;
+        }, progressSeconds, progressSeconds, TimeUnit.SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(executor.submit(() -> produceReservations(producer, producers, salleIds, utilisateurIds,
+                        reservationCount, seed, startDate, batchSize, inserted)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Génération des réservations interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec de la génération des réservations", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            progress.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("  %d réservations insérées en %.1f s (%.0f lignes/s)",
+                inserted.get(), seconds, inserted.get() / seconds));
+    }
+
+    /** Réservations des salles d'indice producer, producer + producers, ... dans les transactions du producteur */
+    private void produceReservations(int producer, int producers, List<Long> salleIds, List<Long> utilisateurIds,
+                                     long reservationCount, long seed, LocalDate startDate, int batchSize,
+                                     AtomicLong inserted) {
+        EntityManager em = emf.createEntityManager();
+        Session session = em.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            em.getTransaction().begin();
+            long pending = 0;
+            for (int s = producer; s < salleIds.size(); s += producers) {
+                long count = reservationCount / salleIds.size() + (s < reservationCount % salleIds.size() ? 1 : 0);
+                // Générateur propre à la salle : planning identique quel que soit le nombre de producteurs
+                Random random = new Random(seed ^ (0x9E3779B97F4A7C15L * (s + 1)));
+                LocalDateTime cursor = workingDay(startDate).atTime(8, 0);
+
+                for (long i = 0; i < count; i++) {
+                    // Écart de 15 min à 3 h après la dernière confirmation, durée de 30 min à 3 h
+                    LocalDateTime dateDebut = cursor.plusMinutes(15L * (1 + random.nextInt(12)));
+                    int minutes = 30 * (1 + random.nextInt(6));
+                    if (dateDebut.getHour() * 60 + dateDebut.getMinute() + minutes > 19 * 60) {
+                        dateDebut = workingDay(dateDebut.toLocalDate().plusDays(1)).atTime(8, 15 * random.nextInt(4));
+                    }
+                    LocalDateTime dateFin = dateDebut.plusMinutes(minutes);
+
+                    Reservation reservation = new Reservation(dateDebut, dateFin, MOTIFS[random.nextInt(MOTIFS.length)]);
+                    // 80 % confirmées, 10 % en attente, 10 % annulées
+                    int statutRandom = random.nextInt(10);
+                    if (statutRandom < 8) {
+                        reservation.setStatut(StatutReservation.CONFIRMEE);
+                        cursor = dateFin;
+                    } else if (statutRandom < 9) {
+                        reservation.setStatut(StatutReservation.EN_ATTENTE);
+                    } else {
+                        reservation.setStatut(StatutReservation.ANNULEE);
+                    }
+                    reservation.setSalle(em.getReference(Salle.class, salleIds.get(s)));
+                    reservation.setUtilisateur(em.getReference(Utilisateur.class,
+                            utilisateurIds.get(random.nextInt(utilisateurIds.size()))));
+                    em.persist(reservation);
+
+                    if (++pending % batchSize == 0) {
+                        // Envoi du lot puis libération du contexte de persistance
+                        em.flush();
+                        em.clear();
+                        inserted.addAndGet(batchSize);
+                        if (pending % ((long) batchSize * BATCHES_PER_TRANSACTION) == 0) {
+                            em.getTransaction().commit();
+                            em.getTransaction().begin();
+                        }
+                    }
+                }
+            }
+            em.getTransaction().commit();
+            inserted.addAndGet(pending % batchSize);
+        } catch (Exception e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /** Le jour même, ou le lundi suivant pour un samedi ou un dimanche */
+    private static LocalDate workingDay(LocalDate date) {
+        while (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+
+    private long maxId(String jpql) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery(jpql, Long.class).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private List<Long> ids(String jpql, long after) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery(jpql, Long.class).setParameter("after", after).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        // Argument : unité de persistance ; volumes, graine et producteurs selon data.scale.*
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit,
+                Collections.singletonMap("hibernate.show_sql", "false"));
+        try {
+            new DataInitializer(emf).initializeScaleData();
+        } finally {
+            emf.close();
+        }
+    }
 }
\ No newline at end of file
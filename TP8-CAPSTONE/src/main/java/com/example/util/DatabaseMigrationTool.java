@@ -1,10 +1,10 @@
 package com.example.util;
 
+import javax.sql.DataSource;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.Statement;
 import java.util.stream.Collectors;
 
@@ -21,11 +21,25 @@ public class DatabaseMigrationTool {
     }
 
     public void executeMigration() {
-        System.out.println("Démarrage de la migration de la base de données...");
+        executeMigration("migration_v2.sql");
+    }
+
+    public void executeMigration(String scriptName) {
+        System.out.println("Démarrage de la migration de la base de données (" + scriptName + ")...");
+
+        // Même pool que les EntityManagerFactory ouvertes sur cette base, s'il y en a
+        DataSource dataSource;
+        try {
+            dataSource = ConnectionPools.acquire(jdbcUrl, username, password);
+        } catch (RuntimeException e) {
+            System.err.println("Erreur lors de la migration: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
 
-        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+        try (Connection connection = dataSource.getConnection()) {
             // Charger le script SQL depuis les ressources
-            InputStream inputStream = getClass().getClassLoader().getResourceAsStream("migration_v2.sql");
+            InputStream inputStream = getClass().getClassLoader().getResourceAsStream(scriptName);
 
             if (inputStream == null) {
                 throw new RuntimeException("Script de migration non trouvé dans les ressources");
@@ -52,6 +66,8 @@ public class DatabaseMigrationTool {
         } catch (Exception e) {
             System.err.println("Erreur lors de la migration: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            ConnectionPools.release(dataSource);
         }
     }
 
@@ -63,6 +79,12 @@ public class DatabaseMigrationTool {
                 "password"
         );
 
-        migrationTool.executeMigration();
+        // Scripts passés en argument (ex: migration_v3.sql), migration_v2.sql par défaut
+        if (args.length == 0) {
+            migrationTool.executeMigration();
+        }
+        for (String scriptName : args) {
+            migrationTool.executeMigration(scriptName);
+        }
     }
 }
\ No newline at end of file
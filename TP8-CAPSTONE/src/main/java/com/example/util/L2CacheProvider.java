@@ -0,0 +1,54 @@
+package com.example.util;
+
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Choix du fournisseur de cache L2 (cache.l2.provider) : Ehcache 2 déclaré dans persistence.xml,
+ * ou Ehcache 3 via JCache avec des régions bornées en mégaoctets et un étage hors tas.
+ * Les propriétés renvoyées sont à passer à Persistence.createEntityManagerFactory : Hibernate
+ * les fait primer sur celles de persistence.xml.
+ */
+public final class L2CacheProvider {
+
+    public static final String EHCACHE2 = "ehcache2";
+    public static final String JCACHE = "jcache";
+
+    private L2CacheProvider() {}
+
+    public static String configuredMode() {
+        return AppConfig.get("cache.l2.provider", EHCACHE2);
+    }
+
+    /** Surcharges pour le mode configuré (aucune en mode ehcache2) */
+    public static Map<String, Object> overrides() {
+        return overrides(configuredMode());
+    }
+
+    public static Map<String, Object> overrides(String mode) {
+        Map<String, Object> properties = new HashMap<>();
+        if (EHCACHE2.equals(mode)) {
+            return properties;
+        }
+        if (!JCACHE.equals(mode)) {
+            throw new IllegalArgumentException("Fournisseur de cache L2 inconnu : " + mode + " (ehcache2 ou jcache)");
+        }
+        String resource = AppConfig.get("cache.l2.jcache.config", "ehcache3.xml");
+        URL url = L2CacheProvider.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IllegalStateException("Configuration Ehcache 3 introuvable dans le classpath : " + resource);
+        }
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        try {
+            properties.put("hibernate.javax.cache.uri", url.toURI().toString());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("URI invalide pour " + resource, e);
+        }
+        // Toute région doit être dimensionnée dans ehcache3.xml : pas de création implicite
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        return properties;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Jeton opaque de pagination par clé (keyset) : encode la clé de tri du dernier élément
+ * d'une page ("après cet élément"). Le client le renvoie tel quel pour obtenir la page suivante.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String[] keys;
+
+    private PageCursor(String[] keys) {
+        this.keys = keys;
+    }
+
+    public static String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null pour un jeton null ou vide (première page)
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new PageCursor(raw.split("\\" + SEPARATOR, -1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Jeton de pagination invalide: " + token, e);
+        }
+    }
+
+    public Long getLong(int index) {
+        return Long.valueOf(key(index));
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return LocalDateTime.parse(key(index));
+    }
+
+    private String key(int index) {
+        if (index >= keys.length) {
+            throw new IllegalArgumentException("Jeton de pagination incomplet");
+        }
+        return keys[index];
+    }
+}
@@ -2,12 +2,20 @@ package com.example.util;
 
 import java.util.List;
 
+/**
+ * Page de résultats, en pagination par numéro de page (OFFSET) ou par clé (keyset).
+ *
+ * En mode keyset, la page suivante est désignée par un jeton opaque (getNextCursor),
+ * hasNext est déterminé en lisant pageSize + 1 lignes, et le total éventuel est approximatif.
+ */
 public class PaginationResult<T> {
     private final List<T> items;
     private final int currentPage;
     private final int pageSize;
     private final long totalItems;
     private final int totalPages;
+    private final boolean keyset;
+    private final String nextCursor;
 
     public PaginationResult(List<T> items, int currentPage, int pageSize, long totalItems) {
         this.items = items;
@@ -15,12 +23,36 @@ public class PaginationResult<T> {
         this.pageSize = pageSize;
         this.totalItems = totalItems;
         this.totalPages = (int) Math.ceil((double) totalItems / pageSize);
+        this.keyset = false;
+        this.nextCursor = null;
+    }
+
+    private PaginationResult(List<T> items, int pageSize, String nextCursor, long approximateTotal) {
+        this.items = items;
+        this.currentPage = 0;
+        this.pageSize = pageSize;
+        this.totalItems = approximateTotal;
+        this.totalPages = approximateTotal < 0 ? -1 : (int) Math.ceil((double) approximateTotal / pageSize);
+        this.keyset = true;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Page en mode keyset.
+     * @param nextCursor jeton de la page suivante, null s'il n'y en a pas
+     * @param approximateTotal total approximatif, -1 s'il n'est pas calculé
+     */
+    public static <T> PaginationResult<T> ofKeyset(List<T> items, int pageSize, String nextCursor, long approximateTotal) {
+        return new PaginationResult<>(items, pageSize, nextCursor, approximateTotal);
     }
 
     public List<T> getItems() {
         return items;
     }
 
+    /**
+     * Numéro de page (mode OFFSET uniquement, 0 en mode keyset).
+     */
     public int getCurrentPage() {
         return currentPage;
     }
@@ -37,8 +69,23 @@ public class PaginationResult<T> {
         return totalPages;
     }
 
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    /**
+     * En mode keyset, le total est approximatif (ou inconnu si négatif).
+     */
+    public boolean isApproximateTotal() {
+        return keyset;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
     public boolean hasNext() {
-        return currentPage < totalPages;
+        return keyset ? nextCursor != null : currentPage < totalPages;
     }
 
     public boolean hasPrevious() {
@@ -1,221 +1,441 @@
 package com.example.util;
 
-import org.hibernate.Session;
+import com.example.model.Salle;
+import org.hibernate.SessionFactory;
 import org.hibernate.stat.Statistics;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
-import java.io.FileWriter;
+import javax.persistence.Persistence;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Rapport de performance des requêtes principales : pour chaque test, WARMUP exécutions de chauffe
+ * puis ITERATIONS exécutions mesurées une à une (System.nanoTime), percentiles exacts p50/p90/p99
+ * sur les échantillons, et par exécution : requêtes, instructions SQL, entités chargées, accès au
+ * cache L2 (statistiques Hibernate, activées le temps du rapport).
+ *
+ * Le rapport est écrit en JSON et en CSV. Il est comparé à une référence (CSV d'un rapport
+ * précédent, performance.report.baseline) : un test est en régression si son p50 dépasse la
+ * référence de plus de performance.report.tolerance-percent, son p90 de plus de
+ * performance.report.tail-tolerance-percent (la queue de distribution est plus bruitée), ou s'il
+ * exécute plus d'instructions SQL par exécution (écart déterministe, typiquement un N+1). Sans
+ * fichier de référence, le rapport courant le devient.
+ */
 public class PerformanceReport {
 
+    private static final String[] CSV_HEADER = {"test", "iterations", "mean_ms", "p50_ms", "p90_ms", "p99_ms",
+            "max_ms", "queries_per_op", "statements_per_op", "entity_loads_per_op", "l2_hits_per_op",
+            "l2_misses_per_op", "result_size"};
+
+    /** Mesures d'un test : durées triées (ns) et compteurs Hibernate moyens par exécution */
+    static final class TestResult {
+        final String name;
+        final long[] samples;
+        final double queriesPerOp;
+        final double statementsPerOp;
+        final double entityLoadsPerOp;
+        final double l2HitsPerOp;
+        final double l2MissesPerOp;
+        final int resultSize;
+
+        TestResult(String name, long[] samples, double queriesPerOp, double statementsPerOp, double entityLoadsPerOp,
+                   double l2HitsPerOp, double l2MissesPerOp, int resultSize) {
+            this.name = name;
+            this.samples = samples;
+            this.queriesPerOp = queriesPerOp;
+            this.statementsPerOp = statementsPerOp;
+            this.entityLoadsPerOp = entityLoadsPerOp;
+            this.l2HitsPerOp = l2HitsPerOp;
+            this.l2MissesPerOp = l2MissesPerOp;
+            this.resultSize = resultSize;
+        }
+
+        /** Percentile au rang le plus proche, en millisecondes */
+        double percentileMillis(double percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * samples.length);
+            return samples[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        double meanMillis() {
+            double sum = 0;
+            for (long sample : samples) {
+                sum += sample;
+            }
+            return sum / samples.length / 1e6;
+        }
+
+        double maxMillis() {
+            return samples[samples.length - 1] / 1e6;
+        }
+    }
+
+    /** Ligne d'un CSV de référence : seules les colonnes comparées sont relues */
+    static final class Baseline {
+        final double p50;
+        final double p90;
+        final double statementsPerOp;
+
+        Baseline(double p50, double p90, double statementsPerOp) {
+            this.p50 = p50;
+            this.p90 = p90;
+            this.statementsPerOp = statementsPerOp;
+        }
+    }
+
     private final EntityManagerFactory emf;
-    private final Map<String, TestResult> results = new HashMap<>();
+    private final int warmup;
+    private final int iterations;
+    private final int tolerancePercent;
+    private final int tailTolerancePercent;
+    private final Path baselineFile;
+    // Ordre d'exécution conservé dans les exports
+    private final Map<String, TestResult> results = new LinkedHashMap<>();
 
     public PerformanceReport(EntityManagerFactory emf) {
+        this(emf, AppConfig.getInt("performance.report.warmup", 20),
+                AppConfig.getInt("performance.report.iterations", 100),
+                AppConfig.getInt("performance.report.tolerance-percent", 20),
+                AppConfig.getInt("performance.report.tail-tolerance-percent", 50),
+                Paths.get(AppConfig.get("performance.report.baseline", "performance_baseline.csv")));
+    }
+
+    public PerformanceReport(EntityManagerFactory emf, int warmup, int iterations, int tolerancePercent,
+                             int tailTolerancePercent, Path baselineFile) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Au moins une itération mesurée est nécessaire: " + iterations);
+        }
         this.emf = emf;
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.tolerancePercent = tolerancePercent;
+        this.tailTolerancePercent = tailTolerancePercent;
+        this.baselineFile = baselineFile;
     }
 
-    public void runPerformanceTests() {
-        System.out.println("Exécution des tests de performance...");
+    /**
+     * Exécute les tests, écrit les exports JSON / CSV et compare à la référence.
+     *
+     * @return false si au moins un test est en régression
+     */
+    public boolean runPerformanceTests() {
+        System.out.println("Exécution des tests de performance (" + warmup + " exécutions de chauffe, "
+                + iterations + " mesurées par test)...");
+        results.clear();
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            runTests(statistics);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
 
-        // Réinitialiser les statistiques Hibernate
-        resetStatistics();
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        Path jsonFile = Paths.get("performance_report_" + stamp + ".json");
+        Path csvFile = Paths.get("performance_report_" + stamp + ".csv");
+        try {
+            Files.write(jsonFile, toJson().getBytes(StandardCharsets.UTF_8));
+            Files.write(csvFile, toCsv().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Rapport généré: " + jsonFile + ", " + csvFile);
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la génération du rapport: " + e.getMessage());
+        }
+        return compareToBaseline(csvFile);
+    }
+
+    private void runTests(Statistics statistics) {
+        Long salleId;
+        EntityManager lookup = emf.createEntityManager();
+        try {
+            salleId = lookup.createQuery("SELECT MIN(s.id) FROM Salle s", Long.class).getSingleResult();
+        } finally {
+            lookup.close();
+        }
 
         // Test 1: Recherche de salles disponibles
-        testPerformance("Recherche de salles disponibles", () -> {
-            EntityManager em = emf.createEntityManager();
-            try {
-                LocalDateTime start = LocalDateTime.now().plusDays(1);
-                LocalDateTime end = start.plusHours(2);
-
-                return em.createQuery(
-                                "SELECT DISTINCT s FROM Salle s WHERE s.id NOT IN " +
-                                        "(SELECT r.salle.id FROM Reservation r " +
-                                        "WHERE (r.dateDebut <= :end AND r.dateFin >= :start))")
-                        .setParameter("start", start)
-                        .setParameter("end", end)
-                        .getResultList();
-            } finally {
-                em.close();
-            }
-        });
+        testPerformance(statistics, "Recherche de salles disponibles", () -> inEntityManager(em -> {
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            LocalDateTime end = start.plusHours(2);
+
+            return em.createQuery(
+                            "SELECT DISTINCT s FROM Salle s WHERE s.id NOT IN " +
+                                    "(SELECT r.salle.id FROM Reservation r " +
+                                    "WHERE (r.dateDebut <= :end AND r.dateFin >= :start))")
+                    .setParameter("start", start)
+                    .setParameter("end", end)
+                    .getResultList();
+        }));
 
         // Test 2: Recherche multi-critères
-        testPerformance("Recherche multi-critères", () -> {
-            EntityManager em = emf.createEntityManager();
-            try {
-                return em.createQuery(
-                                "SELECT DISTINCT s FROM Salle s JOIN s.equipements e " +
-                                        "WHERE s.capacite >= :capacite AND s.batiment = :batiment AND e.id = :equipementId")
-                        .setParameter("capacite", 30)
-                        .setParameter("batiment", "Bâtiment B")
-                        .setParameter("equipementId", 1L)
-                        .getResultList();
-            } finally {
-                em.close();
-            }
-        });
+        testPerformance(statistics, "Recherche multi-critères", () -> inEntityManager(em -> em.createQuery(
+                        "SELECT DISTINCT s FROM Salle s JOIN s.equipements e " +
+                                "WHERE s.capacite >= :capacite AND s.batiment = :batiment AND e.id = :equipementId")
+                .setParameter("capacite", 30)
+                .setParameter("batiment", "Bâtiment B")
+                .setParameter("equipementId", 1L)
+                .getResultList()));
 
         // Test 3: Pagination
-        testPerformance("Pagination", () -> {
-            EntityManager em = emf.createEntityManager();
-            try {
-                return em.createQuery("SELECT s FROM Salle s ORDER BY s.id", Object.class)
-                        .setFirstResult(0)
-                        .setMaxResults(10)
-                        .getResultList();
-            } finally {
-                em.close();
-            }
-        });
-
-        // Test 4: Accès répété avec cache
-        testPerformance("Accès répété avec cache", () -> {
-            Object result = null;
-            for (int i = 0; i < 100; i++) {
-                EntityManager em = emf.createEntityManager();
-                try {
-                    result = em.find(Object.class, 1L);
-                } finally {
-                    em.close();
-                }
-            }
-            return result;
-        });
+        testPerformance(statistics, "Pagination", () -> inEntityManager(em -> em.createQuery(
+                        "SELECT s FROM Salle s ORDER BY s.id", Object.class)
+                .setFirstResult(0)
+                .setMaxResults(10)
+                .getResultList()));
+
+        // Test 4: Accès répété à une salle, un EntityManager par accès : servi par le cache L2 s'il est actif
+        if (salleId != null) {
+            testPerformance(statistics, "Accès répété avec cache", () -> inEntityManager(
+                    em -> em.find(Salle.class, salleId)));
+        }
 
         // Test 5: Requête avec JOIN FETCH
-        testPerformance("Requête avec JOIN FETCH", () -> {
-            EntityManager em = emf.createEntityManager();
-            try {
-                return em.createQuery(
-                                "SELECT DISTINCT s FROM Salle s LEFT JOIN FETCH s.equipements WHERE s.capacite > 20",
-                                Object.class)
-                        .getResultList();
-            } finally {
-                em.close();
-            }
-        });
-
-        // Générer le rapport
-        generateReport();
+        testPerformance(statistics, "Requête avec JOIN FETCH", () -> inEntityManager(em -> em.createQuery(
+                        "SELECT DISTINCT s FROM Salle s LEFT JOIN FETCH s.equipements WHERE s.capacite > 20",
+                        Object.class)
+                .getResultList()));
     }
 
-    private void testPerformance(String testName, Supplier<?> testFunction) {
+    private void testPerformance(Statistics statistics, String testName, Supplier<?> testFunction) {
         System.out.println("Exécution du test: " + testName);
 
-        // Réinitialiser les statistiques avant le test
-        resetStatistics();
-
-        // Mesurer le temps d'exécution
-        long startTime = System.currentTimeMillis();
-        Object result = testFunction.get();
-        long endTime = System.currentTimeMillis();
-        long executionTime = endTime - startTime;
-
-        // Récupérer les statistiques Hibernate
-        Session session = emf.createEntityManager().unwrap(Session.class);
-        Statistics stats = session.getSessionFactory().getStatistics();
-
-        // Enregistrer les résultats
-        TestResult testResult = new TestResult();
-        testResult.executionTime = executionTime;
-        testResult.queryCount = stats.getQueryExecutionCount();
-        testResult.entityLoadCount = stats.getEntityLoadCount();
-        testResult.cacheHitCount = stats.getSecondLevelCacheHitCount();
-        testResult.cacheMissCount = stats.getSecondLevelCacheMissCount();
-        testResult.resultSize = (result instanceof java.util.Collection) ?
-                ((java.util.Collection<?>) result).size() : (result != null ? 1 : 0);
+        for (int i = 0; i < warmup; i++) {
+            testFunction.get();
+        }
 
+        // Compteurs remis à zéro après la chauffe : seules les exécutions mesurées comptent
+        statistics.clear();
+        long[] samples = new long[iterations];
+        Object result = null;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            result = testFunction.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        TestResult testResult = new TestResult(testName, samples,
+                (double) statistics.getQueryExecutionCount() / iterations,
+                (double) statistics.getPrepareStatementCount() / iterations,
+                (double) statistics.getEntityLoadCount() / iterations,
+                (double) statistics.getSecondLevelCacheHitCount() / iterations,
+                (double) statistics.getSecondLevelCacheMissCount() / iterations,
+                result instanceof Collection ? ((Collection<?>) result).size() : (result != null ? 1 : 0));
         results.put(testName, testResult);
 
-        System.out.println("Test terminé: " + testName + " en " + executionTime + "ms");
+        System.out.println(String.format(Locale.ROOT, "Test terminé: %s p50=%.3fms p90=%.3fms p99=%.3fms",
+                testName, testResult.percentileMillis(50), testResult.percentileMillis(90),
+                testResult.percentileMillis(99)));
     }
 
-    private void resetStatistics() {
-        Session session = emf.createEntityManager().unwrap(Session.class);
-        Statistics stats = session.getSessionFactory().getStatistics();
-        stats.clear();
+    private <T> T inEntityManager(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
     }
 
-    private void generateReport() {
-        System.out.println("Génération du rapport de performance...");
-
-        String fileName = "performance_report_" +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt";
-
-        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName))) {
-            writer.println("=== RAPPORT DE PERFORMANCE ===");
-            writer.println("Date: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            writer.println("=================================\n");
-
-            for (Map.Entry<String, TestResult> entry : results.entrySet()) {
-                writer.println("Test: " + entry.getKey());
-                writer.println("Temps d'exécution: " + entry.getValue().executionTime + "ms");
-                writer.println("Nombre de requêtes: " + entry.getValue().queryCount);
-                writer.println("Entités chargées: " + entry.getValue().entityLoadCount);
-                writer.println("Hits du cache: " + entry.getValue().cacheHitCount);
-                writer.println("Miss du cache: " + entry.getValue().cacheMissCount);
-                writer.println("Taille du résultat: " + entry.getValue().resultSize);
-
-                // Calculer le ratio de hit du cache
-                long totalCacheAccess = entry.getValue().cacheHitCount + entry.getValue().cacheMissCount;
-                double cacheHitRatio = totalCacheAccess > 0 ?
-                        (double) entry.getValue().cacheHitCount / totalCacheAccess : 0;
-                writer.println("Ratio de hit du cache: " + String.format("%.2f", cacheHitRatio * 100) + "%");
-
-                writer.println("----------------------------------\n");
+    /**
+     * Compare le rapport courant à la référence et affiche le verdict de chaque test ; crée la
+     * référence à partir du CSV courant si elle n'existe pas encore.
+     */
+    private boolean compareToBaseline(Path csvFile) {
+        if (!Files.exists(baselineFile)) {
+            try {
+                Files.copy(csvFile, baselineFile);
+                System.out.println("Aucune référence: " + baselineFile + " créée à partir de ce rapport");
+            } catch (IOException e) {
+                System.err.println("Impossible de créer la référence " + baselineFile + ": " + e.getMessage());
             }
+            printTable(new HashMap<>());
+            return true;
+        }
 
-            writer.println("\n=== RECOMMANDATIONS ===");
+        Map<String, Baseline> baseline;
+        try {
+            baseline = readBaseline(baselineFile);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Référence illisible " + baselineFile + ": " + e.getMessage());
+            printTable(new HashMap<>());
+            return true;
+        }
+        return printTable(baseline);
+    }
 
-            // Analyser les résultats et fournir des recommandations
-            boolean needsCacheOptimization = results.values().stream()
-                    .anyMatch(r -> r.cacheHitCount < r.cacheMissCount && r.queryCount > 5);
+    /** Tableau des résultats avec, si la référence le permet, l'écart et le verdict ; false en cas de régression */
+    private boolean printTable(Map<String, Baseline> baseline) {
+        System.out.println("\n=== RAPPORT DE PERFORMANCE (tolérance p50 " + tolerancePercent + " %, p90 "
+                + tailTolerancePercent + " %) ===");
+        System.out.println(String.format("%-32s | %9s | %9s | %9s | %9s | %7s | %9s | %s",
+                "Test", "p50 (ms)", "p90 (ms)", "p99 (ms)", "max (ms)", "SQL/op", "L2 succès", "Verdict"));
+        boolean success = true;
+        for (TestResult result : results.values()) {
+            String verdict = verdict(result, baseline.get(result.name));
+            success &= !verdict.startsWith("RÉGRESSION");
+            long l2Accesses = Math.round((result.l2HitsPerOp + result.l2MissesPerOp) * iterations);
+            System.out.println(String.format("%-32s | %9.3f | %9.3f | %9.3f | %9.3f | %7.2f | %9s | %s",
+                    result.name, result.percentileMillis(50), result.percentileMillis(90),
+                    result.percentileMillis(99), result.maxMillis(), result.statementsPerOp,
+                    l2Accesses == 0 ? "-" : String.format("%.0f %%", 100 * result.l2HitsPerOp
+                            / (result.l2HitsPerOp + result.l2MissesPerOp)),
+                    verdict));
+        }
+        return success;
+    }
 
-            boolean needsQueryOptimization = results.values().stream()
-                    .anyMatch(r -> r.queryCount > 10 || r.executionTime > 500);
+    private String verdict(TestResult result, Baseline reference) {
+        if (reference == null) {
+            return "sans référence";
+        }
+        double limit = 1 + tolerancePercent / 100.0;
+        List<String> regressions = new ArrayList<>();
+        if (result.percentileMillis(50) > reference.p50 * limit) {
+            regressions.add(String.format(Locale.ROOT, "p50 %+.0f %%", 100 * (result.percentileMillis(50) / reference.p50 - 1)));
+        }
+        if (result.percentileMillis(90) > reference.p90 * (1 + tailTolerancePercent / 100.0)) {
+            regressions.add(String.format(Locale.ROOT, "p90 %+.0f %%", 100 * (result.percentileMillis(90) / reference.p90 - 1)));
+        }
+        // Moyennes sur les exécutions mesurées : un écart d'au moins une demi-instruction n'est pas du bruit
+        if (result.statementsPerOp > reference.statementsPerOp + 0.5) {
+            regressions.add(String.format(Locale.ROOT, "SQL/op %.2f -> %.2f", reference.statementsPerOp, result.statementsPerOp));
+        }
+        if (!regressions.isEmpty()) {
+            return "RÉGRESSION (" + String.join(", ", regressions) + ")";
+        }
+        if (result.percentileMillis(50) < reference.p50 / limit) {
+            return String.format(Locale.ROOT, "amélioration (p50 %+.0f %%)", 100 * (result.percentileMillis(50) / reference.p50 - 1));
+        }
+        return "stable";
+    }
 
-            if (needsCacheOptimization) {
-                writer.println("1. Optimisation du cache recommandée:");
-                writer.println("   - Vérifier la configuration du cache de second niveau");
-                writer.println("   - Ajuster les paramètres de cache pour les entités fréquemment accédées");
-                writer.println("   - Considérer l'utilisation du cache de requête pour les requêtes répétitives");
+    static Map<String, Baseline> readBaseline(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) {
+            throw new IOException("fichier vide");
+        }
+        List<String> header = parseCsvLine(lines.get(0));
+        int test = header.indexOf("test");
+        int p50 = header.indexOf("p50_ms");
+        int p90 = header.indexOf("p90_ms");
+        int statements = header.indexOf("statements_per_op");
+        if (test < 0 || p50 < 0 || p90 < 0 || statements < 0) {
+            throw new IOException("colonnes attendues: test, p50_ms, p90_ms, statements_per_op");
+        }
+        Map<String, Baseline> baseline = new HashMap<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty()) {
+                continue;
             }
+            List<String> fields = parseCsvLine(line);
+            baseline.put(fields.get(test), new Baseline(Double.parseDouble(fields.get(p50)),
+                    Double.parseDouble(fields.get(p90)), Double.parseDouble(fields.get(statements))));
+        }
+        return baseline;
+    }
 
-            if (needsQueryOptimization) {
-                writer.println("2. Optimisation des requêtes recommandée:");
-                writer.println("   - Utiliser JOIN FETCH pour éviter les problèmes N+1");
-                writer.println("   - Créer des index sur les colonnes fréquemment utilisées dans les WHERE");
-                writer.println("   - Optimiser les requêtes qui prennent plus de 500ms");
-            }
+    public String toCsv() {
+        StringBuilder out = new StringBuilder(String.join(",", CSV_HEADER)).append('\n');
+        for (TestResult result : results.values()) {
+            out.append(quote(result.name))
+                    .append(',').append(result.samples.length)
+                    .append(String.format(Locale.ROOT, ",%.4f,%.4f,%.4f,%.4f,%.4f,%.2f,%.2f,%.2f,%.2f,%.2f,",
+                            result.meanMillis(), result.percentileMillis(50), result.percentileMillis(90),
+                            result.percentileMillis(99), result.maxMillis(), result.queriesPerOp,
+                            result.statementsPerOp, result.entityLoadsPerOp, result.l2HitsPerOp, result.l2MissesPerOp))
+                    .append(result.resultSize).append('\n');
+        }
+        return out.toString();
+    }
 
-            writer.println("\n3. Recommandations générales:");
-            writer.println("   - Surveiller régulièrement les performances avec des outils comme JProfiler");
-            writer.println("   - Mettre en place un monitoring en production");
-            writer.println("   - Considérer l'utilisation d'un pool de connexions optimisé");
+    public String toJson() {
+        StringBuilder out = new StringBuilder("{\"date\":\"")
+                .append(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME))
+                .append("\",\"warmup\":").append(warmup)
+                .append(",\"iterations\":").append(iterations)
+                .append(",\"tests\":[");
+        String separator = "\n  ";
+        for (TestResult result : results.values()) {
+            out.append(separator).append("{\"test\":\"").append(result.name.replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append(String.format(Locale.ROOT, "\",\"meanMs\":%.4f,\"p50Ms\":%.4f,\"p90Ms\":%.4f,\"p99Ms\":%.4f,"
+                                    + "\"maxMs\":%.4f,\"queriesPerOp\":%.2f,\"statementsPerOp\":%.2f,"
+                                    + "\"entityLoadsPerOp\":%.2f,\"l2HitsPerOp\":%.2f,\"l2MissesPerOp\":%.2f,\"resultSize\":%d}",
+                            result.meanMillis(), result.percentileMillis(50), result.percentileMillis(90),
+                            result.percentileMillis(99), result.maxMillis(), result.queriesPerOp,
+                            result.statementsPerOp, result.entityLoadsPerOp, result.l2HitsPerOp,
+                            result.l2MissesPerOp, result.resultSize));
+            separator = ",\n  ";
+        }
+        return out.append(results.isEmpty() ? "]}" : "\n]}").append('\n').toString();
+    }
 
-            System.out.println("Rapport généré: " + fileName);
+    private static String quote(String field) {
+        return field.contains(",") || field.contains("\"") ? "\"" + field.replace("\"", "\"\"") + "\"" : field;
+    }
 
-        } catch (IOException e) {
-            System.err.println("Erreur lors de la génération du rapport: " + e.getMessage());
-            e.printStackTrace();
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
         }
+        fields.add(field.toString());
+        return fields;
     }
 
-    private static class TestResult {
-        long executionTime;
-        long queryCount;
-        long entityLoadCount;
-        long cacheHitCount;
-        long cacheMissCount;
-        int resultSize;
+    /** Rapport en ligne de commande (intégration continue) : code de sortie 1 en cas de régression */
+    public static void main(String[] args) {
+        String persistenceUnit = args.length > 0 ? args[0] : "gestion-reservations-h2";
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.show_sql", "false");
+        EntityManagerFactory emf = Persistence.createEntityManagerFactory(persistenceUnit, properties);
+        boolean success;
+        try {
+            if (persistenceUnit.endsWith("-h2")) {
+                new DataInitializer(emf).initializeData();
+            }
+            success = new PerformanceReport(emf).runPerformanceTests();
+        } finally {
+            emf.close();
+        }
+        if (!success) {
+            System.exit(1);
+        }
     }
 }
\ No newline at end of file
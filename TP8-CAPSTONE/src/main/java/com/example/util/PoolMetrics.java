@@ -0,0 +1,114 @@
+package com.example.util;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métriques d'un pool de connexions : attente d'acquisition (histogramme), durée
+ * d'utilisation, créations, délais dépassés, et état instantané du pool (actives, inactives,
+ * threads en attente).
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private final String poolName;
+    private final LatencyHistogram acquisition = new LatencyHistogram();
+    private final LatencyHistogram usage = new LatencyHistogram();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private volatile HikariPoolMXBean pool;
+
+    public PoolMetrics(String poolName) {
+        this.poolName = poolName;
+    }
+
+    @Override
+    public IMetricsTracker create(String name, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                created.incrementAndGet();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquisition.record(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(elapsedBorrowedMillis * 1_000_000L);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.incrementAndGet();
+            }
+        };
+    }
+
+    void attach(HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getActiveConnections() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getActiveConnections() : 0;
+    }
+
+    public int getIdleConnections() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getIdleConnections() : 0;
+    }
+
+    public int getTotalConnections() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getTotalConnections() : 0;
+    }
+
+    public int getThreadsAwaitingConnection() {
+        HikariPoolMXBean current = pool;
+        return current != null ? current.getThreadsAwaitingConnection() : 0;
+    }
+
+    /** Temps d'attente pour obtenir une connexion du pool */
+    public LatencyHistogram getAcquisition() {
+        return acquisition;
+    }
+
+    /** Durée pendant laquelle une connexion reste empruntée (résolution : milliseconde) */
+    public LatencyHistogram getUsage() {
+        return usage;
+    }
+
+    public long getConnectionsCreated() {
+        return created.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public void reset() {
+        acquisition.reset();
+        usage.reset();
+        created.set(0);
+        timeouts.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool %s : actives=%d inactives=%d total=%d en attente=%d créées=%d délais dépassés=%d%n" +
+                        "  attente totale=%.1fms acquisition [%s]%n  utilisation [%s]",
+                poolName, getActiveConnections(), getIdleConnections(), getTotalConnections(),
+                getThreadsAwaitingConnection(), getConnectionsCreated(), getTimeouts(),
+                acquisition.getTotalNanos() / 1e6, acquisition.summary(), usage.summary());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.util;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Fournisseur de connexions Hibernate adossé aux pools partagés de ConnectionPools.
+ * Déclaré dans persistence.xml (hibernate.connection.provider_class) ; la connexion est
+ * décrite par les propriétés javax.persistence.jdbc.* habituelles. Les connexions remises à
+ * Hibernate sont chronométrées par le journal des requêtes lentes (SlowQueryLog), s'il est activé.
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    private DataSource dataSource;
+    private SlowQueryLog slowQueryLog;
+
+    @Override
+    public void configure(Map configurationValues) {
+        String url = setting(configurationValues, "javax.persistence.jdbc.url", "hibernate.connection.url");
+        String user = setting(configurationValues, "javax.persistence.jdbc.user", "hibernate.connection.username");
+        String password = setting(configurationValues, "javax.persistence.jdbc.password", "hibernate.connection.password");
+        if (url == null) {
+            throw new IllegalStateException("Aucune URL JDBC configurée (javax.persistence.jdbc.url)");
+        }
+        dataSource = ConnectionPools.acquire(url, user, password != null ? password : "");
+        slowQueryLog = SlowQueryLog.fromConfig(dataSource, configurationValues);
+    }
+
+    private static String setting(Map configurationValues, String key, String fallbackKey) {
+        Object value = configurationValues.get(key);
+        if (value == null) {
+            value = configurationValues.get(fallbackKey);
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /** Journal des requêtes lentes de cette unité de persistance, null s'il est désactivé */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        return slowQueryLog != null ? slowQueryLog.wrap(connection) : connection;
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        // Rend la connexion au pool
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public void stop() {
+        // Entrées en attente écrites (et expliquées) avant la fermeture du pool
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+            slowQueryLog = null;
+        }
+        if (dataSource != null) {
+            ConnectionPools.release(dataSource);
+            dataSource = null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return ConnectionProvider.class.equals(unwrapType)
+                || PooledConnectionProvider.class.isAssignableFrom(unwrapType)
+                || DataSource.class.isAssignableFrom(unwrapType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (ConnectionProvider.class.equals(unwrapType) || PooledConnectionProvider.class.isAssignableFrom(unwrapType)) {
+            return (T) this;
+        }
+        if (DataSource.class.isAssignableFrom(unwrapType)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.util;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Journal des requêtes lentes, à la place de hibernate.show_sql : les connexions fournies par
+ * PooledConnectionProvider sont enveloppées pour chronométrer chaque exécution JDBC. Seules les
+ * instructions dont l'exécution dépasse le seuil sont journalisées, avec la méthode de repository
+ * (ou à défaut la classe de l'application) d'où elles partent et leurs paramètres liés ; la première
+ * occurrence de chaque forme de requête (littéraux et listes IN normalisés) est suivie de son plan
+ * EXPLAIN, obtenu sur une autre connexion du pool avec les mêmes paramètres.
+ *
+ * La mise en forme, l'EXPLAIN et l'écriture se font sur un thread dédié : le thread appelant ne paie
+ * que le chronométrage, la copie des paramètres et, pour une requête lente, la recherche de la
+ * méthode d'origine dans la pile. Si la file d'attente est pleine, l'entrée est abandonnée et comptée.
+ * Le temps mesuré est celui de l'appel execute* : la lecture du ResultSet n'y figure pas.
+ */
+public class SlowQueryLog implements AutoCloseable {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_PARAMETER_LENGTH = 200;
+    // Au-delà, les nouvelles formes ne sont plus mémorisées (et leur plan n'est plus capturé)
+    private static final int MAX_SHAPES = 10_000;
+
+    /** Instruction lente capturée sur le thread appelant, mise en forme par le thread d'écriture */
+    private static final class SlowStatement {
+        final LocalDateTime timestamp = LocalDateTime.now();
+        final String thread = Thread.currentThread().getName();
+        final long elapsedNanos;
+        final String sql;
+        final Object[] parameters;
+        final int batchSize;
+        final String origin;
+
+        SlowStatement(long elapsedNanos, String sql, Object[] parameters, int batchSize, String origin) {
+            this.elapsedNanos = elapsedNanos;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+            this.origin = origin;
+        }
+    }
+
+    private final DataSource dataSource;
+    private final long thresholdNanos;
+    private final boolean explain;
+    private final Path file;
+    private final ThreadPoolExecutor writer;
+    // Formes de requêtes déjà expliquées (thread d'écriture uniquement)
+    private final Set<String> explainedShapes = new HashSet<>();
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param dataSource pool sur lequel les plans EXPLAIN sont demandés
+     * @param file       fichier complété par le journal, null pour la sortie standard
+     */
+    public SlowQueryLog(DataSource dataSource, long thresholdMillis, boolean explain, Path file, int queueCapacity) {
+        if (thresholdMillis < 0) {
+            throw new IllegalArgumentException("Le seuil des requêtes lentes doit être positif ou nul: " + thresholdMillis);
+        }
+        this.dataSource = dataSource;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.explain = explain;
+        this.file = file;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> dropped.increment());
+    }
+
+    /**
+     * Journal configuré par les clés db.slow-query.* de application.properties, null s'il est désactivé.
+     * Les mêmes clés passées dans les propriétés de l'unité de persistance sont prioritaires.
+     */
+    public static SlowQueryLog fromConfig(DataSource dataSource, Map<?, ?> overrides) {
+        if (!Boolean.parseBoolean(setting(overrides, "enabled", "false"))) {
+            return null;
+        }
+        String file = setting(overrides, "file", "");
+        return new SlowQueryLog(dataSource,
+                Long.parseLong(setting(overrides, "threshold-ms", "100")),
+                Boolean.parseBoolean(setting(overrides, "explain", "true")),
+                file.isEmpty() ? null : Paths.get(file),
+                Integer.parseInt(setting(overrides, "queue-capacity", "1000")));
+    }
+
+    private static String setting(Map<?, ?> overrides, String name, String defaultValue) {
+        Object value = overrides.get("db.slow-query." + name);
+        return value != null ? value.toString().trim() : AppConfig.get("db.slow-query." + name, defaultValue);
+    }
+
+    /** Instructions lentes journalisées (écrites) */
+    public long getLogged() {
+        return logged.sum();
+    }
+
+    /** Instructions lentes abandonnées, file d'écriture pleine */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /** Enveloppe une connexion : ses Statement, PreparedStatement et CallableStatement sont chronométrés */
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(method, connection, args);
+                    switch (method.getName()) {
+                        case "prepareStatement":
+                            return timed(PreparedStatement.class, (Statement) result, (String) args[0]);
+                        case "prepareCall":
+                            return timed(CallableStatement.class, (Statement) result, (String) args[0]);
+                        case "createStatement":
+                            return timed(Statement.class, (Statement) result, null);
+                        default:
+                            return result;
+                    }
+                });
+    }
+
+    private <S extends Statement> S timed(Class<S> statementInterface, Statement statement, String preparedSql) {
+        // Paramètres liés par index (1 à n), plus grand index lié et nombre de lignes ajoutées au lot en cours
+        Object[][] parameters = {new Object[8]};
+        int[] lastIndex = {0};
+        int[] batchSize = {0};
+        return statementInterface.cast(Proxy.newProxyInstance(statementInterface.getClassLoader(),
+                new Class<?>[]{statementInterface}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                        int index = (Integer) args[0];
+                        if (index >= parameters[0].length) {
+                            parameters[0] = Arrays.copyOf(parameters[0], Math.max(index + 1, parameters[0].length * 2));
+                        }
+                        parameters[0][index] = name.equals("setNull") ? null : printable(args[1]);
+                        lastIndex[0] = Math.max(lastIndex[0], index);
+                        return invoke(method, statement, args);
+                    }
+                    switch (name) {
+                        case "clearParameters":
+                            Arrays.fill(parameters[0], null);
+                            lastIndex[0] = 0;
+                            return invoke(method, statement, args);
+                        case "addBatch":
+                            batchSize[0]++;
+                            return invoke(method, statement, args);
+                        case "clearBatch":
+                            batchSize[0] = 0;
+                            return invoke(method, statement, args);
+                        case "execute":
+                        case "executeQuery":
+                        case "executeUpdate":
+                        case "executeLargeUpdate":
+                        case "executeBatch":
+                        case "executeLargeBatch":
+                            // Statement simple : le SQL est le premier argument
+                            String sql = preparedSql != null ? preparedSql
+                                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                            boolean batch = name.endsWith("Batch");
+                            long start = System.nanoTime();
+                            try {
+                                return invoke(method, statement, args);
+                            } finally {
+                                long elapsed = System.nanoTime() - start;
+                                if (elapsed >= thresholdNanos && sql != null) {
+                                    submit(new SlowStatement(elapsed, sql,
+                                            preparedSql != null && !batch ? Arrays.copyOf(parameters[0], lastIndex[0] + 1) : new Object[1],
+                                            batch ? batchSize[0] : 0, origin()));
+                                }
+                                if (batch) {
+                                    batchSize[0] = 0;
+                                }
+                            }
+                        default:
+                            return invoke(method, statement, args);
+                    }
+                }));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Valeur conservée pour le journal et l'EXPLAIN : les flux et LOB ne sont pas lus */
+    private static Object printable(Object value) {
+        if (value instanceof InputStream || value instanceof Reader || value instanceof Blob || value instanceof Clob) {
+            return "<" + value.getClass().getSimpleName() + ">";
+        }
+        return value;
+    }
+
+    /** Méthode de repository d'où part l'instruction, à défaut premier appelant de l'application */
+    private static String origin() {
+        return StackWalker.getInstance().walk(frames -> {
+            String application = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith("com.example.") || className.startsWith("com.example.util.")) {
+                    continue;
+                }
+                String method = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.endsWith("RepositoryImpl")) {
+                    return Optional.of(method);
+                }
+                if (application == null) {
+                    application = method;
+                }
+            }
+            return Optional.ofNullable(application);
+        }).orElse("?");
+    }
+
+    private void submit(SlowStatement statement) {
+        try {
+            writer.execute(() -> write(statement));
+        } catch (RuntimeException e) {
+            // Journal fermé
+            dropped.increment();
+        }
+    }
+
+    private void write(SlowStatement statement) {
+        StringBuilder entry = new StringBuilder();
+        entry.append(statement.timestamp).append(String.format(Locale.ROOT, " REQUÊTE LENTE %.3f ms", statement.elapsedNanos / 1e6))
+                .append(" [").append(statement.origin).append("] thread=").append(statement.thread);
+        if (statement.batchSize > 0) {
+            entry.append(" lot=").append(statement.batchSize);
+        }
+        entry.append('\n').append("  SQL: ").append(WHITESPACE.matcher(statement.sql).replaceAll(" ").trim()).append('\n');
+        if (statement.parameters.length > 1) {
+            entry.append("  Paramètres: ").append(formatParameters(statement.parameters)).append('\n');
+        }
+
+        String shape = shapeOf(statement.sql);
+        if (explain && explainedShapes.size() < MAX_SHAPES && explainedShapes.add(shape) && isExplainable(shape)) {
+            entry.append("  Plan (première occurrence de cette forme):\n");
+            try {
+                for (String line : explainPlan(statement)) {
+                    entry.append("    ").append(line).append('\n');
+                }
+            } catch (SQLException | RuntimeException e) {
+                entry.append("    indisponible: ").append(e.getMessage()).append('\n');
+            }
+        }
+        append(entry.toString());
+        logged.increment();
+    }
+
+    private String[] explainPlan(SlowStatement statement) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explainStatement = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+            int count = Math.min(statement.parameters.length - 1, explainStatement.getParameterMetaData().getParameterCount());
+            for (int i = 1; i <= count; i++) {
+                explainStatement.setObject(i, statement.parameters[i]);
+            }
+            try (ResultSet resultSet = explainStatement.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                while (resultSet.next()) {
+                    // Une colonne sous H2, plusieurs (table, type, key, rows...) sous MySQL
+                    for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                        if (metaData.getColumnCount() > 1) {
+                            plan.append(column > 1 ? " | " : "").append(metaData.getColumnLabel(column)).append('=');
+                        }
+                        plan.append(resultSet.getString(column));
+                    }
+                    plan.append('\n');
+                }
+            }
+        }
+        return plan.toString().split("\n");
+    }
+
+    private void append(String entry) {
+        if (file == null) {
+            System.out.print(entry);
+            return;
+        }
+        try {
+            Files.write(file, entry.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Impossible d'écrire le journal des requêtes lentes " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String formatParameters(Object[] parameters) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            String value = String.valueOf(parameters[i]);
+            if (value.length() > MAX_PARAMETER_LENGTH) {
+                value = value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+            }
+            text.append(i > 1 ? ", " : "").append(i).append('=').append(value);
+        }
+        return text.append(']').toString();
+    }
+
+    /** Forme de la requête : littéraux remplacés par ?, listes IN réduites, espaces normalisés */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static boolean isExplainable(String shape) {
+        String keyword = shape.length() >= 6 ? shape.substring(0, 6).toLowerCase(Locale.ROOT) : "";
+        return keyword.equals("select") || keyword.equals("update") || keyword.equals("delete");
+    }
+
+    /** Écrit les entrées en attente (au plus 30 s) puis arrête le thread d'écriture */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+-- Script de migration pour la version 3.0 de l'application "Réservation de salles"
+-- Les identifiants des réservations passent d'AUTO_INCREMENT à une séquence allouée par blocs
+-- (table reservation_seq), ce qui permet à Hibernate de regrouper les INSERT en batch JDBC.
+
+-- 1. Table de séquence utilisée par Hibernate (MySQL ne gère pas les séquences)
+CREATE TABLE IF NOT EXISTS reservation_seq (
+    next_val BIGINT
+);
+
+-- 2. Initialisation au-delà des identifiants existants (marge d'un bloc d'allocation de 50)
+INSERT INTO reservation_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM reservations
+WHERE NOT EXISTS (SELECT 1 FROM reservation_seq);
+
+-- 3. Mise à jour de la version de la base de données
+
+INSERT INTO db_version (id, version) VALUES (1, '3.0')
+    ON DUPLICATE KEY UPDATE version = '3.0', date_mise_a_jour = CURRENT_TIMESTAMP;
+
+-- Fin du script de migration
@@ -0,0 +1,31 @@
+-- Script de migration pour la version 4.0 de l'application "Réservation de salles"
+-- Ajout des séries de réservations récurrentes
+
+-- 1. Table des séries (règle de récurrence et créneau de la première occurrence)
+CREATE TABLE IF NOT EXISTS series_reservations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    date_debut DATETIME(6) NOT NULL,
+    date_fin DATETIME(6) NOT NULL,
+    motif VARCHAR(500),
+    frequence VARCHAR(20) NOT NULL,
+    intervalle INT NOT NULL DEFAULT 1,
+    date_fin_recurrence DATE,
+    nombre_occurrences INT,
+    utilisateur_id BIGINT NOT NULL,
+    salle_id BIGINT NOT NULL,
+    version BIGINT DEFAULT 0,
+    CONSTRAINT fk_serie_utilisateur FOREIGN KEY (utilisateur_id) REFERENCES utilisateurs(id),
+    CONSTRAINT fk_serie_salle FOREIGN KEY (salle_id) REFERENCES salles(id),
+    CONSTRAINT check_serie_frequence CHECK (frequence IN ('QUOTIDIENNE', 'HEBDOMADAIRE', 'MENSUELLE'))
+);
+
+-- 2. Rattachement des réservations à leur série
+ALTER TABLE reservations ADD COLUMN serie_id BIGINT;
+ALTER TABLE reservations ADD CONSTRAINT fk_reservation_serie FOREIGN KEY (serie_id) REFERENCES series_reservations(id);
+
+-- 3. Mise à jour de la version de la base de données
+
+INSERT INTO db_version (id, version) VALUES (1, '4.0')
+    ON DUPLICATE KEY UPDATE version = '4.0', date_mise_a_jour = CURRENT_TIMESTAMP;
+
+-- Fin du script de migration
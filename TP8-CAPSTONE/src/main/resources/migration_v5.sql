@@ -0,0 +1,13 @@
+-- Script de migration pour la version 5.0 de l'application "Réservation de salles"
+-- Index composite pour les recherches de chevauchement (dateDebut < fin AND dateFin > début)
+-- filtrées par salle et par statut : les égalités en tête, puis les bornes de dates
+
+-- 1. Index composite
+CREATE INDEX idx_reservation_salle_statut_dates ON reservations(salle_id, statut, date_debut, date_fin);
+
+-- 2. Mise à jour de la version de la base de données
+
+INSERT INTO db_version (id, version) VALUES (1, '5.0')
+    ON DUPLICATE KEY UPDATE version = '5.0', date_mise_a_jour = CURRENT_TIMESTAMP;
+
+-- Fin du script de migration
@@ -0,0 +1,29 @@
+-- Script de migration pour la version 6.0 de l'application "Réservation de salles"
+-- Les identifiants des salles et des utilisateurs passent d'AUTO_INCREMENT à des séquences allouées
+-- par blocs (tables salle_seq et utilisateur_seq), comme les réservations en version 3.0 : les
+-- insertions en masse de DataInitializer peuvent ainsi être regroupées en batch JDBC.
+
+-- 1. Tables de séquence utilisées par Hibernate (MySQL ne gère pas les séquences)
+CREATE TABLE IF NOT EXISTS salle_seq (
+    next_val BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS utilisateur_seq (
+    next_val BIGINT
+);
+
+-- 2. Initialisation au-delà des identifiants existants (marge d'un bloc d'allocation de 50)
+INSERT INTO salle_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM salles
+WHERE NOT EXISTS (SELECT 1 FROM salle_seq);
+
+INSERT INTO utilisateur_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM utilisateurs
+WHERE NOT EXISTS (SELECT 1 FROM utilisateur_seq);
+
+-- 3. Mise à jour de la version de la base de données
+
+INSERT INTO db_version (id, version) VALUES (1, '6.0')
+    ON DUPLICATE KEY UPDATE version = '6.0', date_mise_a_jour = CURRENT_TIMESTAMP;
+
+-- Fin du script de migration